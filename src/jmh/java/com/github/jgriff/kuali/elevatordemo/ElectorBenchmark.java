@@ -0,0 +1,88 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorFloorStopEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestDownEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestUpEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorStatusUpdateEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Benchmarks electing an elevator for UP/DOWN requests, as the number of elevators the
+ * {@link ElevatorElector} is tracking grows.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@State(Scope.Benchmark)
+public class ElectorBenchmark {
+    private static final int FLOORS = 50;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int elevators;
+
+    private ElevatorElector elector;
+    private int nextFloor;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        ElevatorRegistry registry = BasicElevatorRegistry.builder().eventPublisher(event -> {}).build();
+        elector = new ElevatorElector();
+        elector.setEventPublisher(event -> {});
+        elector.setRegistry(registry);
+
+        for (int i = 0; i < elevators; i++) {
+            StubElevator elevator = new StubElevator("Elevator " + i, elector);
+            registry.register(elevator);
+            elector.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+                    .descriptor(elevator.describe())
+                    .operationalState(ElevatorOperationalState.OPERATIONAL)
+                    .currentFloor(1 + random.nextInt(FLOORS))
+                    .futureStops(new ArrayList<>())
+                    .build()));
+        }
+    }
+
+    @Benchmark
+    public void requestUp() {
+        elector.onElevatorRequestUp(new ElevatorRequestUpEvent(nextFloor()));
+    }
+
+    @Benchmark
+    public void requestDown() {
+        elector.onElevatorRequestDown(new ElevatorRequestDownEvent(1 + nextFloor()));
+    }
+
+    private int nextFloor() {
+        nextFloor = nextFloor % (FLOORS - 1) + 1;
+        return nextFloor;
+    }
+
+    /**
+     * Elevator that goes nowhere, so we only measure the election itself.  It reports stopping at the floor straight
+     * away, so the next call from there is elected again (rather than answered with the elevator already on its way).
+     */
+    static class StubElevator implements Elevator {
+        private final ElevatorDescriptor descriptor;
+        private final ElevatorElector elector;
+
+        StubElevator(String name, ElevatorElector elector) {
+            descriptor = ElevatorDescriptor.builder().id(UUID.randomUUID()).name(name).build();
+            this.elector = elector;
+        }
+
+        @Override
+        public ElevatorDescriptor describe() {
+            return descriptor;
+        }
+
+        @Override
+        public void moveToFloor(int floor) {
+            elector.onElevatorFloorStop(new ElevatorFloorStopEvent(descriptor, floor));
+        }
+    }
+}
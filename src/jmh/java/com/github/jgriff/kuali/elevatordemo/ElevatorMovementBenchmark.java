@@ -0,0 +1,54 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the per-floor event pipeline of a {@link BasicElevator} (moving, status update, and either passing the
+ * floor or stopping at it with its doors opening and closing).  The elevator runs on a {@link VirtualClock}, so we
+ * measure the pipeline itself rather than the simulated delays.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@State(Scope.Thread)
+public class ElevatorMovementBenchmark {
+    private VirtualClock clock;
+    private BasicElevator elevator;
+    private int nextFloor;
+
+    @Setup
+    public void setup() {
+        clock = new VirtualClock();
+        elevator = BasicElevator.builder()
+                .topFloor(50)
+                .clock(clock)
+                .scheduling(BasicElevator.Scheduling.LOOK) // stops at any scheduled floor it reaches
+                .eventPublisher(event -> {})
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        clock.shutdown();
+    }
+
+    @Benchmark
+    public void passFloor(Blackhole blackhole) {
+        elevator.movingToFloor(nextFloor()).subscribe(blackhole::consume);
+        clock.advance();
+    }
+
+    @Benchmark
+    public void stopAtFloor(Blackhole blackhole) {
+        int floor = nextFloor();
+        elevator.getFloorsToStopAt().add(floor);
+        elevator.movingToFloor(floor).subscribe(blackhole::consume);
+        clock.advance();
+    }
+
+    private int nextFloor() {
+        nextFloor = nextFloor % 50 + 1;
+        return nextFloor;
+    }
+}
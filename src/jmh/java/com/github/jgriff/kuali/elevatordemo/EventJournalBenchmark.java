@@ -0,0 +1,58 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorFloorPassEvent;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Benchmarks the {@link EventJournal}: the cost to a publisher of journaling an event ({@link #append()}), and the
+ * cost to the writer of encoding one into a (direct, like a mapped segment) buffer ({@link #encode()}), which bounds
+ * how many events a second the writer can keep up with on its one core.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@State(Scope.Benchmark)
+public class EventJournalBenchmark {
+    private final ElevatorFloorPassEvent event = new ElevatorFloorPassEvent(
+            ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator 1").build(), 10);
+    private final EventCodec codec = new EventCodec();
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024 * 1024);
+    private Path directory;
+    private EventJournal journal;
+
+    @Setup
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("journal");
+        journal = EventJournal.builder().directory(directory).maxSegments(2).build();
+        journal.start();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        journal.close();
+        for (Path segment : EventJournal.segments(directory)) {
+            Files.delete(segment);
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public void append() {
+        journal.onElevatorOperation(event);
+    }
+
+    @Benchmark
+    public int encode() {
+        if (buffer.remaining() < 128) {
+            buffer.clear();
+        }
+        codec.encode(event, 0, buffer);
+        return buffer.position();
+    }
+}
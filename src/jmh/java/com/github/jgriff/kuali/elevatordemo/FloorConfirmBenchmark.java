@@ -0,0 +1,50 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorConfirmEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestEvent;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Benchmarks a floor's request/confirm round trip ({@link BasicFloor#requestUp()} through to the confirmation being
+ * delivered), while many other requests are still waiting on their confirmations.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@State(Scope.Benchmark)
+public class FloorConfirmBenchmark {
+    @Param({"0", "100", "1000"})
+    private int pendingRequests;
+
+    private BasicFloor floor;
+    private ElevatorRequestEvent lastRequest;
+
+    @Setup
+    public void setup() {
+        floor = BasicFloor.builder()
+                .number(2)
+                // so the backlog outlasts the trial, rather than timing out part way through it
+                .confirmationRouter(ElevatorConfirmationRouter.builder().confirmationTimeout(Duration.ofDays(1)).build())
+                .eventPublisher(event -> {
+                    if (event instanceof ElevatorRequestEvent) {
+                        lastRequest = (ElevatorRequestEvent) event;
+                    }
+                })
+                .build();
+
+        // requests that are never confirmed, still waiting while we measure
+        for (int i = 0; i < pendingRequests; i++) {
+            floor.requestUp();
+        }
+    }
+
+    @Benchmark
+    public ElevatorConfirmEvent requestAndConfirm() {
+        Mono<ElevatorConfirmEvent> confirmation = floor.requestUp();
+        floor.getConfirmationRouter().onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(lastRequest));
+        return confirmation.block();
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestEvent;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the rate floor requests are let into the building, so a surge of traffic is turned away at the door (and
+ * answered with {@link com.github.jgriff.kuali.elevatordemo.events.ElevatorConfirmEvent.Result#NO_AVAILABLE_ELEVATOR})
+ * rather than queueing up behind the elector and the elevators.  There are two limits, each a token bucket:
+ * <ul>
+ *     <li>per floor, so one busy floor can't crowd out all the others.</li>
+ *     <li>for the whole building, so the elector is never asked for more than it can keep up with.</li>
+ * </ul>
+ * A bucket holds up to its burst of requests, and refills at its rate (per second).  A rate of zero (the default)
+ * doesn't limit at all.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Builder
+public class AdmissionControl {
+    /**
+     * Clock the buckets are refilled by.
+     */
+    @Getter
+    @Builder.Default
+    private final SimulationClock clock = SimulationClock.realTime();
+    /**
+     * Requests (per second) let in from any one floor, or zero for no limit.
+     */
+    @Getter
+    private final double floorRate;
+    /**
+     * Requests let in from any one floor at once, before they are limited to the {@link #floorRate}.
+     */
+    @Getter
+    @Builder.Default
+    private final int floorBurst = 1;
+    /**
+     * Requests (per second) let in from the whole building, or zero for no limit.
+     */
+    @Getter
+    private final double buildingRate;
+    /**
+     * Requests let in from the whole building at once, before they are limited to the {@link #buildingRate}.
+     */
+    @Getter
+    @Builder.Default
+    private final int buildingBurst = 1;
+
+    private final Map<Integer, TokenBucket> floors = new ConcurrentHashMap<>();
+    private volatile TokenBucket building;
+    private final LongAdder floorRejected = new LongAdder(), buildingRejected = new LongAdder();
+
+    /**
+     * Let a request in, if neither its floor nor the building are over their limit.
+     *
+     * @return whether the request was let in.
+     * @since 0.0.1
+     */
+    public boolean admit(ElevatorRequestEvent request) {
+        long now = clock.now(TimeUnit.NANOSECONDS);
+        if (floorRate > 0 && !floors.computeIfAbsent(request.getRequestFloor(), f -> new TokenBucket(floorRate, floorBurst, now)).take(now)) {
+            floorRejected.increment();
+            return false;
+        }
+        if (buildingRate > 0 && !building(now).take(now)) {
+            buildingRejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return how many requests were turned away, because their floor was over its limit.
+     * @since 0.0.1
+     */
+    public long getFloorRejectedCount() {
+        return floorRejected.sum();
+    }
+
+    /**
+     * @return how many requests were turned away, because the building was over its limit.
+     * @since 0.0.1
+     */
+    public long getBuildingRejectedCount() {
+        return buildingRejected.sum();
+    }
+
+    private TokenBucket building(long now) {
+        TokenBucket bucket = building;
+        if (bucket == null) {
+            synchronized (this) {
+                if (building == null) {
+                    building = new TokenBucket(buildingRate, buildingBurst, now);
+                }
+                bucket = building;
+            }
+        }
+        return bucket;
+    }
+
+    /**
+     * Requests that can be let in right away, topped up as time passes.
+     */
+    private static class TokenBucket {
+        private final double perNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(double perSecond, int burst, long now) {
+            this.perNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+            this.capacity = Math.max(1, burst);
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        private synchronized boolean take(long now) {
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * perNano);
+                refilledAt = now;
+            }
+            if (tokens < 1) return false;
+            --tokens;
+            return true;
+        }
+    }
+}
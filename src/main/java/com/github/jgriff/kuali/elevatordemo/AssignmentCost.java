@@ -0,0 +1,45 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent.Direction;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestDownEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestUpEvent;
+
+import java.time.Duration;
+
+/**
+ * What it costs for an elevator to answer a hall call, as the {@link ElevatorElector} weighs it when
+ * {@link ElevatorElector#setBatchWindow(Duration) assigning a batch of calls} together.  Costs are estimated waits, in
+ * seconds, so the elector can report how much waiting its assignments saved.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@FunctionalInterface
+public interface AssignmentCost {
+    /**
+     * @param elevator latest status of the elevator.
+     * @param call the hall call to be answered.
+     * @param callsAhead how many other calls (of the same batch) the elevator will answer before this one.
+     * @return estimated wait (in seconds) for the caller, or {@link Double#POSITIVE_INFINITY} if the elevator cannot
+     * answer the call.
+     */
+    double cost(ElevatorStatus elevator, ElevatorRequestEvent call, int callsAhead);
+
+    /**
+     * Estimates when the elevator will reach the caller with the {@link ElevatorEtaModel ETA model} (from its own
+     * speed, and door delay at each stop), plus a stop for each call ahead of this one.
+     */
+    static AssignmentCost estimatedArrival() {
+        return (elevator, call, callsAhead) -> {
+            if (elevator.getOperationalState() != ElevatorOperationalState.OPERATIONAL || elevator.getCurrentFloor() == null) {
+                return Double.POSITIVE_INFINITY;
+            }
+            Direction direction = call instanceof ElevatorRequestUpEvent ? Direction.UP
+                    : call instanceof ElevatorRequestDownEvent ? Direction.DOWN : null;
+            Duration perStop = elevator.getDoorOpenDelay() != null ? elevator.getDoorOpenDelay() : ElevatorEtaModel.DEFAULT_DOOR_OPEN_DELAY;
+            Duration eta = ElevatorEtaModel.estimate(elevator, call.getRequestFloor(), direction).plus(perStop.multipliedBy(callsAhead));
+            return eta.toNanos() / 1e9;
+        };
+    }
+}
@@ -0,0 +1,206 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Splits the building into {@link ElevatorBank banks}, each with its own {@link ElevatorElector}, and routes every
+ * call to the bank that serves it:
+ * <ul>
+ *     <li>a hall call, to the bank serving the floor it was made from (taking turns between the banks that share a
+ *     floor, such as the lobby).</li>
+ *     <li>a destination request, to the bank serving both the passenger's floor and their destination.</li>
+ *     <li>an elevator's own events (its statuses and stops), to the bank it belongs to.</li>
+ * </ul>
+ * Each bank's events are queued for, and handled on, a thread of its own, so a bank's elector only ever sees one event
+ * at a time (in the order they were routed), and banks elect in parallel with one another.  Calls no bank serves are
+ * answered straight away with {@link ElevatorConfirmEvent.Result#NO_AVAILABLE_ELEVATOR}, unless there are no banks at
+ * all (ie, in a JVM that only runs elevators, {@link EventLink linked} to another that elects), in which case they are
+ * left for the other JVM to answer.
+ * <p>
+ * Every elevator must be in a bank to be elected.  Events from one that isn't (ie, a misconfigured remote elevator)
+ * are dropped, with a warning the first time it is heard from.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Slf4j
+public class BankRouter {
+    @Getter
+    private final List<ElevatorBank> banks;
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<Lane> lanes = new ArrayList<>();
+    private final Map<UUID, Lane> lanesByElevator = new HashMap<>();
+    private final AtomicInteger turn = new AtomicInteger();
+    private final Set<UUID> unbanked = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param electorFactory creates each bank's elector (which is then wired to the publisher and registry), or
+     * {@code null} for a default {@link ElevatorElector}.
+     */
+    @Builder
+    private BankRouter(@Singular List<ElevatorBank> banks, @NonNull ApplicationEventPublisher eventPublisher,
+                       @NonNull ElevatorRegistry registry, Supplier<ElevatorElector> electorFactory) {
+        this.banks = banks;
+        this.eventPublisher = eventPublisher;
+        for (ElevatorBank bank : banks) {
+            ElevatorElector elector = electorFactory != null ? electorFactory.get() : new ElevatorElector();
+            elector.setEventPublisher(eventPublisher);
+            elector.setRegistry(registry);
+
+            Lane lane = new Lane(bank, elector, Schedulers.newSingle("bank-" + bank.getName(), true));
+            lanes.add(lane);
+            bank.getElevators().forEach(id -> {
+                if (lanesByElevator.putIfAbsent(id, lane) != null) throw new IllegalArgumentException("Elevator '" + id + "' is in more than one bank.");
+            });
+        }
+    }
+
+    @EventListener
+    public void onElevatorStatusUpdate(ElevatorStatusUpdateEvent e) {
+        toElevatorsBank(e.getStatusUpdate().getDescriptor().getId(), elector -> elector.onElevatorStatusUpdate(e));
+    }
+
+    @EventListener
+    public void onElevatorUnregistered(ElevatorUnregisteredEvent e) {
+        toElevatorsBank(e.getElevator().getId(), elector -> elector.onElevatorUnregistered(e));
+    }
+
+    @EventListener
+    public void onElevatorFloorStop(ElevatorFloorStopEvent e) {
+        toElevatorsBank(e.getElevator().getId(), elector -> elector.onElevatorFloorStop(e));
+    }
+
+    @EventListener
+    public void onElevatorRequestUp(ElevatorRequestUpEvent request) {
+        toBankServing(request, elector -> elector.onElevatorRequestUp(request));
+    }
+
+    @EventListener
+    public void onElevatorRequestDown(ElevatorRequestDownEvent request) {
+        toBankServing(request, elector -> elector.onElevatorRequestDown(request));
+    }
+
+    @EventListener
+    public void onElevatorDestinationRequest(ElevatorDestinationRequestEvent request) {
+        toBankServing(request, elector -> elector.onElevatorDestinationRequest(request));
+    }
+
+    /**
+     * @return the bank an elevator belongs to, if any.
+     */
+    public Optional<ElevatorBank> bankOf(UUID elevator) {
+        return Optional.ofNullable(lanesByElevator.get(elevator)).map(lane -> lane.bank);
+    }
+
+    /**
+     * @return the bank a request would be routed to (which, for a floor shared by several banks, changes from one call
+     * to the next), if any serves it.
+     */
+    public Optional<ElevatorBank> bankFor(ElevatorRequestEvent request) {
+        return Optional.ofNullable(laneFor(request)).map(lane -> lane.bank);
+    }
+
+    /**
+     * @return every bank's elector state, combined.
+     * @see ElevatorElector#snapshot()
+     */
+    public StateSnapshot.ElectorState snapshot() {
+        StateSnapshot.ElectorState.ElectorStateBuilder state = StateSnapshot.ElectorState.builder();
+        for (Lane lane : lanes) {
+            StateSnapshot.ElectorState bankState = lane.elector.snapshot();
+            state.statuses(bankState.getStatuses()).boardings(bankState.getBoardings());
+        }
+        return state.build();
+    }
+
+    /**
+     * Restore each bank's elector with the state of its own elevators.  State for elevators no longer in any bank is
+     * dropped.
+     * @see ElevatorElector#restore(StateSnapshot.ElectorState)
+     */
+    public void restore(StateSnapshot.ElectorState state) {
+        Map<Lane, StateSnapshot.ElectorState.ElectorStateBuilder> byLane = new HashMap<>();
+        state.getStatuses().forEach(s -> Optional.ofNullable(lanesByElevator.get(s.getDescriptor().getId()))
+                .ifPresent(lane -> byLane.computeIfAbsent(lane, l -> StateSnapshot.ElectorState.builder()).status(s)));
+        state.getBoardings().forEach(b -> Optional.ofNullable(lanesByElevator.get(b.getElevator()))
+                .ifPresent(lane -> byLane.computeIfAbsent(lane, l -> StateSnapshot.ElectorState.builder()).boarding(b)));
+        byLane.forEach((lane, bankState) -> lane.elector.restore(bankState.build()));
+    }
+
+    /**
+     * Stop each bank's thread.
+     */
+    public void close() {
+        lanes.forEach(lane -> lane.scheduler.dispose());
+    }
+
+    private void toElevatorsBank(UUID elevator, Consumer<ElevatorElector> handler) {
+        Lane lane = lanesByElevator.get(elevator);
+        if (lane != null) {
+            lane.handle(handler);
+        } else if (!lanes.isEmpty() && unbanked.add(elevator)) {
+            log.warn("Elevator '" + elevator + "' is in no bank, so it will never be elected (check the banks' elevator ids).");
+        }
+    }
+
+    private void toBankServing(ElevatorRequestEvent request, Consumer<ElevatorElector> handler) {
+        Lane lane = laneFor(request);
+        if (lane != null) {
+            lane.handle(handler);
+        } else if (!lanes.isEmpty()) {
+            eventPublisher.publishEvent(ElevatorConfirmEvent.noElevatorAvailableFor(request));
+        }
+    }
+
+    private Lane laneFor(ElevatorRequestEvent request) {
+        List<Lane> serving = new ArrayList<>(2);
+        for (Lane lane : lanes) {
+            if (lane.bank.serves(request.getRequestFloor()) && (!(request instanceof ElevatorDestinationRequestEvent)
+                    || lane.bank.serves(((ElevatorDestinationRequestEvent) request).getDestinationFloor()))) {
+                serving.add(lane);
+            }
+        }
+        if (serving.isEmpty()) return null;
+        return serving.size() == 1 ? serving.get(0) : serving.get(Math.floorMod(turn.getAndIncrement(), serving.size()));
+    }
+
+    /**
+     * A bank, and the elector (and thread) its events are handled by.
+     */
+    private static class Lane {
+        private final ElevatorBank bank;
+        private final ElevatorElector elector;
+        private final Scheduler scheduler;
+
+        private Lane(ElevatorBank bank, ElevatorElector elector, Scheduler scheduler) {
+            this.bank = bank;
+            this.elector = elector;
+            this.scheduler = scheduler;
+        }
+
+        private void handle(Consumer<ElevatorElector> handler) {
+            scheduler.schedule(() -> {
+                try {
+                    handler.accept(elector);
+                } catch (RuntimeException e) {
+                    log.warn("Bank '" + bank.getName() + "' failed to handle an event.", e);
+                }
+            });
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.jgriff.kuali.elevatordemo;
 
 import com.github.jgriff.kuali.elevatordemo.events.*;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
@@ -9,16 +10,17 @@ import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import javax.annotation.PostConstruct;
 import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.Queue;
 import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
@@ -28,6 +30,7 @@ import java.util.stream.Stream;
 @Getter
 @Slf4j
 public class BasicElevator implements Elevator {
+    @Builder.Default
     private final UUID id = UUID.randomUUID();
     @Builder.Default
     private String name = "Basic Elevator";
@@ -36,9 +39,8 @@ public class BasicElevator implements Elevator {
     private final int firstFloor = 1, topFloor = 10;
     @Builder.Default
     private int currentFloor = 1;
-    @Builder.Default
-    private List<Integer> floorsToStopAt = Collections.synchronizedList(new ArrayList<>());
-    private Integer lastScheduledFloor;
+    private volatile FloorStops floorsToStopAt;
+    private ElevatorMovingEvent.Direction direction;
 
     /**
      * Speed at which this elevator can move between floors.
@@ -50,19 +52,52 @@ public class BasicElevator implements Elevator {
      */
     @Builder.Default
     private final Duration doorOpenDelay = Duration.ofSeconds(5);
+    /**
+     * Clock this elevator keeps time by, which all of its movement and door delays are scheduled on.
+     */
+    @Builder.Default
+    private final SimulationClock clock = SimulationClock.realTime();
+    /**
+     * Order in which this elevator serves its stops.
+     */
+    @Builder.Default
+    private final Scheduling scheduling = Scheduling.FIFO;
+    /**
+     * Most stops this elevator will take on at once.  Asking it to stop anywhere else, while it has that many, raises
+     * an {@link ElevatorUnavailableException}.
+     */
+    @Builder.Default
+    private final int maxStops = Integer.MAX_VALUE;
+    private final Queue<Integer> requestOrder = new ConcurrentLinkedQueue<>();
     
     private Disposable floorVisitations;
     private FluxSink<Integer> floorVisitScheduler;
     private ApplicationEventPublisher eventPublisher;
     
     private int floorsPassed, tripsMade;
+    @Getter(AccessLevel.NONE)
+    private final AtomicLong statusVersion = new AtomicLong();
+    @Getter(AccessLevel.NONE)
+    private final LongAdder rejectedStops = new LongAdder();
+    /**
+     * Stops scheduled (or about to be), which is never fewer than are in {@link #floorsToStopAt}.
+     */
+    @Getter(AccessLevel.NONE)
+    private final AtomicInteger stopCount = new AtomicInteger();
+    @Getter(AccessLevel.NONE)
+    private volatile ElevatorDescriptor descriptor;
 
     @Override
     public ElevatorDescriptor describe() {
-        return ElevatorDescriptor.builder()
-                .id(getId())
-                .name(getName())
-                .build();
+        // descriptors are immutable, so we hand out the same one for every event (racing to build it is harmless)
+        ElevatorDescriptor described = descriptor;
+        if (described == null) {
+            descriptor = described = ElevatorDescriptor.builder()
+                    .id(getId())
+                    .name(getName())
+                    .build();
+        }
+        return described;
     }
 
     @Override
@@ -70,7 +105,19 @@ public class BasicElevator implements Elevator {
         if (floor < getFirstFloor()) throw new InvalidElevatorRequestException("Cannot go to floor '" + floor + "', it is below the first floor (" + getFirstFloor() + ").");
         if (floor > getTopFloor()) throw new InvalidElevatorRequestException("Cannot go to floor '" + floor + "', it is above the top floor (" + getTopFloor() + ").");
         
-        floorsToStopAt.add(floor);
+        FloorStops stops = getFloorsToStopAt();
+        if (stops.contains(floor)) return; // we are already scheduled to stop there
+        if (!reserveStop()) {
+            rejectedStops.increment();
+            throw new ElevatorUnavailableException("Cannot go to floor '" + floor + "', already have the most stops (" + getMaxStops() + ").");
+        }
+        if (!stops.add(floor)) {
+            stopCount.decrementAndGet(); // someone else scheduled it in the meantime, so we don't need the room
+            return;
+        }
+        if (getScheduling() == Scheduling.FIFO) {
+            requestOrder.offer(floor);
+        }
         if (floorVisitations == null) {
             floorVisitations = createFloorVisitFlux();
         }
@@ -78,79 +125,189 @@ public class BasicElevator implements Elevator {
         floorVisitScheduler.next(floor);
     }
 
+    /**
+     * Make room for one more stop, before it is scheduled, so callers racing for the last of the room can't both take
+     * it.
+     *
+     * @return {@code false} if we already have the {@link #maxStops most} stops we take on.
+     */
+    private boolean reserveStop() {
+        int count;
+        do {
+            count = stopCount.get();
+            if (count >= getMaxStops()) return false;
+        } while (!stopCount.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    /**
+     * @return how many stops this elevator turned down, for already having the {@link #maxStops most} it takes on.
+     * @since 0.0.1
+     */
+    public long getRejectedStopCount() {
+        return rejectedStops.sum();
+    }
+
+    /**
+     * @return the floors this elevator is scheduled to stop at (sized to the floors it serves, on first use).
+     */
+    public FloorStops getFloorsToStopAt() {
+        FloorStops stops = floorsToStopAt;
+        if (stops == null) {
+            synchronized (this) {
+                if (floorsToStopAt == null) {
+                    floorsToStopAt = new FloorStops(getFirstFloor(), getTopFloor());
+                }
+                stops = floorsToStopAt;
+            }
+        }
+        return stops;
+    }
+
     /**
      * Factory method for creating our {@link Flux} that simulates the movement of this elevator.  
      * Used whenever the elevator goes into service initially, or back into service (out of maintenance).
+     * <p>
+     * A requested floor is already in our {@link #getFloorsToStopAt() stops} by the time it gets here, so it only has
+     * to wake the elevator up.  The elevator then travels one floor at a time, choosing where to head next (according
+     * to its {@link Scheduling}) at every floor, so stops requested along the way are picked up as it goes.
      * 
      * @return the configured flux simulating elevator movement.
      * @since 0.0.0
      */
     private Disposable createFloorVisitFlux() {
-        return Flux.create((FluxSink<Integer> emitter) -> this.floorVisitScheduler = emitter)
-                .distinct() // don't schedule a duplicate stop at a floor we are already scheduled to stop at
-                .doOnNext((f) -> log.debug("Floor '" + f + "' has been requested and queued for elevator: " + describe()))
-              
-                .publishOn(Schedulers.elastic())
-                .delayElements(getMovementSpeed())
-                
-                // before we visit the next floor, schedule the interim floors we must pass
-                .flatMapSequential(this::interimFloors)  
-                
-                // move to the floor
-                .flatMapSequential(this::movingToFloor)
-                
-                // also include diagnostic update whenever we stop at a floor
-                .flatMapSequential(e -> {
-                    if (e instanceof ElevatorFloorStopEvent) {
-                        return Flux.just(e, ElevatorDiagnosticUpdateEvent.forDiagnostic(currentDiagnostic()));
-                    } else {
-                        return Flux.just(e);
+        // requests made while we are already on our way only need to wake us up once we are done, so the sink keeps
+        // just the latest (rather than buffering every one)
+        return Flux.create((FluxSink<Integer> emitter) -> this.floorVisitScheduler = emitter, FluxSink.OverflowStrategy.LATEST)
+                .doOnNext((f) -> {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Floor '" + f + "' has been requested and queued for elevator: " + describe());
                     }
                 })
+
+                .concatMap((f) -> journey(), 1)
                 
-                .subscribe(eventPublisher::publishEvent);
+                .subscribe(this::publish, this::restartFloorVisits);
     }
 
-    private Flux<Integer> interimFloors(int targetFloor) {
-        if (lastScheduledFloor == null) {
-            lastScheduledFloor = getCurrentFloor();
+    /**
+     * Put the elevator back in service after its movement failed (so it never stops moving for good, with stops still
+     * to make), carrying on with the stops it has left.
+     */
+    private void restartFloorVisits(Throwable error) {
+        log.error("Elevator movement failed, restarting it: " + describe(), error);
+        floorVisitations = createFloorVisitFlux();
+        int next = nextFloorToHeadFor();
+        if (next != FloorStops.NONE) {
+            floorVisitScheduler.next(next);
         }
-        List<Integer> floorsBetween = floorsBetween(lastScheduledFloor, targetFloor).collect(Collectors.toList());
-        lastScheduledFloor = floorsBetween.stream().reduce((a, b) -> b).orElse(null);
-        return Flux.fromIterable(floorsBetween);
     }
 
-    private Stream<Integer> floorsBetween(int start, int finish) {
-        if (start == finish) return Stream.empty();    
+    /**
+     * Publish one of our events.  A failure to publish it is only logged, so it never stops the elevator.
+     */
+    private void publish(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish event: " + event, e);
+        }
+    }
 
-        if (start < finish) {
-            // going up...
-            return Stream.iterate(start + 1, (f) -> ++f).limit(finish - start);
+    /**
+     * @return the floors visited until there are no stops left.
+     */
+    private Flux<ElevatorOperationEvent> journey() {
+        return Flux.defer(this::step)
+                .repeat(() -> nextFloorToHeadFor() != FloorStops.NONE);
+    }
+
+    /**
+     * @return the events for moving one floor toward the floor we are heading for (or for stopping, if we are there).
+     */
+    private Flux<ElevatorOperationEvent> step() {
+        int target = nextFloorToHeadFor();
+        if (target == FloorStops.NONE) return Flux.empty();
+
+        Flux<ElevatorOperationEvent> visit;
+        if (target == currentFloor) {
+            visit = movingToFloor(target);
         } else {
-            // going down...
-            return Stream.iterate(start - 1, (f) -> --f).limit(start - finish);
+            int floor = currentFloor + Integer.signum(target - currentFloor);
+            visit = Mono.delay(getMovementSpeed(), getClock().getScheduler())
+                    .flatMapMany((tick) -> movingToFloor(floor));
         }
+
+        // also include diagnostic update whenever we stop at a floor
+        return visit.concatMap(e -> {
+            if (e instanceof ElevatorFloorStopEvent) {
+                return Flux.just(e, ElevatorDiagnosticUpdateEvent.forDiagnostic(currentDiagnostic()));
+            } else {
+                return Flux.just(e);
+            }
+        });
+    }
+
+    /**
+     * @return the floor we should be heading for right now, or {@link FloorStops#NONE} if we have no stops.
+     */
+    private int nextFloorToHeadFor() {
+        if (getScheduling() == Scheduling.FIFO) {
+            Integer oldest = requestOrder.peek();
+            return oldest != null ? oldest : FloorStops.NONE;
+        }
+
+        FloorStops stops = getFloorsToStopAt();
+        if (stops.isEmpty()) return FloorStops.NONE;
+        
+        boolean goingDown = getDirection() == ElevatorMovingEvent.Direction.DOWN;
+        int ahead = goingDown ? stops.nextAtOrBelow(currentFloor) : stops.nextAtOrAbove(currentFloor);
+        if (ahead != FloorStops.NONE) return ahead;
+        
+        if (getScheduling() == Scheduling.SCAN) {
+            int end = goingDown ? getFirstFloor() : getTopFloor();
+            if (currentFloor != end) return end;
+        }
+        
+        // nothing more this way, so turn around
+        return goingDown ? stops.nextAtOrAbove(currentFloor) : stops.nextAtOrBelow(currentFloor);
+    }
+
+    private boolean stoppingAt(int floor) {
+        if (getScheduling() == Scheduling.FIFO) {
+            Integer oldest = requestOrder.peek();
+            if (oldest == null || oldest != floor) return false;
+            requestOrder.poll();
+        }
+        if (!getFloorsToStopAt().clear(floor)) return false;
+        stopCount.decrementAndGet();
+        return true;
     }
     
-    private Flux<ElevatorOperationEvent> movingToFloor(int floor) {
+    // package-private so the per-floor pipeline can be benchmarked on its own
+    Flux<ElevatorOperationEvent> movingToFloor(int floor) {
         return Mono.just(floor)
-                // we're moving...
-                .doOnNext((f) -> eventPublisher.publishEvent(
-                        ElevatorMovingEvent.builder()
-                            .elevator(describe())
-                            .direction(currentFloor < f ? ElevatorMovingEvent.Direction.UP : ElevatorMovingEvent.Direction.DOWN)
-                            .nextFloor(f)
-                            .build()
-                ))
-                
+                // we're moving (unless we are already at the floor)...
+                .doOnNext((f) -> {
+                    if (f != currentFloor) publishMoving(f);
+                })
                 .doOnNext((newCurrentFloor) -> currentFloor = newCurrentFloor)
                 
                 // are we stopping here?
-                .map(floorsToStopAt::remove)
+                .map(this::stoppingAt)
                 .doOnNext(f -> publishCurrentStatus())
                 .flatMapMany((stopping) -> stopping ? stoppingAtFloor(floor) : passingByFloor(floor));
     }
 
+    private void publishMoving(int nextFloor) {
+        direction = currentFloor < nextFloor ? ElevatorMovingEvent.Direction.UP : ElevatorMovingEvent.Direction.DOWN;
+        publish(ElevatorMovingEvent.builder()
+                .elevator(describe())
+                .direction(direction)
+                .nextFloor(nextFloor)
+                .build());
+    }
+
     private Flux<ElevatorOperationEvent> stoppingAtFloor(int floor) {
         ++floorsPassed;
         ++tripsMade;
@@ -171,8 +328,8 @@ public class BasicElevator implements Elevator {
                                 .elevator(describe())
                                 .floor(floor)
                                 .build())
-                        .publishOn(Schedulers.elastic())
-                        .delayElements(getDoorOpenDelay()));        
+                        .publishOn(getClock().getScheduler())
+                        .delayElements(getDoorOpenDelay(), getClock().getScheduler()));        
     }  
 
     private Flux<ElevatorOperationEvent> passingByFloor(int floor) { 
@@ -185,20 +342,62 @@ public class BasicElevator implements Elevator {
     }
     
     public void publishCurrentStatus() {
-        eventPublisher.publishEvent(ElevatorStatusUpdateEvent.forStatus(currentStatus()));
+        publish(ElevatorStatusUpdateEvent.forStatus(currentStatus()));
     }
     
     private ElevatorStatus currentStatus() {
+        List<Integer> futureStops = getFloorsToStopAt().toList();
         return ElevatorStatus.builder()
                 .descriptor(describe())
                 .operationalState(ElevatorOperationalState.OPERATIONAL) // TODO monitor activity and put into maintenance when threshold exceeded
                 .currentFloor(getCurrentFloor())
-                .futureStops(new ArrayList<>(getFloorsToStopAt()))
+                .futureStops(futureStops)
+                .direction(futureStops.isEmpty() ? null : getDirection())
+                .version(statusVersion.incrementAndGet())
+                .movementSpeed(getMovementSpeed())
+                .doorOpenDelay(getDoorOpenDelay())
+                .maxStops(getMaxStops() != Integer.MAX_VALUE ? getMaxStops() : null)
                 .build();
     }
     
+    /**
+     * @return where this elevator is, the stops it still has to make, and how far it has been, to be
+     * {@link #restore(StateSnapshot.ElevatorState) restored} after a restart.
+     * @since 0.0.1
+     */
+    public StateSnapshot.ElevatorState snapshot() {
+        List<Integer> stops = getScheduling() == Scheduling.FIFO ? new ArrayList<>(requestOrder) : getFloorsToStopAt().toList();
+        return StateSnapshot.ElevatorState.builder()
+                .id(getId())
+                .currentFloor(getCurrentFloor())
+                .direction(getDirection())
+                .stops(stops)
+                .floorsPassed(getFloorsPassed())
+                .tripsMade(getTripsMade())
+                .build();
+    }
+
+    /**
+     * Carry on from a {@link #snapshot() snapshot}: back at the same floor, with the same counters, and on its way to
+     * the same stops.  Meant for an elevator that has only just been built (before it has been asked to move).
+     * @since 0.0.1
+     */
+    public void restore(StateSnapshot.ElevatorState state) {
+        currentFloor = state.getCurrentFloor();
+        direction = state.getDirection();
+        floorsPassed = state.getFloorsPassed();
+        tripsMade = state.getTripsMade();
+        for (int floor : state.getStops()) {
+            try {
+                moveToFloor(floor);
+            } catch (InvalidElevatorRequestException | ElevatorUnavailableException e) {
+                log.warn("Not restoring stop at floor '" + floor + "' for elevator: " + describe(), e);
+            }
+        }
+    }
+    
     public void publishCurrentDiagnostic() {
-        eventPublisher.publishEvent(ElevatorDiagnosticUpdateEvent.forDiagnostic(currentDiagnostic()));
+        publish(ElevatorDiagnosticUpdateEvent.forDiagnostic(currentDiagnostic()));
     }
     
     private ElevatorDiagnostic currentDiagnostic() {
@@ -208,4 +407,22 @@ public class BasicElevator implements Elevator {
                 .tripsMade(getTripsMade())
                 .build();
     }
+
+    /**
+     * How an elevator orders the stops it has to make.
+     */
+    public enum Scheduling {
+        /**
+         * Serve stops in the order they were requested, passing by any others on the way.
+         */
+        FIFO,
+        /**
+         * Sweep all the way to the top (or first) floor, stopping on the way, before turning around.
+         */
+        SCAN,
+        /**
+         * Keep going in the same direction, stopping on the way, until there are no more stops ahead, then turn around.
+         */
+        LOOK
+    }
 }
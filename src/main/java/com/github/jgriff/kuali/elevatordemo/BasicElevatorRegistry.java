@@ -0,0 +1,52 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRegisteredEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorUnregisteredEvent;
+import lombok.Builder;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link ElevatorRegistry} backed by a concurrent map, so lookups by id are {@code O(1)} and never block
+ * registration changes.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Builder
+public class BasicElevatorRegistry implements ElevatorRegistry {
+    private final Map<UUID, Elevator> elevators = new ConcurrentHashMap<>();
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public boolean register(Elevator elevator) {
+        ElevatorDescriptor descriptor = elevator.describe();
+        if (elevators.putIfAbsent(descriptor.getId(), elevator) != null) return false;
+
+        eventPublisher.publishEvent(ElevatorRegisteredEvent.forElevator(descriptor));
+        return true;
+    }
+
+    @Override
+    public Optional<Elevator> unregister(UUID id) {
+        Optional<Elevator> removed = Optional.ofNullable(elevators.remove(id));
+        removed.ifPresent(e -> eventPublisher.publishEvent(ElevatorUnregisteredEvent.forElevator(e.describe())));
+        return removed;
+    }
+
+    @Override
+    public Optional<Elevator> lookup(UUID id) {
+        return Optional.ofNullable(elevators.get(id));
+    }
+
+    @Override
+    public Collection<Elevator> getElevators() {
+        return Collections.unmodifiableCollection(elevators.values());
+    }
+}
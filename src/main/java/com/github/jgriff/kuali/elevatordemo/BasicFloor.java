@@ -1,15 +1,13 @@
 package com.github.jgriff.kuali.elevatordemo;
 
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorConfirmEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorDestinationRequestEvent;
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestDownEvent;
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestEvent;
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestUpEvent;
 import lombok.Builder;
 import lombok.Getter;
 import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.context.event.EventListener;
-import reactor.core.publisher.Flux;
-import reactor.core.publisher.FluxSink;
 import reactor.core.publisher.Mono;
 
 /**
@@ -21,10 +19,18 @@ import reactor.core.publisher.Mono;
 public class BasicFloor implements Floor {
     private final int number;
     private final boolean top, bottom;
+    /**
+     * Number of the building's top floor, the highest destination that can be requested from here (floors are numbered
+     * from 1).
+     */
+    @lombok.Builder.Default
+    private final int topFloor = Integer.MAX_VALUE;
     private ApplicationEventPublisher eventPublisher;
-    
-    private final Flux<ElevatorConfirmEvent> confirmations = Flux.create((FluxSink<ElevatorConfirmEvent> emitter) -> this.confirmationEmitter = emitter);
-    private FluxSink<ElevatorConfirmEvent> confirmationEmitter;
+    /**
+     * Router delivering the confirmations for our requests (typically shared by every floor in the building).
+     */
+    @lombok.Builder.Default
+    private ElevatorConfirmationRouter confirmationRouter = ElevatorConfirmationRouter.builder().build();
 
     @Override
     public Mono<ElevatorConfirmEvent> requestUp() {
@@ -38,34 +44,27 @@ public class BasicFloor implements Floor {
         return publishForConfirm(ElevatorRequestDownEvent.from(this));
     }
 
+    @Override
+    public Mono<ElevatorConfirmEvent> requestTo(int destination) {
+        if (destination == getNumber()) throw new InvalidElevatorRequestException("Cannot go to floor '" + destination + "', we are already there.");
+        if (destination > getTopFloor() || (destination > getNumber() && isTop())) throw new InvalidElevatorRequestException("Cannot go to floor '" + destination + "', it is above the top floor.");
+        if (destination < 1 || (destination < getNumber() && isBottom())) throw new InvalidElevatorRequestException("Cannot go to floor '" + destination + "', it is below the first floor.");
+        return publishForConfirm(ElevatorDestinationRequestEvent.from(this, destination));
+    }
+
     /**
      * Support method that publishes a request and handles creating a {@link Mono} that will deliver the matching
-     * {@link ElevatorConfirmEvent}.
+     * {@link ElevatorConfirmEvent}.  The request may be turned away without being published (see
+     * {@link ElevatorConfirmationRouter}), in which case the Mono delivers a
+     * {@link ElevatorConfirmEvent.Result#NO_AVAILABLE_ELEVATOR} confirmation right away.
      * 
      * @param request the request to publish, and expect a {@link ElevatorConfirmEvent} for.
      * @return a Mono to deliver the matching confirm event
      * @since 0.0.0
      */
     private Mono<ElevatorConfirmEvent> publishForConfirm(ElevatorRequestEvent request) {
-        try {
-            Mono<ElevatorConfirmEvent> toReturn = confirmations.publish().autoConnect()
-                    .filter(e -> e.isConfirming(request)) // only deliver the confirmation for this particular request
-                    .take(1).single() // expect only one confirm
-                    .cache(); // cache it in case we get the event before our client (we are returning this to) subscribes
-
-            toReturn.subscribe(); // induce demand so our Mono is activated downstream
-            return toReturn;
-        } finally {
-            eventPublisher.publishEvent(request);
-        }        
+        return confirmationRouter.expect(request, () -> eventPublisher.publishEvent(request));
     } 
-
-    @EventListener
-    public void onElevatorRequestConfirm(ElevatorConfirmEvent e) {
-        if (confirmationEmitter != null) {
-            confirmationEmitter.next(e);
-        } 
-    }
     
     public static Builder builder() {
         return new Builder();
@@ -73,7 +72,7 @@ public class BasicFloor implements Floor {
     
     public static class Builder extends BasicFloorBuilder {
         public Builder singleStory() {
-            return (Builder) number(1).top(true).bottom(true);
+            return (Builder) number(1).top(true).bottom(true).topFloor(1);
         }
     }
 }
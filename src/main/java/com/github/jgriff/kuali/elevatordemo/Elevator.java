@@ -19,6 +19,8 @@ public interface Elevator {
      * 
      * @param floor a floor to schedule this elevator to visit.
      * @throws InvalidElevatorRequestException raise if the request floor is invalid (ie, below the first floor or above the top floor).
+     * @throws ElevatorUnavailableException raise if this elevator can't take on another stop right now (ie, it already
+     * has as many as it can).
      * @since 0.0.0
      */
     void moveToFloor(int floor) throws InvalidElevatorRequestException;
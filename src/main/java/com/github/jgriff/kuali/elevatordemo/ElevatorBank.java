@@ -0,0 +1,43 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A bank (or zone) of elevators, serving a range of floors of the building (and its lobby, which every bank serves).
+ * Hall calls from the bank's floors are only ever answered by the bank's own elevators, each bank with its own
+ * {@link ElevatorElector} (see {@link BankRouter}).
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Value
+@Builder
+public class ElevatorBank {
+    private final String name;
+    /**
+     * Lowest and highest floor of the zone this bank serves.
+     */
+    private final int lowestFloor, highestFloor;
+    /**
+     * Floor every bank serves (as well as its own zone), where passengers come and go from the building.
+     */
+    @Builder.Default
+    private final int lobby = 1;
+    /**
+     * Ids of the elevators in this bank.
+     */
+    @Singular
+    private final Set<UUID> elevators;
+
+    /**
+     * @return whether calls from the floor are answered by this bank.
+     */
+    public boolean serves(int floor) {
+        return floor == lobby || (floor >= lowestFloor && floor <= highestFloor);
+    }
+}
@@ -0,0 +1,227 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorConfirmEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestEvent;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes each {@link ElevatorConfirmEvent} back to the one party waiting on it, using the id of the request it
+ * confirms.  Floors hand the requests they make to {@link #expect(ElevatorRequestEvent, Runnable)}, and this router
+ * (being the only listener for confirmations) completes and forgets the matching pending confirmation.  That keeps
+ * the cost of delivering a confirmation constant, no matter how many floors there are or how many requests are
+ * outstanding.
+ * <p>
+ * Every pending request is bounded in time and space, so nothing can wait forever:
+ * <ul>
+ *     <li>A request that isn't confirmed within the {@link #confirmationTimeout} is answered with
+ *     {@link ElevatorConfirmEvent.Result#NO_AVAILABLE_ELEVATOR}, which is also published (when there is an
+ *     {@link #eventPublisher}), so everyone else following the request knows it is over.</li>
+ *     <li>No more than {@link #maxPendingRequests} can be waiting at once.  Requests beyond that are answered with
+ *     {@link ElevatorConfirmEvent.Result#NO_AVAILABLE_ELEVATOR} right away, and never published.</li>
+ *     <li>Cancelling the subscription to a confirmation abandons the request.</li>
+ * </ul>
+ * Requests can also be held to a rate (see {@link #admissionControl}).  Those over it are answered the same way as
+ * requests beyond the maximum pending, right away, and never published.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Builder
+public class ElevatorConfirmationRouter {
+    /**
+     * Clock the confirmation timeouts are kept by.
+     */
+    @Getter
+    @Builder.Default
+    private final SimulationClock clock = SimulationClock.realTime();
+    /**
+     * How long to wait on a confirmation, before giving up.
+     */
+    @Getter
+    @Builder.Default
+    private final Duration confirmationTimeout = Duration.ofSeconds(30);
+    /**
+     * Maximum number of requests that can be waiting on a confirmation at once.
+     */
+    @Getter
+    @Builder.Default
+    private final int maxPendingRequests = 10_000;
+    /**
+     * Limits the rate requests are published at, or {@code null} to publish them as fast as they are made.
+     */
+    @Getter
+    private final AdmissionControl admissionControl;
+    /**
+     * Publishes the confirmations of requests that timed out, or {@code null} to only deliver them to the requester.
+     */
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<UUID, PendingConfirmation> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final LongAdder confirmed = new LongAdder(), timedOut = new LongAdder(), cancelled = new LongAdder(), rejected = new LongAdder(),
+            throttled = new LongAdder();
+
+    /**
+     * Expect a confirmation for a request, and have it published.  The request is only published if it is let in by
+     * the {@link #admissionControl} and there is room to track it, and only after we are ready for its confirmation
+     * (so we can't miss one that arrives right away).
+     *
+     * @param request the request that will be confirmed.
+     * @param publishRequest publishes the request.
+     * @return a Mono that will deliver the confirmation.  It is cached, so it can be subscribed to at any time, but
+     * cancelling a subscription before the confirmation arrives abandons the request (and any other subscribers are
+     * then given a {@link CancellationException}).
+     * @since 0.0.1
+     */
+    public Mono<ElevatorConfirmEvent> expect(ElevatorRequestEvent request, Runnable publishRequest) {
+        if (admissionControl != null && !admissionControl.admit(request)) {
+            throttled.increment();
+            return Mono.just(ElevatorConfirmEvent.noElevatorAvailableFor(request));
+        }
+        if (reserved.incrementAndGet() > getMaxPendingRequests()) {
+            reserved.decrementAndGet();
+            rejected.increment();
+            return Mono.just(ElevatorConfirmEvent.noElevatorAvailableFor(request));
+        }
+
+        UUID id = request.getId();
+        PendingConfirmation confirmation = new PendingConfirmation(request);
+        pending.put(id, confirmation);
+        confirmation.timeout = getClock().getScheduler().schedule(
+                () -> timeout(id), getConfirmationTimeout().toNanos(), TimeUnit.NANOSECONDS);
+
+        publishRequest.run();
+        return confirmation.processor.doOnCancel(() -> cancel(id));
+    }
+
+    @EventListener
+    public void onElevatorRequestConfirm(ElevatorConfirmEvent e) {
+        PendingConfirmation waiting = release(e.getConfirmationOf().getId());
+        if (waiting != null) {
+            confirmed.increment();
+            waiting.complete(e);
+        }
+    }
+
+    private void timeout(UUID id) {
+        PendingConfirmation waiting = release(id);
+        if (waiting != null) {
+            timedOut.increment();
+            ElevatorConfirmEvent noneCame = ElevatorConfirmEvent.noElevatorAvailableFor(waiting.request);
+            waiting.complete(noneCame);
+            if (eventPublisher != null) {
+                eventPublisher.publishEvent(noneCame); // comes back to us, but it is no longer pending
+            }
+        }
+    }
+
+    private void cancel(UUID id) {
+        PendingConfirmation abandoned = release(id);
+        if (abandoned != null) {
+            cancelled.increment();
+            abandoned.complete(null);
+        }
+    }
+
+    /**
+     * Stop tracking a request, freeing its place among the {@link #maxPendingRequests}.
+     * @return the request's pending confirmation, or {@code null} if it was no longer pending.
+     */
+    private PendingConfirmation release(UUID id) {
+        PendingConfirmation released = pending.remove(id);
+        if (released != null) {
+            reserved.decrementAndGet();
+        }
+        return released;
+    }
+
+    /**
+     * @return how many requests are still waiting on a confirmation.
+     * @since 0.0.1
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * @return how many requests have been confirmed (by the elector).
+     * @since 0.0.1
+     */
+    public long getConfirmedCount() {
+        return confirmed.sum();
+    }
+
+    /**
+     * @return how many requests gave up waiting on a confirmation.
+     * @since 0.0.1
+     */
+    public long getTimedOutCount() {
+        return timedOut.sum();
+    }
+
+    /**
+     * @return how many requests were abandoned by the party waiting on them.
+     * @since 0.0.1
+     */
+    public long getCancelledCount() {
+        return cancelled.sum();
+    }
+
+    /**
+     * @return how many requests were turned away, because too many were already waiting on a confirmation.
+     * @since 0.0.1
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return how many requests were turned away, because they were made faster than the {@link #admissionControl}
+     * lets them in.
+     * @since 0.0.1
+     */
+    public long getThrottledCount() {
+        return throttled.sum();
+    }
+
+    private static class PendingConfirmation {
+        private final ElevatorRequestEvent request;
+        private final MonoProcessor<ElevatorConfirmEvent> processor = MonoProcessor.create();
+        private volatile Disposable timeout;
+
+        private PendingConfirmation(ElevatorRequestEvent request) {
+            this.request = request;
+        }
+
+        /**
+         * Stop the timeout, and deliver the confirmation (or, when the request is abandoned and there isn't one, fail
+         * anyone else still waiting on it).
+         */
+        private void complete(ElevatorConfirmEvent confirmation) {
+            Disposable timer = timeout;
+            if (timer != null) {
+                timer.dispose();
+            }
+            if (confirmation != null) {
+                processor.onNext(confirmation);
+            } else {
+                processor.onError(new CancellationException("Request abandoned: " + request));
+            }
+        }
+    }
+}
@@ -2,12 +2,11 @@ package com.github.jgriff.kuali.elevatordemo;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
-import javax.annotation.PostConstruct;
-import java.util.List;
-import java.util.Random;
+import java.io.IOException;
 
 /**
  * Bean demonstrating the elevators in action!
@@ -19,34 +18,47 @@ import java.util.Random;
 @Slf4j
 public class ElevatorDemo {
     @Autowired
-    private List<Floor> floors;
+    private ElevatorRegistry registry;
     @Autowired
-    private List<Elevator> elevators;
+    private TrafficGenerator trafficGenerator;
+    @Autowired
+    private StateSnapshotStore stateSnapshots;
+    @Autowired
+    private ElevatorDemoConfiguration.Role role;
 
-    private Random random = new Random();
-    
     /**
-     * Request an elevator from a random floor every 10 seconds.
+     * Once the application is up, start generating passengers (on the simulation clock, so they keep pace with the
+     * elevators, whether we are running in real or virtual time).  Passengers arrive where the elevators are, so a JVM
+     * running only the elector generates none.
      */
-    @Scheduled(fixedRate = 10000)
-    public void requestElevatorFromRandomFloor() {
+    @EventListener(ApplicationReadyEvent.class)
+    public void startDemo() {
+        restoreSnapshot();
         elevatorsInitialized();
-        Floor floor = randomFloor();
-        boolean up = random.nextBoolean();
-        
-        log.info("Making request from floor '" + floor.getNumber() + "' to go " + (up ? "up" : "down") + " ...");
-        (up ? floor.requestUp() : floor.requestDown())
-            .subscribe(confirm -> log.info("Receiving confirmation for elevator request from floor '" + floor.getNumber() + "': " + confirm));
+        stateSnapshots.start();
+        if (role == ElevatorDemoConfiguration.Role.ELECTOR) return;
+        log.info("Generating " + trafficGenerator.getProfile() + " traffic, " + trafficGenerator.getArrivalsPerSecond() 
+                + " passengers per second (seed " + trafficGenerator.getSeed() + ") ...");
+        trafficGenerator.start();
     }
     
-    private Floor randomFloor() {
-        return floors.get(random.nextInt(floors.size()));
+    /**
+     * Pick up where the last run left off, if it saved a snapshot.
+     */
+    private void restoreSnapshot() {
+        try {
+            if (!stateSnapshots.restore()) {
+                log.info("No snapshot to restore, starting afresh.");
+            }
+        } catch (IOException e) {
+            log.warn("Failed to restore the last snapshot, starting afresh.", e);
+        }
     }
     
     private boolean initialized;
     private void elevatorsInitialized() {
         if (!initialized) {
-            elevators.forEach(e -> {
+            registry.getElevators().forEach(e -> {
                 if (e instanceof BasicElevator) {
                     ((BasicElevator)e).publishCurrentStatus();
                 }
@@ -1,11 +1,22 @@
 package com.github.jgriff.kuali.elevatordemo;
 
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorDiagnosticUpdateEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorStatusUpdateEvent;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.support.AbstractApplicationContext;
 
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.List;
 import java.util.Random;
+import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -14,13 +25,79 @@ import java.util.stream.Stream;
  * @since 0.0.0
  */
 @Configuration
+@Slf4j
 public class ElevatorDemoConfiguration {    
 	
 	private int numberOfFloors() { return 50; }
 	private int numberOfElevators() { return 3; } 
+	private int numberOfBanks() { return 1; } // floors are split evenly between the banks (which all serve the lobby), elevators dealt out in turn
+	private UUID elevatorId(int elevator) { return UUID.nameUUIDFromBytes(("Elevator " + elevator).getBytes(StandardCharsets.UTF_8)); } // the same every run, so snapshots can be restored
+	private boolean virtualTime() { return false; } // true to simulate as fast as possible, rather than in real time
+	private Duration confirmationTimeout() { return Duration.ofSeconds(30); }
+	private int maxPendingRequests() { return 10_000; }
+	private double floorRequestRate() { return 0; } // requests per second let in from each floor (0 for no limit)
+	private double buildingRequestRate() { return 0; } // requests per second let in from the whole building (0 for no limit)
+	private int requestBurst() { return 10; } // requests let in at once, before the rates apply
+	private int maxStopsPerElevator() { return Integer.MAX_VALUE; }
+	private BasicElevator.Scheduling scheduling() { return BasicElevator.Scheduling.LOOK; }
+	private TrafficGenerator.Profile trafficProfile() { return TrafficGenerator.Profile.INTER_FLOOR; }
+	private double arrivalsPerSecond() { return 0.1; } // one passenger every 10 seconds, on average
+	private long trafficSeed() { return 42; } // same seed, same passengers
+	private boolean destinationDispatch() { return false; }
+	private Duration hallCallBatchWindow() { return null; } // ie, 100ms to assign hall calls together in batches (null to answer each as it comes)
+	private Path journalDirectory() { return Paths.get("journal"); }
+	private int journalSegmentSize() { return 16 * 1024 * 1024; }
+	private int journalSegmentsKept() { return 8; }
+	private Duration journalRetention() { return Duration.ofDays(1); }
+	private Path snapshotFile() { return Paths.get("snapshot", "elevators.snapshot"); }
+	private Duration snapshotInterval() { return Duration.ofSeconds(5); }
+	private int linkPort() { return 0; } // to link events with another JVM (0 to run everything in this one)
+	private Role role() { return Role.ALL; } // what this JVM runs, when linked (ie, ELECTOR in one and ELEVATORS in the other)
+	private String linkHost() { return null; } // host to connect to (null to wait for the other JVM to connect to us)
+	
+	/**
+	 * Our events are delivered asynchronously, so the elevators are never held up by a listener.  Statuses and
+	 * diagnostics are dropped as soon as a listener falls behind (a newer one supersedes the older ones), every other
+	 * event (requests, confirmations, stops...) is waited on by the bus, for a while, rather than dropped.
+	 */
+	@Bean(name = AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME)
+	public PartitionedEventBus applicationEventMulticaster() {
+		return PartitionedEventBus.builder()
+				.defaultOverflow(PartitionedEventBus.Overflow.BLOCK)
+				.topicOverflow(ElevatorStatusUpdateEvent.class, PartitionedEventBus.Overflow.DROP_OLDEST)
+				.topicOverflow(ElevatorDiagnosticUpdateEvent.class, PartitionedEventBus.Overflow.DROP_OLDEST)
+				.build();
+	}
+	
+	@Bean
+	public SimulationClock simulationClock() {
+		if (virtualTime()) {
+			VirtualClock clock = new VirtualClock();
+			clock.start();
+			return clock;
+		}
+		return SimulationClock.realTime();
+	}
+	
+	@Bean
+	public ElevatorConfirmationRouter confirmationRouter(SimulationClock clock, ApplicationEventPublisher eventPublisher) {
+		return ElevatorConfirmationRouter.builder()
+				.clock(clock)
+				.eventPublisher(eventPublisher)
+				.confirmationTimeout(confirmationTimeout())
+				.maxPendingRequests(maxPendingRequests())
+				.admissionControl(AdmissionControl.builder()
+						.clock(clock)
+						.floorRate(floorRequestRate())
+						.floorBurst(requestBurst())
+						.buildingRate(buildingRequestRate())
+						.buildingBurst(requestBurst())
+						.build())
+				.build();
+	}
 	
 	@Bean
-	public List<Floor> floors(ApplicationEventPublisher eventPublisher) {
+	public List<Floor> floors(ApplicationEventPublisher eventPublisher, ElevatorConfirmationRouter confirmationRouter) {
 		final int numOfFloors = numberOfFloors();
 		// 10 floors
 		return Stream.iterate(1, i -> ++i).limit(numOfFloors)
@@ -28,25 +105,167 @@ public class ElevatorDemoConfiguration {
 						.number(floor)
 						.bottom(floor == 1)
 						.top(floor == numOfFloors)
+						.topFloor(numOfFloors)
 						.eventPublisher(eventPublisher)
+						.confirmationRouter(confirmationRouter)
 						.build())
 				.collect(Collectors.toList());
 	}
 	
 	@Bean 
-	public List<Elevator> elevators(ApplicationEventPublisher eventPublisher) {
+	public ElevatorRegistry elevatorRegistry(ApplicationEventPublisher eventPublisher, SimulationClock clock) {
 		Random random = new Random(); // start the elevators at random floors
 		final int numOfFloors = numberOfFloors();
 		int numOfElevators = numberOfElevators();
 		
+		ElevatorRegistry registry = BasicElevatorRegistry.builder()
+				.eventPublisher(eventPublisher)
+				.build();
+		
+		if (role() == Role.ELECTOR) return registry; // the elevators are in the other JVM, and will be linked in
+		
 		// create 1 elevators (easier to watch logs...choose any arbitrary number to scale up)
-		return Stream.iterate(1, i -> ++i).limit(numOfElevators)
+		Stream.iterate(1, i -> ++i).limit(numOfElevators)
 				.map(i -> BasicElevator.builder()
+						.id(elevatorId(i))
 						.name("Elevator " + i)
 						.topFloor(numOfFloors)
 						.currentFloor(random.nextInt(numOfFloors))
+						.clock(clock)
+						.scheduling(scheduling())
+						.maxStops(maxStopsPerElevator())
 						.eventPublisher(eventPublisher)
 						.build()
-				).collect(Collectors.toList());
+				).forEach(registry::register);
+		return registry;
 	}  
+	
+	/**
+	 * Each bank has an elector of its own, for the calls from its floors.  A JVM running only the elevators has no banks,
+	 * leaving the calls to the elector it is linked to (whose banks hold the same elevator ids).
+	 */
+	@Bean(destroyMethod = "close")
+	public BankRouter bankRouter(ApplicationEventPublisher eventPublisher, ElevatorRegistry registry, SimulationClock clock) {
+		final int numOfFloors = numberOfFloors();
+		final int numOfElevators = numberOfElevators();
+		final int numOfBanks = numberOfBanks();
+		
+		BankRouter.BankRouterBuilder router = BankRouter.builder()
+				.eventPublisher(eventPublisher)
+				.registry(registry)
+				.electorFactory(() -> {
+					ElevatorElector elector = new ElevatorElector();
+					elector.setBatchWindow(hallCallBatchWindow());
+					elector.setClock(clock);
+					return elector;
+				});
+		for (int b = 0; b < numOfBanks && role() != Role.ELEVATORS; b++) {
+			ElevatorBank.ElevatorBankBuilder bank = ElevatorBank.builder()
+					.name("Bank " + (b + 1))
+					.lowestFloor(1 + b * numOfFloors / numOfBanks)
+					.highestFloor((b + 1) * numOfFloors / numOfBanks);
+			for (int i = b + 1; i <= numOfElevators; i += numOfBanks) {
+				bank.elevator(elevatorId(i));
+			}
+			router.bank(bank.build());
+		}
+		return router.build();
+	}
+	
+	@Bean
+	public Role demoRole() {
+		return role();
+	}
+	
+	@Bean
+	public TrafficGenerator trafficGenerator(List<Floor> floors, SimulationClock clock) {
+		return TrafficGenerator.builder()
+				.floors(floors)
+				.clock(clock)
+				.profile(trafficProfile())
+				.arrivalsPerSecond(arrivalsPerSecond())
+				.seed(trafficSeed())
+				.destinationDispatch(destinationDispatch())
+				.build();
+	}
+	
+	@Bean
+	public HallCallMetrics hallCallMetrics(SimulationClock clock) {
+		return HallCallMetrics.builder()
+				.clock(clock)
+				.build();
+	}
+	
+	@Bean(destroyMethod = "close")
+	public EventJournal eventJournal(SimulationClock clock) throws IOException {
+		EventJournal journal = EventJournal.builder()
+				.directory(journalDirectory())
+				.segmentSize(journalSegmentSize())
+				.maxSegments(journalSegmentsKept())
+				.retention(journalRetention())
+				.clock(clock)
+				.build();
+		journal.start();
+		return journal;
+	}
+	
+	@Bean(destroyMethod = "stop")
+	public StateSnapshotStore stateSnapshotStore(ElevatorRegistry registry, BankRouter bankRouter, SimulationClock clock) {
+		return StateSnapshotStore.builder()
+				.file(snapshotFile())
+				.interval(snapshotInterval())
+				.clock(clock)
+				.registry(registry)
+				.banks(bankRouter)
+				.build();
+	}
+	
+	/**
+	 * Links our events with another JVM's, when a {@link #linkPort() port} is given (ie, to run the elector apart from
+	 * the elevators).  The link is made in the background, so the demo carries on while it waits.
+	 */
+	@Bean(destroyMethod = "close")
+	public EventLink eventLink(ApplicationEventPublisher eventPublisher, ElevatorRegistry registry) {
+		EventLink link = EventLink.builder()
+				.eventPublisher(eventPublisher)
+				.registry(registry)
+				.build();
+		if (linkPort() > 0) {
+			Thread linking = new Thread(() -> {
+				try {
+					if (linkHost() != null) {
+						link.connect(linkHost(), linkPort());
+					} else {
+						try (ServerSocket server = new ServerSocket(linkPort())) {
+							link.accept(server);
+						}
+					}
+				} catch (IOException e) {
+					log.warn("Failed to link events on port " + linkPort(), e);
+				}
+			}, "event-link");
+			linking.setDaemon(true);
+			linking.start();
+		}
+		return link;
+	}
+	
+	/**
+	 * What a JVM runs, so the demo can be split over two {@link EventLink linked} JVMs without both electing (or
+	 * both running the same elevators).
+	 */
+	public enum Role {
+		/**
+		 * Everything, in this JVM.
+		 */
+		ALL,
+		/**
+		 * Only the electors (of every bank), answering the calls of the elevators and floors in the other JVM.
+		 */
+		ELECTOR,
+		/**
+		 * Only the elevators and floors (and their passengers), whose calls are answered by the elector in the other JVM.
+		 */
+		ELEVATORS
+	}
 }
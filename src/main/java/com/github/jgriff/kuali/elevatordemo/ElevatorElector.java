@@ -1,16 +1,21 @@
 package com.github.jgriff.kuali.elevatordemo;
 
 import com.github.jgriff.kuali.elevatordemo.events.*;
+import lombok.Builder;
 import lombok.NonNull;
 import lombok.Setter;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
-import org.springframework.stereotype.Service;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Bean responsible for electing an elevator to respond to floor requests/calls.  These
@@ -20,102 +25,608 @@ import java.util.*;
  * the one best suited to answer the call.  An answer is given in the way of publishing an
  * {@link ElevatorConfirmEvent}, which signals back to the requesting floor that an elevator
  * is on the way (or if the request cannot be serviced).
+ * <p>
+ * Each {@link ElevatorBank bank} of the building has an elector of its own, which the {@link BankRouter} routes the
+ * bank's calls and elevator events to.
+ * <p>
+ * A hall call made again (from the same floor, going the same way) before the elevator sent to answer it gets there
+ * is answered straight away with the same elevator, rather than electing one all over again (until the
+ * {@link #hallCallExpiry}, after which the elevator is given up on and the call is elected afresh).
+ * <p>
+ * Hall calls are answered one at a time, as they come, unless a {@link #batchWindow batch window} is set.  Calls are
+ * then collected over the window, and assigned together, as one {@link HungarianAssignment assignment problem}
+ * weighed by the {@link #assignmentCost}, so a burst of calls is spread over the cars rather than all sent to the
+ * nearest one.  How long calls are held up for, and how much waiting the assignments are estimated to save, are
+ * {@link #batchingReport() reported}.
+ * <p>
+ * An elevator that already has as many stops as it can take on (see {@link BasicElevator#getMaxStops()}) is passed
+ * over, as far as its latest status tells.  One that turns a call down anyway (its status was behind) has the call
+ * answered with {@link ElevatorConfirmEvent.Result#NO_AVAILABLE_ELEVATOR} (and counted, see
+ * {@link #overflowedCalls()}), rather than as an error.  A passenger who has already boarded stays on board, and their
+ * destination is asked for again at each of the elevator's stops, until it is taken.
  * 
  * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
  * @since 0.0.0
  */
-@Service
 @Setter
+@Slf4j
 public class ElevatorElector {
     @Autowired
     private ApplicationEventPublisher eventPublisher;
     @Autowired
-    private List<Elevator> elevators;
-    private Map<UUID, ElevatorStatus> latestElevatorStatuses = Collections.synchronizedMap(new HashMap<>());
+    private ElevatorRegistry registry;
+    private final ElevatorStatusTable latestElevatorStatuses = new ElevatorStatusTable();
+    private final ElevatorFloorIndex elevatorsByFloor = new ElevatorFloorIndex();
+    private final ElevatorEtaModel arrivals = new ElevatorEtaModel();
+    private final HallCallRegistry hallCalls = new HallCallRegistry();
+    /**
+     * How many floors apart two passengers' destinations can be, and still be grouped into the same car.
+     */
+    private int destinationGroupingSpan = 2;
+    /**
+     * Most passengers that will be grouped into one car, waiting to board it at the same floor.
+     */
+    private int carCapacity = 12;
+    private final Map<UUID, List<Boarding>> boardings = new HashMap<>();
+    /**
+     * Destinations of passengers aboard each elevator that it turned down (for being full), asked for again at its next
+     * stop.  Guarded by {@link #boardings}.
+     */
+    private final Map<UUID, List<Integer>> riding = new HashMap<>();
+    /**
+     * How long hall calls are collected for, before they are assigned together (or {@code null} to answer each call as
+     * it comes).
+     */
+    private Duration batchWindow;
+    /**
+     * Weighs elevators against the calls of a batch.
+     */
+    private AssignmentCost assignmentCost = AssignmentCost.estimatedArrival();
+    /**
+     * Clock the batch windows (and hall call expiries) are timed by.
+     */
+    private SimulationClock clock = SimulationClock.realTime();
+    /**
+     * How long a hall call is answered with the elevator sent to it, before that elevator is given up on (ie, its stop
+     * at the floor was never seen) and the call is elected afresh.
+     */
+    private Duration hallCallExpiry = Duration.ofMinutes(2);
+    private final List<PendingCall> batch = new ArrayList<>();
+    private final LatencyHistogram batchingDelay = new LatencyHistogram();
+    private final LongAdder batches = new LongAdder();
+    private final DoubleAdder secondsSaved = new DoubleAdder();
+    private final LongAdder overflowed = new LongAdder();
 
     /**
      * Monitors and caches latest status updates from the elevators.  This elector uses these latest
      * statuses to quickly decide which elevator is best suited to answer a call from a floor.  By 
      * monitoring these events, this elector does need to query each and every elevator for status
-     * before it can make a decision.
+     * before it can make a decision.  Each update also moves the elevator in our floor index, so
+     * lookups by floor don't have to scan every status, and lays out its route for our arrival
+     * estimates.  Updates that arrive after a newer one (from the same elevator) are dropped.
      */
     @EventListener
     public void onElevatorStatusUpdate(ElevatorStatusUpdateEvent elevatorEvent) {
-        Mono.just(elevatorEvent)
-                .map(ElevatorStatusUpdateEvent::getStatusUpdate)
-                .subscribe((s) -> latestElevatorStatuses.put(s.getDescriptor().getId(), s));
+        ElevatorStatus status = elevatorEvent.getStatusUpdate();
+        if (latestElevatorStatuses.update(status)) {
+            elevatorsByFloor.updateIfLatest(status, latestElevatorStatuses);
+            arrivals.updateIfLatest(status, latestElevatorStatuses);
+        }
+    }
+
+    /**
+     * Forget about elevators that are taken out of service, so we never elect them again.
+     */
+    @EventListener
+    public void onElevatorUnregistered(ElevatorUnregisteredEvent e) {
+        UUID id = e.getElevator().getId();
+        latestElevatorStatuses.remove(id);
+        elevatorsByFloor.remove(id);
+        arrivals.remove(id);
+        hallCalls.remove(id);
+        synchronized (boardings) {
+            boardings.remove(id);
+            riding.remove(id);
+        }
     }
 
     @EventListener
     public void onElevatorRequestUp(ElevatorRequestUpEvent request) {
-        Mono.just(request)
-            .map(ElevatorRequestEvent::getRequestFloor)
-            // TODO stoppedAt 
-            // TODO passingBy (going UP)
-            .flatMap(this::elevatorClosestTo)
-            .flatMap(id -> Flux.fromIterable(elevators)
-                .filter(e -> e.describe().getId().equals(id))
-                .take(1)
-                .single())
-            .doOnNext(e -> e.moveToFloor(request.getRequestFloor()))
-            .doOnNext(e -> eventPublisher.publishEvent(ElevatorConfirmEvent.confirming(request)))
-            .doOnError(e -> eventPublisher.publishEvent(ElevatorConfirmEvent.errorFor(request)))
-            .subscribe();
+        onHallCall(request, ElevatorMovingEvent.Direction.UP);
     }
 
     @EventListener
     public void onElevatorRequestDown(ElevatorRequestDownEvent request) {
+        onHallCall(request, ElevatorMovingEvent.Direction.DOWN);
+    }
+
+    /**
+     * Destination dispatch.  The passenger is grouped with others waiting at the same floor to board a car going to the
+     * same (or a nearby) floor, or else a car is elected just as for a hall call.  The car is sent to the passenger's
+     * floor, and once it stops there (and the passenger boards) on to their destination.
+     */
+    @EventListener
+    public void onElevatorDestinationRequest(ElevatorDestinationRequestEvent request) {
         Mono.just(request)
-            .map(ElevatorRequestEvent::getRequestFloor)
-            // TODO stoppedAt 
-            // TODO passingBy (going DOWN)
-            .flatMap(this::elevatorClosestTo)
-            .flatMap(id -> Flux.fromIterable(elevators)
-                .filter(e -> e.describe().getId().equals(id))
-                .take(1)
-                .single())
-            .doOnNext(e -> e.moveToFloor(request.getRequestFloor()))
-            .doOnNext(e -> eventPublisher.publishEvent(ElevatorConfirmEvent.confirming(request)))
-            .doOnError(e -> eventPublisher.publishEvent(ElevatorConfirmEvent.errorFor(request)))
+            .flatMap(r -> Mono.justOrEmpty(groupWith(r))
+                    .switchIfEmpty(Mono.defer(() -> elect(r.getRequestFloor(), r.getDirection()))))
+            .flatMap(id -> Mono.justOrEmpty(registry.lookup(id)))
+            .map(e -> new Elected(e, etaOf(e, request)))
+            .doOnNext(e -> {
+                UUID id = e.getElevator().describe().getId();
+                board(id, request);
+                try {
+                    e.getElevator().moveToFloor(request.getRequestFloor());
+                } catch (RuntimeException notMoving) {
+                    unboard(id, request); // or the car would take them on to a destination they never got to ask for
+                    throw notMoving;
+                }
+            })
+            .doOnNext(e -> eventPublisher.publishEvent(ElevatorConfirmEvent.confirming(request, e.getElevator().describe(), e.getEta())))
+            .switchIfEmpty(Mono.fromRunnable(() -> eventPublisher.publishEvent(ElevatorConfirmEvent.noElevatorAvailableFor(request))))
+            .doOnError(e -> failed(request, e))
             .subscribe();
     }
-    
 
-    private Mono<UUID> elevatorStoppedAt(int floor) {
-        // TODO choose an elevator stopped at this floor, or empty if there is none
-        return Mono.empty();
+    /**
+     * @return how many hall calls were answered with an elevator already on its way to the floor (rather than electing
+     * one again).
+     * @since 0.0.1
+     */
+    public long coalescedHallCalls() {
+        return hallCalls.getCoalescedCount();
     }
 
-    private Mono<UUID> elevatorPassingBy(int floor, ElevatorMovingEvent.Direction direction) {
-        // TODO choose an elevator passing by this floor, or null if there is none
-        return Mono.empty();
+    /**
+     * @return how many hall calls were elected afresh, for the elevator sent to answer them not stopping at the floor
+     * within the {@link #hallCallExpiry}.
+     * @since 0.0.1
+     */
+    public long expiredHallCalls() {
+        return hallCalls.getExpiredCount();
     }
 
     /**
-     * Determine the elevator currently closest to a specified floor.  This is the fallback
-     * election method if no other more efficient selection can be made.
-     * 
-     * @param floor the floor to find the closest elevator to.
-     * @return closest elevator, or {@code null} if there are none available
-     * @see #elevatorStoppedAt(int)
-     * @see #elevatorPassingBy(int, ElevatorMovingEvent.Direction)  
-     * @since 0.0.0
-     */
-    private Mono<UUID> elevatorClosestTo(int floor) {
-        ElevatorStatus winner = null;
-        int smallestSoFar = Integer.MAX_VALUE;
-        for (ElevatorStatus candidate : latestElevatorStatuses.values()) {
-            int candidateDiff = Math.abs(candidate.getCurrentFloor() - floor);
-            if (winner == null || candidateDiff < smallestSoFar) {
-                winner = candidate;
-                smallestSoFar = candidateDiff;
+     * @return how many calls were turned down by the elevator elected to answer them, for already having as many stops
+     * as it can take on.
+     * @since 0.0.1
+     */
+    public long overflowedCalls() {
+        return overflowed.sum();
+    }
+
+    /**
+     * Passengers waiting on an elevator board it when it stops at their floor, and it then takes them on to their
+     * destinations.
+     */
+    @EventListener
+    public void onElevatorFloorStop(ElevatorFloorStopEvent e) {
+        UUID id = e.getElevator().getId();
+        hallCalls.stopped(id, e.getFloor());
+        List<Integer> destinations = boardingAt(id, e.getFloor());
+        destinations.addAll(ridingPast(id, e.getFloor()));
+        if (!destinations.isEmpty()) {
+            registry.lookup(id).ifPresent(elevator -> destinations.forEach(destination -> {
+                try {
+                    elevator.moveToFloor(destination);
+                } catch (ElevatorUnavailableException full) {
+                    overflowed.increment();
+                    ride(id, destination);
+                } catch (InvalidElevatorRequestException invalid) {
+                    log.warn("Passenger boarded elevator '" + id + "' for a floor it can't go to: " + destination, invalid);
+                }
+            }));
+        }
+    }
+
+    /**
+     * @return the latest status of every elevator, and the passengers waiting on them, to be
+     * {@link #restore(StateSnapshot.ElectorState) restored} after a restart.
+     * @since 0.0.1
+     */
+    public StateSnapshot.ElectorState snapshot() {
+        StateSnapshot.ElectorState.ElectorStateBuilder state = StateSnapshot.ElectorState.builder();
+        state.statuses(new ArrayList<>(latestElevatorStatuses.values()));
+        synchronized (boardings) {
+            boardings.forEach((elevator, waiting) -> waiting.forEach(b -> state.boarding(StateSnapshot.Boarding.builder()
+                    .elevator(elevator)
+                    .origin(b.getOrigin())
+                    .destination(b.getDestination())
+                    .direction(b.getDirection())
+                    .build())));
+        }
+        return state.build();
+    }
+
+    /**
+     * Carry on from a {@link #snapshot() snapshot}, so calls can be answered (and waiting passengers taken to their
+     * destinations) without waiting for every elevator to report in again.
+     * @since 0.0.1
+     */
+    public void restore(StateSnapshot.ElectorState state) {
+        state.getStatuses().forEach(status -> {
+            if (latestElevatorStatuses.update(status)) {
+                elevatorsByFloor.updateIfLatest(status, latestElevatorStatuses);
+                arrivals.updateIfLatest(status, latestElevatorStatuses);
+            }
+        });
+        synchronized (boardings) {
+            state.getBoardings().forEach(b -> boardings.computeIfAbsent(b.getElevator(), id -> new ArrayList<>())
+                    .add(new Boarding(b.getOrigin(), b.getDestination(), b.getDirection())));
+        }
+    }
+
+    /**
+     * @return how long batched calls were held up for, and how much waiting their assignment is estimated to have saved.
+     * @since 0.0.1
+     */
+    public BatchingReport batchingReport() {
+        return BatchingReport.builder()
+                .batches(batches.sum())
+                .delay(batchingDelay.snapshot())
+                .estimatedWaitSaved(Duration.ofNanos((long) (secondsSaved.sum() * 1e9)))
+                .build();
+    }
+
+    /**
+     * Answer a hall call with the elevator already on its way to the floor (to pick up callers going the same way), if
+     * there is one, or else elect one (now, or with the rest of its batch).
+     */
+    private void onHallCall(ElevatorRequestEvent request, ElevatorMovingEvent.Direction direction) {
+        if (confirmCoalesced(request, direction)) return;
+        if (batchWindow != null) {
+            addToBatch(request);
+            return;
+        }
+        answer(request, elect(request.getRequestFloor(), direction));
+    }
+
+    /**
+     * @return whether the call was answered with an elevator already on its way.
+     */
+    private boolean confirmCoalesced(ElevatorRequestEvent request, ElevatorMovingEvent.Direction direction) {
+        Optional<ElevatorDescriptor> coming = hallCalls.coalesce(request.getRequestFloor(), direction, clock.now(TimeUnit.NANOSECONDS));
+        coming.ifPresent(elevator -> eventPublisher.publishEvent(ElevatorConfirmEvent.confirming(request, elevator,
+                arrivals.eta(elevator.getId(), request.getRequestFloor(), direction).orElse(null))));
+        return coming.isPresent();
+    }
+
+    private void addToBatch(ElevatorRequestEvent request) {
+        synchronized (batch) {
+            batch.add(new PendingCall(request, clock.now(TimeUnit.NANOSECONDS)));
+            if (batch.size() == 1) {
+                clock.getScheduler().schedule(this::assignBatch, batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * Assign every call of the batch at once, for the least total (estimated) wait.  A car can be given several calls
+     * (each one {@link AssignmentCost costing} more than the last, for the stops ahead of it), so every call is answered
+     * even when there are more calls than cars.  Calls made again within the batch are answered with the same car as
+     * the first.
+     */
+    private void assignBatch() {
+        List<PendingCall> pending;
+        synchronized (batch) {
+            pending = new ArrayList<>(batch);
+            batch.clear();
+        }
+        long now = clock.now(TimeUnit.NANOSECONDS);
+        pending.forEach(call -> batchingDelay.record(now - call.getReceivedAt()));
+        batches.increment();
+
+        List<PendingCall> calls = new ArrayList<>(), repeats = new ArrayList<>();
+        for (PendingCall call : pending) {
+            boolean repeat = calls.stream().anyMatch(c -> c.getRequest().getRequestFloor() == call.getRequest().getRequestFloor()
+                    && directionOf(c.getRequest()) == directionOf(call.getRequest()));
+            (repeat ? repeats : calls).add(call);
+        }
+        try {
+            assign(calls);
+        } finally {
+            repeats.forEach(call -> {
+                if (!confirmCoalesced(call.getRequest(), directionOf(call.getRequest()))) {
+                    eventPublisher.publishEvent(ElevatorConfirmEvent.noElevatorAvailableFor(call.getRequest()));
+                }
+            });
+        }
+    }
+
+    private void assign(List<PendingCall> calls) {
+
+        List<ElevatorStatus> cars = new ArrayList<>();
+        for (ElevatorStatus status : latestElevatorStatuses.values()) {
+            if (status.getOperationalState() == ElevatorOperationalState.OPERATIONAL && status.getCurrentFloor() != null) {
+                cars.add(status);
+            }
+        }
+        if (cars.isEmpty()) {
+            calls.forEach(call -> answer(call.getRequest(), Mono.empty()));
+            return;
+        }
+
+        // one column per car for each call it could be given ahead of this one
+        int slots = (calls.size() + cars.size() - 1) / cars.size();
+        double[][] costs = new double[calls.size()][cars.size() * slots];
+        for (int c = 0; c < calls.size(); c++) {
+            for (int slot = 0; slot < slots; slot++) {
+                for (int car = 0; car < cars.size(); car++) {
+                    ElevatorRequestEvent request = calls.get(c).getRequest();
+                    costs[c][slot * cars.size() + car] = cars.get(car).hasRoomFor(request.getRequestFloor())
+                            ? assignmentCost.cost(cars.get(car), request, slot) : Double.POSITIVE_INFINITY;
+                }
+            }
+        }
+        int[] assigned = HungarianAssignment.solve(costs);
+
+        double[] greedy = greedyCosts(calls, cars);
+        double batched = 0, unbatched = 0;
+        for (int c = 0; c < calls.size(); c++) {
+            double cost = costs[c][assigned[c]];
+            boolean answerable = !Double.isInfinite(cost);
+            answer(calls.get(c).getRequest(), answerable ? Mono.just(cars.get(assigned[c] % cars.size()).getDescriptor().getId()) : Mono.empty());
+            if (answerable && !Double.isInfinite(greedy[c])) { // calls either way leaves unanswered aren't compared
+                batched += cost;
+                unbatched += greedy[c];
+            }
+        }
+        secondsSaved.add(unbatched - batched);
+    }
+
+    /**
+     * @return what each call would have cost if it had been given the cheapest car with room for it as it came (the
+     * baseline the batch's savings are estimated against), or {@link Double#POSITIVE_INFINITY} if no car had room.
+     */
+    private double[] greedyCosts(List<PendingCall> calls, List<ElevatorStatus> cars) {
+        int[] given = new int[cars.size()];
+        double[] costs = new double[calls.size()];
+        for (int c = 0; c < calls.size(); c++) {
+            ElevatorRequestEvent request = calls.get(c).getRequest();
+            int best = -1;
+            double bestCost = Double.POSITIVE_INFINITY;
+            for (int car = 0; car < cars.size(); car++) {
+                if (!cars.get(car).hasRoomFor(request.getRequestFloor())) {
+                    continue;
+                }
+                double cost = assignmentCost.cost(cars.get(car), request, given[car]);
+                if (cost < bestCost) {
+                    best = car;
+                    bestCost = cost;
+                }
+            }
+            costs[c] = bestCost;
+            if (best >= 0) {
+                ++given[best];
             }
         }
-        
-        return Optional.ofNullable(winner)
-                .map(ElevatorStatus::getDescriptor)
-                .map(ElevatorDescriptor::getId)
-                .map(Mono::just)
-                .orElse(Mono.empty());        
+        return costs;
+    }
+
+    /**
+     * Send the elected elevator to answer a hall call, remembering it for any calls made again before it gets there.
+     */
+    private void answer(ElevatorRequestEvent request, Mono<UUID> elected) {
+        ElevatorMovingEvent.Direction direction = directionOf(request);
+        elected
+            .flatMap(id -> Mono.justOrEmpty(registry.lookup(id)))
+            .map(e -> new Elected(e, etaOf(e, request)))
+            .doOnNext(e -> hallCalls.assign(request.getRequestFloor(), direction, e.getElevator().describe(),
+                    clock.now(TimeUnit.NANOSECONDS) + hallCallExpiry.toNanos()))
+            .doOnNext(e -> e.getElevator().moveToFloor(request.getRequestFloor()))
+            .doOnNext(e -> eventPublisher.publishEvent(ElevatorConfirmEvent.confirming(request, e.getElevator().describe(), e.getEta())))
+            .switchIfEmpty(Mono.fromRunnable(() -> eventPublisher.publishEvent(ElevatorConfirmEvent.noElevatorAvailableFor(request))))
+            .doOnError(e -> {
+                hallCalls.cancel(request.getRequestFloor(), direction);
+                failed(request, e);
+            })
+            .subscribe();
+    }
+
+    /**
+     * Answer a call the elected elevator couldn't take: with no elevator available if it was full, or else with an
+     * error.
+     */
+    private void failed(ElevatorRequestEvent request, Throwable error) {
+        if (error instanceof ElevatorUnavailableException) {
+            overflowed.increment();
+            eventPublisher.publishEvent(ElevatorConfirmEvent.noElevatorAvailableFor(request));
+        } else {
+            eventPublisher.publishEvent(ElevatorConfirmEvent.errorFor(request));
+        }
+    }
+
+    /**
+     * Find the car that passengers, waiting at the same floor and going the same way, were assigned to, with the
+     * destination nearest to this passenger's (within the {@link #destinationGroupingSpan}).  Cars that are already
+     * full (see {@link #carCapacity}) are passed over.
+     */
+    private Optional<UUID> groupWith(ElevatorDestinationRequestEvent request) {
+        UUID best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        synchronized (boardings) {
+            for (Map.Entry<UUID, List<Boarding>> assigned : boardings.entrySet()) {
+                int waiting = 0, nearest = Integer.MAX_VALUE;
+                for (Boarding b : assigned.getValue()) {
+                    if (b.getOrigin() == request.getRequestFloor() && b.getDirection() == request.getDirection()) {
+                        ++waiting;
+                        nearest = Math.min(nearest, Math.abs(b.getDestination() - request.getDestinationFloor()));
+                    }
+                }
+                if (waiting < carCapacity && nearest <= destinationGroupingSpan && nearest < bestDistance) {
+                    best = assigned.getKey();
+                    bestDistance = nearest;
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private void board(UUID elevator, ElevatorDestinationRequestEvent request) {
+        synchronized (boardings) {
+            boardings.computeIfAbsent(elevator, id -> new ArrayList<>())
+                    .add(new Boarding(request.getRequestFloor(), request.getDestinationFloor(), request.getDirection()));
+        }
+    }
+
+    private void unboard(UUID elevator, ElevatorDestinationRequestEvent request) {
+        synchronized (boardings) {
+            List<Boarding> waiting = boardings.get(elevator);
+            if (waiting == null) return;
+            waiting.remove(new Boarding(request.getRequestFloor(), request.getDestinationFloor(), request.getDirection()));
+            if (waiting.isEmpty()) {
+                boardings.remove(elevator);
+            }
+        }
+    }
+
+    /**
+     * @return the destinations of the passengers boarding an elevator at a floor (who are no longer waiting on it).
+     */
+    private List<Integer> boardingAt(UUID elevator, int floor) {
+        List<Integer> destinations = new ArrayList<>();
+        synchronized (boardings) {
+            List<Boarding> waiting = boardings.get(elevator);
+            if (waiting == null) return destinations;
+            for (Iterator<Boarding> it = waiting.iterator(); it.hasNext(); ) {
+                Boarding b = it.next();
+                if (b.getOrigin() == floor) {
+                    destinations.add(b.getDestination());
+                    it.remove();
+                }
+            }
+            if (waiting.isEmpty()) {
+                boardings.remove(elevator);
+            }
+        }
+        return destinations;
+    }
+
+    /**
+     * Keep a boarded passenger's destination (that the elevator turned down) to ask for again at its next stop.
+     */
+    private void ride(UUID elevator, int destination) {
+        synchronized (boardings) {
+            riding.computeIfAbsent(elevator, id -> new ArrayList<>()).add(destination);
+        }
+    }
+
+    /**
+     * @return the destinations turned down earlier, of the passengers still aboard an elevator as it stops at a floor
+     * (those going to the floor get off).
+     */
+    private List<Integer> ridingPast(UUID elevator, int floor) {
+        List<Integer> destinations;
+        synchronized (boardings) {
+            destinations = riding.remove(elevator);
+        }
+        if (destinations == null) return Collections.emptyList();
+        destinations.removeIf(destination -> destination == floor);
+        return destinations;
+    }
+
+    /**
+     * Elect the elevator that can answer a call the soonest: one already stopped at the floor, else whichever has the
+     * earliest {@link ElevatorEtaModel estimated time of arrival} (counting the stops it has to make first).  Elevators
+     * with no room for another stop are passed over.
+     * 
+     * @param floor the floor the call was made from.
+     * @param direction the direction the caller wants to go.
+     * @return the elected elevator, or empty if there are none available.
+     * @since 0.0.1
+     */
+    private Mono<UUID> elect(int floor, ElevatorMovingEvent.Direction direction) {
+        return elevatorStoppedAt(floor)
+                .switchIfEmpty(Mono.defer(() -> elevatorArrivingSoonest(floor, direction)));
+    }
+
+    /**
+     * Determine an (idle) elevator stopped at a specified floor.
+     * 
+     * @param floor the floor to find a stopped elevator at.
+     * @return the stopped elevator, or empty if there is none.
+     * @since 0.0.1
+     */
+    private Mono<UUID> elevatorStoppedAt(int floor) {
+        return Mono.justOrEmpty(elevatorsByFloor.stoppedAt(floor)).filter(id -> hasRoomFor(id, floor));
+    }
+
+    /**
+     * Determine the elevator that can reach a specified floor the soonest, to pick up a caller going in the specified
+     * direction.  A nearby elevator with a lot of stops to make first may well arrive after an idle one further away.
+     * 
+     * @param floor the floor to be reached.
+     * @param direction the direction the caller wants to go.
+     * @return the soonest elevator, or empty if there are none available
+     * @see #elevatorStoppedAt(int)
+     * @since 0.0.1
+     */
+    private Mono<UUID> elevatorArrivingSoonest(int floor, ElevatorMovingEvent.Direction direction) {
+        return Mono.justOrEmpty(arrivals.soonest(floor, direction, id -> hasRoomFor(id, floor)));
+    }
+
+    /**
+     * @return whether the elevator can take on a stop at the floor, as far as its latest status tells.
+     */
+    private boolean hasRoomFor(UUID elevator, int floor) {
+        return latestElevatorStatuses.get(elevator).map(status -> status.hasRoomFor(floor)).orElse(true);
+    }
+
+    /**
+     * @return when the elevator is expected at the request's floor (before it is tasked with the request), if known.
+     */
+    private Duration etaOf(Elevator elevator, ElevatorRequestEvent request) {
+        return arrivals.eta(elevator.describe().getId(), request.getRequestFloor(), directionOf(request)).orElse(null);
+    }
+
+    private static ElevatorMovingEvent.Direction directionOf(ElevatorRequestEvent request) {
+        if (request instanceof ElevatorRequestUpEvent) return ElevatorMovingEvent.Direction.UP;
+        if (request instanceof ElevatorRequestDownEvent) return ElevatorMovingEvent.Direction.DOWN;
+        if (request instanceof ElevatorDestinationRequestEvent) return ((ElevatorDestinationRequestEvent) request).getDirection();
+        return null;
+    }
+
+    /**
+     * How {@link #setBatchWindow(Duration) batching} hall calls has paid off.
+     */
+    @Value
+    @Builder
+    public static class BatchingReport {
+        private final long batches;
+        /**
+         * How long calls were held up for, waiting for their batch to be assigned.
+         */
+        private final LatencyHistogram.Snapshot delay;
+        /**
+         * How much less (estimated) waiting the batches' assignments came to, than answering each call as it came.
+         */
+        private final Duration estimatedWaitSaved;
+    }
+
+    /**
+     * An elevator elected to answer a call, and when it was expected there.
+     */
+    @Value
+    private static class Elected {
+        Elevator elevator;
+        Duration eta;
+    }
+
+    /**
+     * A hall call waiting for its batch to be assigned.
+     */
+    @Value
+    private static class PendingCall {
+        ElevatorRequestEvent request;
+        long receivedAt;
+    }
+
+    /**
+     * A passenger assigned to an elevator, waiting for it to arrive at their floor.
+     */
+    @Value
+    private static class Boarding {
+        int origin, destination;
+        ElevatorMovingEvent.Direction direction;
     }
 }
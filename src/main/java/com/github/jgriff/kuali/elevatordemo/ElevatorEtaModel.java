@@ -0,0 +1,247 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent.Direction;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Estimates when each operational elevator can reach a floor (its estimated time of arrival), from its latest
+ * {@link ElevatorStatus}: where it is, the stops it still has to make (each one holding it up for its
+ * {@link ElevatorStatus#getDoorOpenDelay() door delay}), and how fast it moves between floors.
+ * <p>
+ * Elevators are assumed to serve their stops in sweeps (as {@link BasicElevator.Scheduling#LOOK LOOK} does): on in the
+ * direction they are travelling to their furthest stop, then back for the stops behind them.  Each status (ie, as a
+ * stop is added or served) lays out the elevator's route afresh, with the time each leg of it starts, so an estimate
+ * only has to find where on the route the floor is, rather than replaying the elevator's stops for every request.
+ * <p>
+ * No elevator can reach a floor sooner than by coming straight there at the fastest speed of any, so finding the
+ * {@link #soonest soonest} walks the elevators outwards from the floor (through an {@link ElevatorFloorIndex} of where
+ * their routes start), and stops at the first floor too far away to beat the best estimate so far.  Like the index,
+ * updates are serialized, but estimates never lock (so an estimate racing an update may pass over the elevator being
+ * updated).
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+class ElevatorEtaModel {
+    /**
+     * Used for elevators that don't say how fast they are (the same as a {@link BasicElevator}'s defaults).
+     */
+    static final Duration DEFAULT_MOVEMENT_SPEED = Duration.ofSeconds(3), DEFAULT_DOOR_OPEN_DELAY = Duration.ofSeconds(5);
+
+    private final Map<UUID, Route> routes = new ConcurrentHashMap<>();
+    private final ElevatorFloorIndex byFloor = new ElevatorFloorIndex();
+    /**
+     * How many routes are travelled at each speed (nanos per floor).  Guarded by this.
+     */
+    private final NavigableMap<Long, Integer> speeds = new TreeMap<>();
+    /**
+     * Nanos per floor of the fastest elevator.
+     */
+    private volatile long fastestPerFloor;
+
+    /**
+     * Lay out an elevator's route from its latest status.  Elevators that are not
+     * {@link ElevatorOperationalState#OPERATIONAL operational} are dropped.
+     */
+    synchronized void update(ElevatorStatus status) {
+        UUID id = status.getDescriptor().getId();
+        if (status.getOperationalState() != ElevatorOperationalState.OPERATIONAL || status.getCurrentFloor() == null) {
+            remove(id);
+        } else {
+            Route route = Route.of(status);
+            replaced(routes.put(id, route), route);
+            byFloor.update(status);
+        }
+    }
+
+    /**
+     * {@link #update(ElevatorStatus) Update} an elevator's route, unless a newer status has since been taken into the
+     * table (whose update will lay it out instead).
+     */
+    synchronized void updateIfLatest(ElevatorStatus status, ElevatorStatusTable statuses) {
+        if (statuses.isLatest(status)) {
+            update(status);
+        }
+    }
+
+    synchronized void remove(UUID id) {
+        replaced(routes.remove(id), null);
+        byFloor.remove(id);
+    }
+
+    private void replaced(Route previous, Route route) {
+        if (previous != null) {
+            speeds.computeIfPresent(previous.perFloor, (perFloor, count) -> count > 1 ? count - 1 : null);
+        }
+        if (route != null) {
+            speeds.merge(route.perFloor, 1, Integer::sum);
+        }
+        fastestPerFloor = speeds.isEmpty() ? 0 : speeds.firstKey();
+    }
+
+    /**
+     * @param direction the direction the caller wants to go (or {@code null} for either).
+     * @return when the elevator can reach the floor (to pick up a caller going that way), or empty if it isn't known.
+     */
+    Optional<Duration> eta(UUID elevator, int floor, Direction direction) {
+        Route route = routes.get(elevator);
+        return route != null ? Optional.of(Duration.ofNanos(route.eta(floor, direction))) : Optional.empty();
+    }
+
+    /**
+     * @return when an elevator can reach the floor, from the status given (rather than its latest).
+     */
+    static Duration estimate(ElevatorStatus status, int floor, Direction direction) {
+        return Duration.ofNanos(Route.of(status).eta(floor, direction));
+    }
+
+    /**
+     * @return the elevator that can reach the floor the soonest (to pick up a caller going that way), if any.
+     */
+    Optional<UUID> soonest(int floor, Direction direction) {
+        return soonest(floor, direction, id -> true);
+    }
+
+    /**
+     * @return the elevator (of those eligible) that can reach the floor the soonest, if any.
+     */
+    Optional<UUID> soonest(int floor, Direction direction, Predicate<UUID> eligible) {
+        UUID soonest = null;
+        long best = Long.MAX_VALUE, fastest = fastestPerFloor;
+        for (Iterator<Map.Entry<Integer, Set<UUID>>> nearestFirst = byFloor.nearestFirst(floor); nearestFirst.hasNext(); ) {
+            Map.Entry<Integer, Set<UUID>> at = nearestFirst.next();
+            if (Math.abs(at.getKey() - floor) * fastest >= best) break; // none from here on can get there any sooner
+            for (UUID id : at.getValue()) {
+                Route route = routes.get(id);
+                if (route == null || !eligible.test(id)) continue;
+                long eta = route.eta(floor, direction);
+                if (eta < best) {
+                    soonest = id;
+                    best = eta;
+                }
+            }
+        }
+        return Optional.ofNullable(soonest);
+    }
+
+    /**
+     * Where an elevator will go, in order, and how long it takes.
+     */
+    private static class Route {
+        private final int floor;
+        private final long perFloor, perStop;
+        private final Leg[] legs;
+
+        private Route(int floor, long perFloor, long perStop, Leg[] legs) {
+            this.floor = floor;
+            this.perFloor = perFloor;
+            this.perStop = perStop;
+            this.legs = legs;
+        }
+
+        private static Route of(ElevatorStatus status) {
+            int floor = status.getCurrentFloor();
+            long perFloor = (status.getMovementSpeed() != null ? status.getMovementSpeed() : DEFAULT_MOVEMENT_SPEED).toNanos();
+            long perStop = (status.getDoorOpenDelay() != null ? status.getDoorOpenDelay() : DEFAULT_DOOR_OPEN_DELAY).toNanos();
+            List<Integer> stops = status.getFutureStops();
+            if (status.getDirection() == null || stops == null || stops.isEmpty()) {
+                return new Route(floor, perFloor, perStop, new Leg[0]);
+            }
+
+            // the stops ahead (in the direction of travel) are served first, then the ones behind
+            boolean up = status.getDirection() == Direction.UP;
+            int[] sorted = stops.stream().mapToInt(Integer::intValue).sorted().toArray();
+            int split = lowerBound(sorted, up ? floor : floor + 1);
+            int[] below = Arrays.copyOfRange(sorted, 0, split), above = Arrays.copyOfRange(sorted, split, sorted.length);
+
+            List<Leg> legs = new ArrayList<>(2);
+            int from = floor;
+            long startsAt = 0;
+            for (int[] sweep : up ? new int[][] {above, below} : new int[][] {below, above}) {
+                if (sweep.length > 0) {
+                    Direction direction = sweep == above ? Direction.UP : Direction.DOWN;
+                    int to = direction == Direction.UP ? sweep[sweep.length - 1] : sweep[0];
+                    legs.add(new Leg(from, to, direction, sweep, startsAt));
+                    startsAt += Math.abs(to - from) * perFloor + sweep.length * perStop;
+                    from = to;
+                }
+            }
+            return new Route(floor, perFloor, perStop, legs.toArray(new Leg[0]));
+        }
+
+        /**
+         * @return nanos until the elevator reaches the floor, going the caller's way (or turning around there).
+         */
+        private long eta(int target, Direction direction) {
+            int at = floor;
+            long elapsed = 0;
+            for (Leg leg : legs) {
+                boolean onLeg = Math.min(leg.from, leg.to) <= target && target <= Math.max(leg.from, leg.to);
+                if (onLeg && (direction == null || leg.direction == direction || target == leg.to)) {
+                    return leg.startsAt + Math.abs(target - leg.from) * perFloor + leg.stopsBefore(target) * perStop;
+                }
+                at = leg.to;
+                elapsed = leg.startsAt + Math.abs(leg.to - leg.from) * perFloor + leg.stops.length * perStop;
+            }
+            // done with its stops, it comes straight here
+            return elapsed + Math.abs(target - at) * perFloor;
+        }
+    }
+
+    /**
+     * One sweep of a route, from one floor to another, stopping on the way.
+     */
+    private static class Leg {
+        private final int from, to;
+        private final Direction direction;
+        /**
+         * Floors stopped at, in ascending order.
+         */
+        private final int[] stops;
+        /**
+         * Nanos until the elevator sets out on this leg.
+         */
+        private final long startsAt;
+
+        private Leg(int from, int to, Direction direction, int[] stops, long startsAt) {
+            this.from = from;
+            this.to = to;
+            this.direction = direction;
+            this.stops = stops;
+            this.startsAt = startsAt;
+        }
+
+        /**
+         * @return how many stops are made on this leg before reaching the floor.
+         */
+        private int stopsBefore(int floor) {
+            return direction == Direction.UP ? lowerBound(stops, floor) : stops.length - lowerBound(stops, floor + 1);
+        }
+    }
+
+    /**
+     * @return index of the first value at least {@code key} (or the length, if there is none).
+     */
+    private static int lowerBound(int[] sorted, int key) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent.Direction;
+import lombok.Value;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of operational elevators, ordered by the floor they are currently at, so the {@link ElevatorElector} can
+ * answer "which elevator is stopped at this floor?" in {@code O(log n)}, and the {@link ElevatorEtaModel} can visit
+ * elevators nearest a floor first, rather than scanning every elevator's status for every request.
+ * <p>
+ * Elevators are indexed by floor overall, and again if they are idle.  The index is kept current incrementally from
+ * {@link ElevatorStatus} updates.  Updates are serialized, but lookups never lock,
+ * so a lookup racing an update may see an elevator at either its old or its new floor.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+class ElevatorFloorIndex {
+    private final NavigableMap<Integer, Set<UUID>> all = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Integer, Set<UUID>> idle = new ConcurrentSkipListMap<>();
+    private final Map<UUID, Position> positions = new ConcurrentHashMap<>();
+
+    /**
+     * Move an elevator to the floor (and direction) given by its latest status.  Elevators that are not
+     * {@link ElevatorOperationalState#OPERATIONAL operational} are dropped from the index.
+     */
+    synchronized void update(ElevatorStatus status) {
+        UUID id = status.getDescriptor().getId();
+        if (status.getOperationalState() != ElevatorOperationalState.OPERATIONAL || status.getCurrentFloor() == null) {
+            remove(id);
+            return;
+        }
+
+        Position next = new Position(status.getCurrentFloor(), status.getDirection());
+        Position previous = positions.put(id, next);
+        if (next.equals(previous)) return;
+
+        if (previous != null) {
+            unindex(id, previous);
+        }
+        index(id, next);
+    }
+
+    /**
+     * {@link #update(ElevatorStatus) Update} an elevator's position, unless a newer status has since been taken into
+     * the table (whose update will move it instead), so racing updates are always indexed in order.
+     */
+    synchronized void updateIfLatest(ElevatorStatus status, ElevatorStatusTable statuses) {
+        if (statuses.isLatest(status)) {
+            update(status);
+        }
+    }
+
+    synchronized void remove(UUID id) {
+        Position previous = positions.remove(id);
+        if (previous != null) {
+            unindex(id, previous);
+        }
+    }
+
+    /**
+     * @return any idle elevator at the floor.
+     */
+    Optional<UUID> stoppedAt(int floor) {
+        return any(idle.get(floor));
+    }
+
+    /**
+     * Walk the floors elevators are at outwards from the floor (above or below, whichever is nearer next), regardless
+     * of what the elevators are doing, so a caller can stop as soon as the rest are too far away to matter.
+     *
+     * @return each floor with the elevators at it, nearest the floor first.
+     */
+    Iterator<Map.Entry<Integer, Set<UUID>>> nearestFirst(int floor) {
+        Iterator<Map.Entry<Integer, Set<UUID>>> below = all.headMap(floor, true).descendingMap().entrySet().iterator();
+        Iterator<Map.Entry<Integer, Set<UUID>>> above = all.tailMap(floor, false).entrySet().iterator();
+        return new Iterator<Map.Entry<Integer, Set<UUID>>>() {
+            private Map.Entry<Integer, Set<UUID>> nextBelow = below.hasNext() ? below.next() : null;
+            private Map.Entry<Integer, Set<UUID>> nextAbove = above.hasNext() ? above.next() : null;
+
+            @Override
+            public boolean hasNext() {
+                return nextBelow != null || nextAbove != null;
+            }
+
+            @Override
+            public Map.Entry<Integer, Set<UUID>> next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                Map.Entry<Integer, Set<UUID>> next;
+                if (nextAbove == null || nextBelow != null && floor - nextBelow.getKey() <= nextAbove.getKey() - floor) {
+                    next = nextBelow;
+                    nextBelow = below.hasNext() ? below.next() : null;
+                } else {
+                    next = nextAbove;
+                    nextAbove = above.hasNext() ? above.next() : null;
+                }
+                return next;
+            }
+        };
+    }
+
+    private void index(UUID id, Position position) {
+        add(all, position.floor, id);
+        if (position.direction == null) {
+            add(idle, position.floor, id);
+        }
+    }
+
+    private void unindex(UUID id, Position position) {
+        remove(all, position.floor, id);
+        if (position.direction == null) {
+            remove(idle, position.floor, id);
+        }
+    }
+
+    private static void add(NavigableMap<Integer, Set<UUID>> floors, int floor, UUID id) {
+        floors.computeIfAbsent(floor, f -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    private static void remove(NavigableMap<Integer, Set<UUID>> floors, int floor, UUID id) {
+        Set<UUID> atFloor = floors.get(floor);
+        if (atFloor != null) {
+            atFloor.remove(id);
+            if (atFloor.isEmpty()) {
+                floors.remove(floor);
+            }
+        }
+    }
+
+    private static Optional<UUID> any(Set<UUID> ids) {
+        if (ids == null) return Optional.empty();
+        Iterator<UUID> it = ids.iterator();
+        return it.hasNext() ? Optional.of(it.next()) : Optional.empty();
+    }
+
+    @Value
+    private static class Position {
+        int floor;
+        Direction direction;
+    }
+}
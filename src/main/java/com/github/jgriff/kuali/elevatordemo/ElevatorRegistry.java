@@ -1,9 +1,49 @@
 package com.github.jgriff.kuali.elevatordemo;
 
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
 /**
+ * Registry of the elevators in service, indexed by their {@link ElevatorDescriptor#getId() id}.  Elevators can be
+ * registered and unregistered at any time while the system is running, and implementations announce every change
+ * with a {@link com.github.jgriff.kuali.elevatordemo.events.ElevatorRegisteredEvent} or
+ * {@link com.github.jgriff.kuali.elevatordemo.events.ElevatorUnregisteredEvent}.
+ *
  * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
  * @since 0.0.0
  */
 public interface ElevatorRegistry {
+    /**
+     * Register an elevator, putting it into service.
+     *
+     * @param elevator the elevator to register.
+     * @return {@code true} if it was registered, or {@code false} if an elevator with the same id already was.
+     * @since 0.0.1
+     */
+    boolean register(Elevator elevator);
+
+    /**
+     * Unregister an elevator, taking it out of service.
+     *
+     * @param id id of the elevator to unregister.
+     * @return the elevator that was unregistered, or empty if there was no elevator registered with that id.
+     * @since 0.0.1
+     */
+    Optional<Elevator> unregister(UUID id);
+
+    /**
+     * Lookup a registered elevator by its id.
+     *
+     * @param id id of the elevator to find.
+     * @return the elevator, or empty if there is no elevator registered with that id.
+     * @since 0.0.1
+     */
+    Optional<Elevator> lookup(UUID id);
+
+    /**
+     * @return (read only) view of all registered elevators.
+     * @since 0.0.1
+     */
+    Collection<Elevator> getElevators();
 }
-                                                           
\ No newline at end of file
@@ -1,8 +1,10 @@
 package com.github.jgriff.kuali.elevatordemo;
 
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent;
 import lombok.Builder;
 import lombok.Value;
 
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -14,6 +16,12 @@ import java.util.List;
 @Value
 @Builder
 public class ElevatorStatus {
+    /**
+     * {@link #getVersion() Version} of a status that isn't numbered.
+     * @since 0.0.1
+     */
+    public static final long UNVERSIONED = 0;
+
     /**
      * Unique identifier of the elevator this status is for.
      */
@@ -31,4 +39,40 @@ public class ElevatorStatus {
      * contain the floors the elevator is (currently) planning to stop at.
      */
     private final List<Integer> futureStops;
+    /**
+     * The direction the elevator is travelling in to reach its future stops, or {@code null} if it is untasked (idle).
+     */
+    private final ElevatorMovingEvent.Direction direction;
+    /**
+     * Number of this status among the elevator's statuses, increasing with every status it publishes, so a newer status
+     * can be told from an older one that arrived late (or {@link #UNVERSIONED} if it isn't numbered).
+     * @since 0.0.1
+     */
+    private final long version;
+    /**
+     * How long the elevator takes to move between floors, or {@code null} if it doesn't say.
+     * @since 0.0.1
+     */
+    private final Duration movementSpeed;
+    /**
+     * How long the elevator's doors stay open at each stop, or {@code null} if it doesn't say.
+     * @since 0.0.1
+     */
+    private final Duration doorOpenDelay;
+    /**
+     * Most stops the elevator takes on at once (see {@link BasicElevator#getMaxStops()}), or {@code null} if it doesn't
+     * say.
+     * @since 0.0.1
+     */
+    private final Integer maxStops;
+
+    /**
+     * @return whether the elevator has room for a stop at the floor (ie, it already stops there, or has fewer than its
+     * {@link #maxStops most} stops), as far as this status tells.
+     * @since 0.0.1
+     */
+    public boolean hasRoomFor(int floor) {
+        if (maxStops == null || futureStops == null) return true;
+        return futureStops.size() < maxStops || futureStops.contains(floor);
+    }
 }
@@ -0,0 +1,72 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The latest {@link ElevatorStatus} of each elevator, as known to the {@link ElevatorElector}.
+ * <p>
+ * Status updates are published from whichever thread the elevator happened to be running on, so they can arrive out
+ * of order.  Each elevator numbers its statuses ({@link ElevatorStatus#getVersion()}), and an update is only taken if
+ * it is newer than the status we already have, so an older status never overwrites a newer one.  Statuses without a
+ * version (ie, restored from a snapshot, or from elevators that don't number them) are always taken.
+ * <p>
+ * Nothing locks: updates compare-and-swap the elevator's entry (retrying if they lose a race with another update of
+ * the same elevator), and readers see each elevator's latest status without waiting on writers.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+class ElevatorStatusTable {
+    private final ConcurrentMap<UUID, ElevatorStatus> statuses = new ConcurrentHashMap<>();
+
+    /**
+     * Take a status, unless we already have a newer one for the elevator.
+     *
+     * @return whether the status was taken (or {@code false} if it was stale).
+     */
+    boolean update(ElevatorStatus status) {
+        UUID id = status.getDescriptor().getId();
+        ElevatorStatus current = statuses.putIfAbsent(id, status);
+        while (current != null) {
+            if (isStale(status, current)) return false;
+            if (statuses.replace(id, current, status)) return true;
+            current = statuses.putIfAbsent(id, status); // lost a race (or the elevator was removed), so try again
+        }
+        return true;
+    }
+
+    /**
+     * @return the latest status of an elevator, or empty if we have none.
+     */
+    Optional<ElevatorStatus> get(UUID id) {
+        return Optional.ofNullable(statuses.get(id));
+    }
+
+    /**
+     * @return whether the status is still the latest we have for its elevator.
+     */
+    boolean isLatest(ElevatorStatus status) {
+        return statuses.get(status.getDescriptor().getId()) == status;
+    }
+
+    void remove(UUID id) {
+        statuses.remove(id);
+    }
+
+    /**
+     * @return (read only) view of the latest status of every elevator, which never blocks updates (nor is blocked by
+     * them), and reflects updates made while iterating over it.
+     */
+    Collection<ElevatorStatus> values() {
+        return Collections.unmodifiableCollection(statuses.values());
+    }
+
+    private static boolean isStale(ElevatorStatus status, ElevatorStatus current) {
+        return status.getVersion() != ElevatorStatus.UNVERSIONED && status.getVersion() <= current.getVersion();
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+/**
+ * Raised to a producer when an event cannot be delivered, because a subscriber's queue on the
+ * {@link PartitionedEventBus} is full (and its topic's overflow strategy is {@link PartitionedEventBus.Overflow#ERROR}).
+ * 
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class EventBusOverflowException extends RuntimeException {
+    public EventBusOverflowException() {
+        super();
+    }
+
+    public EventBusOverflowException(String message) {
+        super(message);
+    }
+
+    public EventBusOverflowException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public EventBusOverflowException(Throwable cause) {
+        super(cause);
+    }
+
+    protected EventBusOverflowException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+}
@@ -0,0 +1,364 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import lombok.Value;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding of our {@link ElevatorOperationEvent operation}, {@link ElevatorRequestEvent request} and
+ * {@link ElevatorConfirmEvent confirm} events (along with the time they were recorded), for the
+ * {@link EventJournal journal}, and of the status, registration and command events too, for an {@link EventLink}.
+ * Each record is framed by its length:
+ * <pre>
+ *     int length | byte type | long timestamp | long id (most significant) | long id (least significant) | fields...
+ * </pre>
+ * Floors are ints, directions and results are bytes, and an elevator is its id followed by its name (a short length
+ * and UTF-8 bytes).  Operation, request and confirm events decode with their original ids, so a decoded event equals
+ * the one encoded.
+ * <p>
+ * A codec remembers the elevators it has seen (to save re-encoding, and re-creating, the same names over and over), so
+ * it is not thread-safe.  Use one per thread.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class EventCodec {
+    /**
+     * Length of the smallest possible record.  A length of zero marks the end of the records in a buffer.
+     */
+    static final int HEADER_SIZE = 4 + 1 + 8 + 16;
+    private static final int MAX_CACHED_ELEVATORS = 1024;
+    private static final UUID NO_ID = new UUID(0, 0);
+
+    private static final byte MOVING = 1, FLOOR_PASS = 2, FLOOR_STOP = 3, DOOR_OPEN = 4, DOOR_CLOSE = 5,
+            REQUEST_UP = 10, REQUEST_DOWN = 11, REQUEST_DESTINATION = 12,
+            CONFIRM = 20,
+            STATUS_UPDATE = 30, REGISTERED = 31, UNREGISTERED = 32, MOVE_COMMAND = 33, MOVE_REPLY = 34;
+    /**
+     * What a confirmation carries (besides its request), as flags.
+     */
+    private static final byte HAS_ELEVATOR = 1, HAS_ETA = 2;
+
+    private final Map<String, byte[]> encodedNames = new HashMap<>();
+    private final Map<UUID, ElevatorDescriptor> decodedElevators = new HashMap<>();
+
+    /**
+     * @return whether the event is one we can encode.
+     */
+    public static boolean supports(Object event) {
+        return event instanceof ElevatorOperationEvent
+                || event instanceof ElevatorRequestEvent
+                || event instanceof ElevatorConfirmEvent
+                || event instanceof ElevatorStatusUpdateEvent
+                || event instanceof ElevatorRegisteredEvent
+                || event instanceof ElevatorUnregisteredEvent
+                || event instanceof ElevatorMoveCommand
+                || event instanceof ElevatorMoveReply;
+    }
+
+    /**
+     * Encode an event at the buffer's position, leaving the position after it.
+     *
+     * @throws BufferOverflowException if it doesn't fit, in which case the buffer's position is left where it was.
+     * @throws IllegalArgumentException if it isn't an event we {@link #supports(Object) support}.
+     */
+    public void encode(Object event, long timestamp, ByteBuffer buffer) {
+        if (buffer.remaining() < 4) throw new BufferOverflowException(); // not even room for the length
+        int start = buffer.position();
+        try {
+            buffer.position(start + 4);
+            buffer.put(typeOf(event));
+            buffer.putLong(timestamp);
+            if (event instanceof ElevatorOperationEvent) {
+                encodeOperation((ElevatorOperationEvent) event, buffer);
+            } else if (event instanceof ElevatorRequestEvent) {
+                encodeRequest((ElevatorRequestEvent) event, buffer);
+            } else if (!(event instanceof ElevatorConfirmEvent)) {
+                encodeElevatorEvent(event, buffer);
+            } else {
+                ElevatorConfirmEvent confirm = (ElevatorConfirmEvent) event;
+                putId(confirm.getId(), buffer);
+                buffer.put(typeOf(confirm.getConfirmationOf()));
+                encodeRequest(confirm.getConfirmationOf(), buffer);
+                buffer.put((byte) confirm.getResult().ordinal());
+                buffer.put((byte) ((confirm.getElevator() != null ? HAS_ELEVATOR : 0) | (confirm.getEta() != null ? HAS_ETA : 0)));
+                if (confirm.getElevator() != null) {
+                    putElevator(confirm.getElevator(), buffer);
+                }
+                if (confirm.getEta() != null) {
+                    putDuration(confirm.getEta(), buffer);
+                }
+            }
+            buffer.putInt(start, buffer.position() - start);
+        } catch (BufferOverflowException | IllegalArgumentException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Decode the next record from the buffer's position, leaving the position after it.
+     *
+     * @return the record, or {@code null} if there are no more (the end of the buffer, or the end of what was written
+     * to it).
+     */
+    public Entry decode(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_SIZE) return null;
+        int start = buffer.position();
+        int length = buffer.getInt(start);
+        if (length < HEADER_SIZE || length > buffer.remaining()) return null;
+
+        buffer.position(start + 4);
+        byte type = buffer.get();
+        long timestamp = buffer.getLong();
+        Object event;
+        if (type == CONFIRM) {
+            UUID id = getId(buffer);
+            ElevatorRequestEvent request = decodeRequest(buffer.get(), buffer);
+            ElevatorConfirmEvent.Result result = ElevatorConfirmEvent.Result.values()[buffer.get()];
+            byte has = buffer.get();
+            ElevatorDescriptor elevator = (has & HAS_ELEVATOR) != 0 ? getElevator(buffer) : null;
+            Duration eta = (has & HAS_ETA) != 0 ? getDuration(buffer) : null;
+            event = new ElevatorConfirmEvent(id, request, result, elevator, eta);
+        } else if (type >= STATUS_UPDATE) {
+            event = decodeElevatorEvent(type, buffer);
+        } else if (type >= REQUEST_UP) {
+            event = decodeRequest(type, buffer);
+        } else {
+            event = decodeOperation(type, buffer);
+        }
+        buffer.position(start + length);
+        return new Entry(timestamp, event);
+    }
+
+    private void encodeOperation(ElevatorOperationEvent event, ByteBuffer buffer) {
+        putId(event.getId(), buffer);
+        putElevator(event.getElevator(), buffer);
+        if (event instanceof ElevatorMovingEvent) {
+            ElevatorMovingEvent moving = (ElevatorMovingEvent) event;
+            buffer.put((byte) moving.getDirection().ordinal());
+            buffer.putInt(moving.getNextFloor());
+        } else if (event instanceof ElevatorFloorPassEvent) {
+            buffer.putInt(((ElevatorFloorPassEvent) event).getFloor());
+        } else if (event instanceof ElevatorFloorStopEvent) {
+            buffer.putInt(((ElevatorFloorStopEvent) event).getFloor());
+        } else if (event instanceof ElevatorDoorOpenEvent) {
+            buffer.putInt(((ElevatorDoorOpenEvent) event).getFloor());
+        } else {
+            buffer.putInt(((ElevatorDoorCloseEvent) event).getFloor());
+        }
+    }
+
+    private ElevatorOperationEvent decodeOperation(byte type, ByteBuffer buffer) {
+        UUID id = getId(buffer);
+        ElevatorDescriptor elevator = getElevator(buffer);
+        switch (type) {
+            case MOVING:
+                ElevatorMovingEvent.Direction direction = ElevatorMovingEvent.Direction.values()[buffer.get()];
+                return new ElevatorMovingEvent(id, elevator, direction, buffer.getInt());
+            case FLOOR_PASS:
+                return new ElevatorFloorPassEvent(id, elevator, buffer.getInt());
+            case FLOOR_STOP:
+                return new ElevatorFloorStopEvent(id, elevator, buffer.getInt());
+            case DOOR_OPEN:
+                return new ElevatorDoorOpenEvent(id, elevator, buffer.getInt());
+            case DOOR_CLOSE:
+                return new ElevatorDoorCloseEvent(id, elevator, buffer.getInt());
+            default:
+                throw new IllegalArgumentException("Unknown event type '" + type + "'.");
+        }
+    }
+
+    private static void encodeRequest(ElevatorRequestEvent request, ByteBuffer buffer) {
+        putId(request.getId(), buffer);
+        buffer.putInt(request.getRequestFloor());
+        if (request instanceof ElevatorDestinationRequestEvent) {
+            buffer.putInt(((ElevatorDestinationRequestEvent) request).getDestinationFloor());
+        }
+    }
+
+    private static ElevatorRequestEvent decodeRequest(byte type, ByteBuffer buffer) {
+        UUID id = getId(buffer);
+        int requestFloor = buffer.getInt();
+        switch (type) {
+            case REQUEST_UP:
+                return new ElevatorRequestUpEvent(id, requestFloor);
+            case REQUEST_DOWN:
+                return new ElevatorRequestDownEvent(id, requestFloor);
+            case REQUEST_DESTINATION:
+                return new ElevatorDestinationRequestEvent(id, requestFloor, buffer.getInt());
+            default:
+                throw new IllegalArgumentException("Unknown request type '" + type + "'.");
+        }
+    }
+
+    /**
+     * Status, registration and command events are encoded by what they say.  Their ids are not kept (nobody refers to
+     * them by id), so each decodes as a new event, except for a command's (which its reply refers to).
+     */
+    private void encodeElevatorEvent(Object event, ByteBuffer buffer) {
+        putId(event instanceof ElevatorMoveCommand ? ((ElevatorMoveCommand) event).getId() : NO_ID, buffer);
+        if (event instanceof ElevatorStatusUpdateEvent) {
+            ElevatorStatus status = ((ElevatorStatusUpdateEvent) event).getStatusUpdate();
+            putElevator(status.getDescriptor(), buffer);
+            buffer.put((byte) status.getOperationalState().ordinal());
+            buffer.putInt(status.getCurrentFloor() != null ? status.getCurrentFloor() : FloorStops.NONE);
+            buffer.put((byte) (status.getDirection() != null ? status.getDirection().ordinal() : -1));
+            buffer.putLong(status.getVersion());
+            putDuration(status.getMovementSpeed(), buffer);
+            putDuration(status.getDoorOpenDelay(), buffer);
+            buffer.putInt(status.getMaxStops() != null ? status.getMaxStops() : -1);
+            List<Integer> stops = status.getFutureStops() != null ? status.getFutureStops() : Collections.emptyList();
+            buffer.putInt(stops.size());
+            for (int stop : stops) {
+                buffer.putInt(stop);
+            }
+        } else if (event instanceof ElevatorRegisteredEvent) {
+            putElevator(((ElevatorRegisteredEvent) event).getElevator(), buffer);
+        } else if (event instanceof ElevatorUnregisteredEvent) {
+            putElevator(((ElevatorUnregisteredEvent) event).getElevator(), buffer);
+        } else if (event instanceof ElevatorMoveCommand) {
+            ElevatorMoveCommand command = (ElevatorMoveCommand) event;
+            putElevator(command.getElevator(), buffer);
+            buffer.putInt(command.getFloor());
+        } else {
+            ElevatorMoveReply reply = (ElevatorMoveReply) event;
+            putElevator(reply.getElevator(), buffer);
+            putId(reply.getCommandId(), buffer);
+            buffer.put((byte) reply.getResult().ordinal());
+        }
+    }
+
+    private Object decodeElevatorEvent(byte type, ByteBuffer buffer) {
+        UUID id = getId(buffer);
+        ElevatorDescriptor elevator = getElevator(buffer);
+        switch (type) {
+            case STATUS_UPDATE:
+                ElevatorOperationalState state = ElevatorOperationalState.values()[buffer.get()];
+                int floor = buffer.getInt();
+                byte direction = buffer.get();
+                long version = buffer.getLong();
+                Duration movementSpeed = getDuration(buffer), doorOpenDelay = getDuration(buffer);
+                int maxStops = buffer.getInt();
+                int size = buffer.getInt();
+                List<Integer> stops = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    stops.add(buffer.getInt());
+                }
+                return ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+                        .descriptor(elevator)
+                        .operationalState(state)
+                        .currentFloor(floor != FloorStops.NONE ? floor : null)
+                        .direction(direction >= 0 ? ElevatorMovingEvent.Direction.values()[direction] : null)
+                        .futureStops(stops)
+                        .version(version)
+                        .movementSpeed(movementSpeed)
+                        .doorOpenDelay(doorOpenDelay)
+                        .maxStops(maxStops >= 0 ? maxStops : null)
+                        .build());
+            case REGISTERED:
+                return ElevatorRegisteredEvent.forElevator(elevator);
+            case UNREGISTERED:
+                return ElevatorUnregisteredEvent.forElevator(elevator);
+            case MOVE_COMMAND:
+                return new ElevatorMoveCommand(id, elevator, buffer.getInt());
+            case MOVE_REPLY:
+                UUID commandId = getId(buffer);
+                return new ElevatorMoveReply(elevator, commandId, ElevatorMoveReply.Result.values()[buffer.get()]);
+            default:
+                throw new IllegalArgumentException("Unknown event type '" + type + "'.");
+        }
+    }
+
+    private static byte typeOf(Object event) {
+        if (event instanceof ElevatorMovingEvent) return MOVING;
+        if (event instanceof ElevatorFloorPassEvent) return FLOOR_PASS;
+        if (event instanceof ElevatorFloorStopEvent) return FLOOR_STOP;
+        if (event instanceof ElevatorDoorOpenEvent) return DOOR_OPEN;
+        if (event instanceof ElevatorDoorCloseEvent) return DOOR_CLOSE;
+        if (event instanceof ElevatorRequestUpEvent) return REQUEST_UP;
+        if (event instanceof ElevatorRequestDownEvent) return REQUEST_DOWN;
+        if (event instanceof ElevatorDestinationRequestEvent) return REQUEST_DESTINATION;
+        if (event instanceof ElevatorConfirmEvent) return CONFIRM;
+        if (event instanceof ElevatorStatusUpdateEvent) return STATUS_UPDATE;
+        if (event instanceof ElevatorRegisteredEvent) return REGISTERED;
+        if (event instanceof ElevatorUnregisteredEvent) return UNREGISTERED;
+        if (event instanceof ElevatorMoveCommand) return MOVE_COMMAND;
+        if (event instanceof ElevatorMoveReply) return MOVE_REPLY;
+        throw new IllegalArgumentException("Cannot encode event: " + event);
+    }
+
+    private static void putDuration(Duration duration, ByteBuffer buffer) {
+        buffer.putLong(duration != null ? duration.toNanos() : -1);
+    }
+
+    private static Duration getDuration(ByteBuffer buffer) {
+        long nanos = buffer.getLong();
+        return nanos >= 0 ? Duration.ofNanos(nanos) : null;
+    }
+
+    private static void putId(UUID id, ByteBuffer buffer) {
+        buffer.putLong(id.getMostSignificantBits());
+        buffer.putLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID getId(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private void putElevator(ElevatorDescriptor elevator, ByteBuffer buffer) {
+        putId(elevator.getId(), buffer);
+        String name = elevator.getName();
+        if (name == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        if (encodedNames.size() > MAX_CACHED_ELEVATORS) {
+            encodedNames.clear();
+        }
+        byte[] encoded = encodedNames.computeIfAbsent(name, n -> n.getBytes(StandardCharsets.UTF_8));
+        if (encoded.length > Short.MAX_VALUE) throw new IllegalArgumentException("Elevator name is too long to encode: " + name);
+        buffer.putShort((short) encoded.length);
+        buffer.put(encoded);
+    }
+
+    private ElevatorDescriptor getElevator(ByteBuffer buffer) {
+        UUID id = getId(buffer);
+        short length = buffer.getShort();
+        String name = null;
+        if (length >= 0) {
+            byte[] encoded = new byte[length];
+            buffer.get(encoded);
+            name = new String(encoded, StandardCharsets.UTF_8);
+        }
+
+        ElevatorDescriptor known = decodedElevators.get(id);
+        if (known != null && Objects.equals(known.getName(), name)) return known;
+        if (decodedElevators.size() > MAX_CACHED_ELEVATORS) {
+            decodedElevators.clear();
+        }
+        ElevatorDescriptor elevator = ElevatorDescriptor.builder().id(id).name(name).build();
+        decodedElevators.put(id, elevator);
+        return elevator;
+    }
+
+    /**
+     * A decoded event, and the time it was recorded.
+     */
+    @Value
+    public static class Entry {
+        private final long timestamp;
+        private final Object event;
+    }
+}
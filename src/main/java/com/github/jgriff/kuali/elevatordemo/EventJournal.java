@@ -0,0 +1,316 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorConfirmEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorOperationEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestEvent;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of every {@link ElevatorOperationEvent operation}, {@link ElevatorRequestEvent request} and
+ * {@link ElevatorConfirmEvent confirm} event, for replaying them later or investigating what happened.
+ * <p>
+ * Listeners only drop the event (and the time) into a preallocated {@link RingBuffer} slot; a single writer thread
+ * {@link EventCodec encodes} them, in batches, straight into a memory-mapped segment file.  Producers are never
+ * blocked on the disk: if the writer falls behind and the ring fills up, events are dropped (and counted, see
+ * {@link #getDroppedCount()}) rather than holding anyone up.
+ * <p>
+ * Segments are named by their (increasing) index, ie {@code 00000000000000000001.journal}, and start with a small
+ * header.  When the next record does not fit, the segment is closed and a new one started, and the oldest segments are
+ * deleted beyond the {@link #getMaxSegments() maximum number} or {@link #getRetention() age} we keep.  The end of the
+ * records in a segment is marked by a zero length (the rest of the file is zeros).
+ * <p>
+ * A mapped segment is written to the page cache, so what has been written survives the application crashing (but not
+ * necessarily the machine), and is forced to disk when the segment is closed.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Builder
+@Slf4j
+public class EventJournal {
+    static final String SUFFIX = ".journal";
+    private static final int MAGIC = 0x454A524E, VERSION = 1, SEGMENT_HEADER_SIZE = 8;
+    private static final int BATCH = 1024;
+
+    /**
+     * Directory the segments are written to (created if need be).
+     */
+    @Getter
+    @NonNull
+    private final Path directory;
+
+    /**
+     * Size of each segment file, in bytes.
+     */
+    @Getter
+    @Builder.Default
+    private final int segmentSize = 64 * 1024 * 1024;
+
+    /**
+     * Most segments to keep (including the one being written).
+     */
+    @Getter
+    @Builder.Default
+    private final int maxSegments = 16;
+
+    /**
+     * How long to keep a segment, after it was last written to.
+     */
+    @Getter
+    @Builder.Default
+    private final Duration retention = Duration.ofDays(7);
+
+    /**
+     * How many events may be waiting for the writer before they are dropped.
+     */
+    @Getter
+    @Builder.Default
+    private final int bufferCapacity = 1 << 16;
+
+    /**
+     * Clock the events are timestamped by.
+     */
+    @Getter
+    @Builder.Default
+    private final SimulationClock clock = SimulationClock.realTime();
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private volatile RingBuffer<Slot> events;
+    private volatile boolean running;
+    private Thread writer;
+
+    private final EventCodec codec = new EventCodec(); // only used by the writer
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentIndex;
+
+    /**
+     * Open a new segment, and start writing events to it.
+     */
+    public synchronized void start() throws IOException {
+        if (running) return;
+        if (segmentSize < SEGMENT_HEADER_SIZE + EventCodec.HEADER_SIZE) throw new IllegalArgumentException("Segment size is too small: " + segmentSize);
+        if (maxSegments < 1) throw new IllegalArgumentException("Must keep at least 1 segment, not: " + maxSegments);
+
+        Files.createDirectories(directory);
+        segmentIndex = segments(directory).stream().mapToLong(EventJournal::indexOf).max().orElse(0);
+        roll();
+
+        events = new RingBuffer<>(bufferCapacity, Slot::new);
+        running = true;
+        writer = new Thread(this::writeEvents, "event-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer, once it has written whatever is already queued, and close the segment.
+     */
+    public synchronized void close() throws InterruptedException, IOException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            writer = null;
+            closeSegment();
+        }
+    }
+
+    @EventListener
+    public void onElevatorOperation(ElevatorOperationEvent e) {
+        append(e);
+    }
+
+    @EventListener
+    public void onElevatorRequest(ElevatorRequestEvent e) {
+        append(e);
+    }
+
+    @EventListener
+    public void onElevatorConfirm(ElevatorConfirmEvent e) {
+        append(e);
+    }
+
+    /**
+     * @return how many events were not journaled, because the writer could not keep up (or was not running).
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return how many events have been written to the journal.
+     */
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /**
+     * Read back every event in a journal's directory, oldest first.  Segments are read (and mapped) one at a time, as the
+     * events are requested.
+     */
+    public static Flux<EventCodec.Entry> read(Path directory) {
+        return Flux.defer(() -> Flux.fromIterable(segments(directory)))
+                .concatMap(segment -> Flux.using(
+                        () -> FileChannel.open(segment, StandardOpenOption.READ),
+                        channel -> Flux.fromIterable(entries(map(channel))),
+                        EventJournal::closeQuietly));
+    }
+
+    private void append(Object event) {
+        RingBuffer<Slot> events = this.events;
+        long sequence = running ? events.claim() : -1;
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        Slot slot = events.get(sequence);
+        slot.event = event;
+        slot.timestamp = clock.now(TimeUnit.NANOSECONDS);
+        events.publish(sequence);
+    }
+
+    private void writeEvents() {
+        while (running || events.size() > 0) {
+            if (events.drain(this::write, BATCH) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void write(Slot slot) {
+        try {
+            try {
+                codec.encode(slot.event, slot.timestamp, segment);
+            } catch (BufferOverflowException full) {
+                roll();
+                codec.encode(slot.event, slot.timestamp, segment); // still too big for an empty segment?  then drop it
+            }
+            written.increment();
+        } catch (IOException | RuntimeException e) {
+            dropped.increment();
+            log.warn("Failed to journal event {}", slot.event, e);
+        } finally {
+            slot.event = null; // don't hold on to it until the slot is reused
+        }
+    }
+
+    /**
+     * Close the current segment (if any), open the next, and delete whatever we no longer keep.
+     */
+    private void roll() throws IOException {
+        closeSegment();
+        Path next = directory.resolve(String.format("%020d%s", ++segmentIndex, SUFFIX));
+        channel = FileChannel.open(next, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segment.putInt(MAGIC).putInt(VERSION);
+        applyRetention();
+    }
+
+    private void closeSegment() throws IOException {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private void applyRetention() throws IOException {
+        List<Path> segments = segments(directory);
+        long expiredBefore = System.currentTimeMillis() - retention.toMillis();
+        for (int i = 0; i < segments.size() - 1; i++) { // never the one being written (the last)
+            Path segment = segments.get(i);
+            if (segments.size() - i > maxSegments || Files.getLastModifiedTime(segment).toMillis() < expiredBefore) {
+                Files.deleteIfExists(segment);
+            }
+        }
+    }
+
+    /**
+     * @return the segments in a directory, oldest first.
+     */
+    static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) return Collections.emptyList();
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(SUFFIX))
+                    .sorted((a, b) -> Long.compare(indexOf(a), indexOf(b)))
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long indexOf(Path segment) {
+        String name = segment.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static ByteBuffer map(FileChannel channel) {
+        try {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static List<EventCodec.Entry> entries(ByteBuffer segment) {
+        if (segment.remaining() < SEGMENT_HEADER_SIZE || segment.getInt() != MAGIC) throw new IllegalStateException("Not a journal segment.");
+        int version = segment.getInt();
+        if (version != VERSION) throw new IllegalStateException("Unsupported journal version '" + version + "'.");
+
+        EventCodec codec = new EventCodec();
+        List<EventCodec.Entry> entries = new ArrayList<>();
+        for (EventCodec.Entry entry = codec.decode(segment); entry != null; entry = codec.decode(segment)) {
+            entries.add(entry);
+        }
+        return entries;
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.debug("Failed to close journal segment", e);
+        }
+    }
+
+    /**
+     * A slot in our ring, reused for one event after another.
+     */
+    private static class Slot {
+        private Object event;
+        private long timestamp;
+    }
+}
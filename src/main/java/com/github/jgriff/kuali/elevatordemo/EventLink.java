@@ -0,0 +1,421 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Connects this JVM's events to another's, over a TCP socket, so elevators, floors and the elector can each run in a
+ * JVM of their own.  Our events are {@link EventCodec encoded} and sent to the other side, where they are published
+ * again, just as if they had been published there:
+ * <ul>
+ *     <li>the other side's elevators are {@link ElevatorRegisteredEvent announced} when we connect, and stand in our
+ *     {@link ElevatorRegistry registry} as {@link RemoteElevator remote elevators}.  Tasking one
+ *     ({@link Elevator#moveToFloor(int)}) sends it an {@link ElevatorMoveCommand}, and waits (up to the
+ *     {@link #getCommandTimeout() command timeout}) for its {@link ElevatorMoveReply reply}, so a stop the elevator
+ *     turns down (ie, for being full) fails just as it would have locally, rather than the link.</li>
+ *     <li>their {@link ElevatorStatusUpdateEvent statuses} (and every other event) are published to our listeners, so
+ *     the elector keeps working from them as if they were local.</li>
+ *     <li>if the connection is lost, the remote elevators are unregistered (and so never elected).  Connecting again
+ *     (ie, to a standby elector) announces everything afresh.</li>
+ * </ul>
+ * Events received from the other side are never sent back to it.
+ * <p>
+ * Publishers are never blocked by the network: events are queued in a preallocated {@link RingBuffer} and a writer
+ * thread sends them in batches (as many as are waiting, up to {@link #getBatchSize()}, per write).  If the other side
+ * falls behind, TCP's flow control holds up our writer, and once our queue is full, events are dropped (and counted,
+ * see {@link #getDroppedCount()}) rather than holding anyone up.  Records larger than 16KB are not sent.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Builder
+@Slf4j
+public class EventLink {
+    private static final int MAX_RECORD_SIZE = 16 * 1024, BATCH_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * Publishes the events received from the other side.
+     */
+    @NonNull
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Registry our elevators are in (announced to the other side), and theirs are added to.
+     */
+    @NonNull
+    private final ElevatorRegistry registry;
+
+    /**
+     * Types of events sent to the other side (and their subtypes), or empty for every type we can encode.
+     */
+    @Singular("forward")
+    private final Set<Class<?>> forwarded;
+
+    /**
+     * How many events may be waiting to be sent before they are dropped.
+     */
+    @Getter
+    @Builder.Default
+    private final int bufferCapacity = 1 << 14;
+
+    /**
+     * Most events sent in one write.
+     */
+    @Getter
+    @Builder.Default
+    private final int batchSize = 256;
+
+    /**
+     * How long tasking a remote elevator waits for its reply, before giving up on it as unavailable.
+     */
+    @Getter
+    @Builder.Default
+    private final Duration commandTimeout = Duration.ofSeconds(2);
+
+    private final LongAdder sent = new LongAdder(), received = new LongAdder(), dropped = new LongAdder();
+    private final Set<UUID> receivedIds = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, RemoteElevator> remoteElevators = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<ElevatorMoveReply.Result>> awaitingReply = new ConcurrentHashMap<>();
+    private volatile RingBuffer<Slot> outbound;
+    private volatile Socket socket;
+    private volatile Thread reader, writer;
+
+    /**
+     * Wait for the other side to connect to us (on the calling thread), then start exchanging events with it.
+     */
+    public void accept(ServerSocket server) throws IOException {
+        start(server.accept());
+    }
+
+    /**
+     * Connect to the other side, then start exchanging events with it.
+     */
+    public void connect(String host, int port) throws IOException {
+        Socket socket = new Socket();
+        socket.connect(new InetSocketAddress(host, port));
+        start(socket);
+    }
+
+    /**
+     * Start exchanging events over a connected socket.
+     */
+    public synchronized void start(Socket socket) throws IOException {
+        if (this.socket != null) throw new IllegalStateException("Already connected to: " + this.socket.getRemoteSocketAddress());
+        socket.setTcpNoDelay(true); // we do our own batching
+        outbound = new RingBuffer<>(bufferCapacity, Slot::new);
+        this.socket = socket;
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        OutputStream out = socket.getOutputStream();
+        reader = new Thread(() -> readRecords(in), "event-link-reader");
+        writer = new Thread(() -> writeBatches(out), "event-link-writer");
+        reader.setDaemon(true);
+        writer.setDaemon(true);
+        reader.start();
+        writer.start();
+
+        announceElevators();
+        log.info("Linked events with: " + socket.getRemoteSocketAddress());
+    }
+
+    /**
+     * Disconnect from the other side, forgetting its elevators.
+     */
+    public void close() {
+        Socket closing;
+        synchronized (this) {
+            closing = socket;
+            socket = null;
+        }
+        if (closing == null) return;
+
+        try {
+            closing.close();
+        } catch (IOException e) {
+            log.debug("Failed to close link", e);
+        }
+        remoteElevators.keySet().forEach(registry::unregister);
+        remoteElevators.clear();
+        awaitingReply.values().forEach(reply -> reply.completeExceptionally(new IOException("Link closed")));
+        receivedIds.clear();
+        log.info("Unlinked events from: " + closing.getRemoteSocketAddress());
+    }
+
+    public boolean isConnected() {
+        return socket != null;
+    }
+
+    /**
+     * Send our events to the other side (unless they came from there).
+     */
+    @EventListener
+    public void onEvent(Identifiable<?> event) {
+        if (receivedIds.remove(event.getId())) return; // it came from them
+        if (aboutRemoteElevator(event) || !forwards(event)) return;
+        send(event);
+    }
+
+    /**
+     * @return how many events were not sent, because the other side could not keep up.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public long getSentCount() {
+        return sent.sum();
+    }
+
+    public long getReceivedCount() {
+        return received.sum();
+    }
+
+    private boolean forwards(Object event) {
+        if (!EventCodec.supports(event)) return false;
+        if (forwarded.isEmpty()) return true;
+        for (Class<?> type : forwarded) {
+            if (type.isInstance(event)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return whether the event is about one of the other side's elevators (which they already know about).
+     */
+    private boolean aboutRemoteElevator(Object event) {
+        ElevatorDescriptor elevator = null;
+        if (event instanceof ElevatorOperationEvent) elevator = ((ElevatorOperationEvent) event).getElevator();
+        else if (event instanceof ElevatorStatusUpdateEvent) elevator = ((ElevatorStatusUpdateEvent) event).getStatusUpdate().getDescriptor();
+        else if (event instanceof ElevatorRegisteredEvent) elevator = ((ElevatorRegisteredEvent) event).getElevator();
+        else if (event instanceof ElevatorUnregisteredEvent) elevator = ((ElevatorUnregisteredEvent) event).getElevator();
+        return elevator != null && remoteElevators.containsKey(elevator.getId());
+    }
+
+    /**
+     * Tell the other side about our elevators, and where they are.
+     */
+    private void announceElevators() {
+        for (Elevator elevator : registry.getElevators()) {
+            if (elevator instanceof RemoteElevator) continue;
+            send(ElevatorRegisteredEvent.forElevator(elevator.describe()));
+            if (elevator instanceof BasicElevator) {
+                ((BasicElevator) elevator).publishCurrentStatus();
+            }
+        }
+    }
+
+    /**
+     * @return whether the event was queued to be sent.
+     */
+    private boolean send(Object event) {
+        if (socket == null) return false; // nobody to send to
+        RingBuffer<Slot> outbound = this.outbound;
+        long sequence = outbound.claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return false;
+        }
+        outbound.get(sequence).event = event;
+        outbound.publish(sequence);
+        return true;
+    }
+
+    private void writeBatches(OutputStream out) {
+        EventCodec codec = new EventCodec();
+        ByteBuffer batch = ByteBuffer.allocate(BATCH_BUFFER_SIZE);
+        Consumer<Slot> encoder = slot -> {
+            try {
+                codec.encode(slot.event, 0, batch);
+            } catch (BufferOverflowException | IllegalArgumentException e) {
+                dropped.increment();
+                log.warn("Failed to send event {}", slot.event, e);
+            } finally {
+                slot.event = null;
+            }
+        };
+        try {
+            while (socket != null) {
+                batch.clear();
+                int drained = 0;
+                while (drained < batchSize && batch.remaining() >= MAX_RECORD_SIZE && outbound.drain(encoder, 1) == 1) {
+                    ++drained;
+                }
+
+                if (batch.position() > 0) {
+                    out.write(batch.array(), 0, batch.position());
+                    out.flush();
+                    sent.add(drained);
+                } else {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                }
+            }
+        } catch (IOException e) {
+            if (socket != null) log.warn("Lost link while sending", e);
+            close();
+        }
+    }
+
+    private void readRecords(DataInputStream in) {
+        EventCodec codec = new EventCodec();
+        byte[] record = new byte[MAX_RECORD_SIZE];
+        try {
+            while (socket != null) {
+                int length = in.readInt();
+                if (length < EventCodec.HEADER_SIZE || length > record.length) throw new IOException("Bad record length: " + length);
+                ByteBuffer.wrap(record).putInt(length);
+                in.readFully(record, 4, length - 4);
+                EventCodec.Entry entry = codec.decode(ByteBuffer.wrap(record, 0, length));
+                received.increment();
+                dispatch(entry.getEvent());
+            }
+        } catch (EOFException e) {
+            log.info("Link closed by the other side");
+            close();
+        } catch (IOException | RuntimeException e) {
+            if (socket != null) log.warn("Lost link while receiving", e);
+            close();
+        }
+    }
+
+    private void dispatch(Object event) {
+        if (event instanceof ElevatorRegisteredEvent) {
+            ElevatorDescriptor elevator = ((ElevatorRegisteredEvent) event).getElevator();
+            Optional<Elevator> local = registry.lookup(elevator.getId());
+            if (!local.isPresent()) {
+                RemoteElevator remote = new RemoteElevator(elevator);
+                remoteElevators.put(elevator.getId(), remote);
+                registry.register(remote);
+            } else if (!(local.get() instanceof RemoteElevator)) {
+                log.warn("Remote elevator " + elevator + " has the same id as one of ours, so it is ignored (and both sides"
+                        + " may answer the same calls).  Run the elevators on one side only.");
+            }
+        } else if (event instanceof ElevatorUnregisteredEvent) {
+            UUID id = ((ElevatorUnregisteredEvent) event).getElevator().getId();
+            if (remoteElevators.remove(id) != null) {
+                registry.unregister(id);
+            }
+        } else if (event instanceof ElevatorMoveCommand) {
+            ElevatorMoveCommand command = (ElevatorMoveCommand) event;
+            send(ElevatorMoveReply.to(command, move(command)));
+        } else if (event instanceof ElevatorMoveReply) {
+            ElevatorMoveReply reply = (ElevatorMoveReply) event;
+            CompletableFuture<ElevatorMoveReply.Result> waiting = awaitingReply.remove(reply.getCommandId());
+            if (waiting != null) waiting.complete(reply.getResult());
+        } else {
+            if (forwards(event)) {
+                receivedIds.add((UUID) ((Identifiable<?>) event).getId()); // so we don't send it back
+            }
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    /**
+     * Task one of our elevators, as the other side commanded.  Whatever goes wrong is answered (rather than closing
+     * the link), so the other side can answer the call it was moving the elevator for.
+     */
+    private ElevatorMoveReply.Result move(ElevatorMoveCommand command) {
+        Optional<Elevator> elevator = registry.lookup(command.getElevator().getId()).filter(e -> !(e instanceof RemoteElevator));
+        if (!elevator.isPresent()) return ElevatorMoveReply.Result.UNAVAILABLE;
+        try {
+            elevator.get().moveToFloor(command.getFloor());
+            return ElevatorMoveReply.Result.MOVING;
+        } catch (ElevatorUnavailableException unavailable) {
+            return ElevatorMoveReply.Result.UNAVAILABLE;
+        } catch (InvalidElevatorRequestException invalid) {
+            log.warn("Remote request for an invalid floor: " + command, invalid);
+            return ElevatorMoveReply.Result.INVALID;
+        } catch (RuntimeException e) {
+            log.warn("Failed remote request: " + command, e);
+            return ElevatorMoveReply.Result.FAILED;
+        }
+    }
+
+    /**
+     * An elevator on the other side of the link, tasked by sending it {@link ElevatorMoveCommand commands}.
+     */
+    private class RemoteElevator implements Elevator {
+        private final ElevatorDescriptor descriptor;
+
+        private RemoteElevator(ElevatorDescriptor descriptor) {
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public ElevatorDescriptor describe() {
+            return descriptor;
+        }
+
+        /**
+         * Send the elevator a command, and wait for its reply.
+         *
+         * @throws ElevatorUnavailableException if the elevator turned the stop down, or didn't answer in time.
+         * @throws InvalidElevatorRequestException if the elevator can't go to the floor.
+         */
+        @Override
+        public void moveToFloor(int floor) {
+            ElevatorMoveCommand command = new ElevatorMoveCommand(descriptor, floor);
+            if (Thread.currentThread() == reader) {
+                send(command); // the reply would only be read by us, so we can't wait for it
+                return;
+            }
+
+            CompletableFuture<ElevatorMoveReply.Result> reply = new CompletableFuture<>();
+            awaitingReply.put(command.getId(), reply);
+            try {
+                if (!send(command)) throw new ElevatorUnavailableException("Couldn't send to remote elevator " + descriptor + " (the link is down, or behind).");
+                switch (reply.get(commandTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                    case MOVING:
+                        return;
+                    case UNAVAILABLE:
+                        throw new ElevatorUnavailableException("Remote elevator " + descriptor + " turned down a stop at floor " + floor + ".");
+                    case INVALID:
+                        throw new InvalidElevatorRequestException("Remote elevator " + descriptor + " can't go to floor " + floor + ".");
+                    default:
+                        throw new IllegalStateException("Remote elevator " + descriptor + " failed to take a stop at floor " + floor + ".");
+                }
+            } catch (TimeoutException e) {
+                throw new ElevatorUnavailableException("Remote elevator " + descriptor + " didn't answer within " + commandTimeout + ".", e);
+            } catch (ExecutionException e) {
+                throw new ElevatorUnavailableException("Lost remote elevator " + descriptor + ".", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ElevatorUnavailableException("Interrupted waiting for remote elevator " + descriptor + ".", e);
+            } finally {
+                awaitingReply.remove(command.getId());
+            }
+        }
+    }
+
+    /**
+     * A slot in our outbound ring, reused for one event after another.
+     */
+    private static class Slot {
+        private Object event;
+    }
+}
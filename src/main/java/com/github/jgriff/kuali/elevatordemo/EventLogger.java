@@ -5,57 +5,171 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Simple listener that emits our events to the logger so we can see them during the
  * demo run.
- * 
+ * <p>
+ * Listeners only copy the fields worth logging (event, timestamp, elevator, floor, and a detail or two) into a
+ * preallocated {@link RingBuffer} slot, and a background thread writes them out in batches as structured
+ * {@code key=value} lines.  No strings are built on the publisher's thread, and nothing at all is done (or allocated)
+ * for events while INFO logging is off.  If the writer falls behind and the ring fills up, events are dropped rather
+ * than holding anyone up (see {@link #getDroppedCount()}).
+ *
  * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
  * @since 0.0.0
  */
 @Component
 @Slf4j
 public class EventLogger {
+    private static final int CAPACITY = 8192, BATCH = 256;
+
+    private final RingBuffer<Entry> entries = new RingBuffer<>(CAPACITY, Entry::new);
+    private final LongAdder dropped = new LongAdder();
+    private volatile boolean running;
+    private Thread writer;
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        writer = new Thread(this::writeEntries, "event-logger");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stop the writer, once it has written whatever is already queued.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+            writer = null;
+        }
+    }
 
     @EventListener
     public void onElevatorConfirmEvent(ElevatorConfirmEvent e) {
-        log.info("Request confirmation received for elevator to go to floor '" + 
-                e.getConfirmationOf().getRequestFloor() + "': " + e.getResult());
+        ElevatorDescriptor elevator = e.getElevator();
+        append(Kind.CONFIRM, elevator == null ? null : elevator.getName(), e.getConfirmationOf().getRequestFloor(), e.getResult(), null);
     }
-    
+
     @EventListener
     public void onElevatorMovingEvent(ElevatorMovingEvent e) {
-        log.info("Elevator '" + e.getElevator().getName() + "' is moving '" + 
-                e.getDirection() + "' (next floor is '" + e.getNextFloor() + "')...");
+        append(Kind.MOVING, e.getElevator().getName(), e.getNextFloor(), e.getDirection(), null);
     }
-    
+
     @EventListener
     public void onElevatorFloorPassEvent(ElevatorFloorPassEvent e) {
-        log.info("Elevator '" + e.getElevator().getName() + "' is passing floor '" + 
-                e.getFloor() + "'...");
+        append(Kind.PASS, e.getElevator().getName(), e.getFloor(), null, null);
     }
-    
+
     @EventListener
     public void onElevatorFloorStopEvent(ElevatorFloorStopEvent e) {
-        log.info("Elevator '" + e.getElevator().getName() + "' has stopped at floor '" + 
-                e.getFloor() + "'...");
+        append(Kind.STOP, e.getElevator().getName(), e.getFloor(), null, null);
     }
-    
+
     @EventListener
     public void onElevatorDoorOpenEvent(ElevatorDoorOpenEvent e) {
-        log.info("Elevator '" + e.getElevator().getName() + "' opened its doors at floor '" + 
-                e.getFloor() + "'...");
+        append(Kind.DOOR_OPEN, e.getElevator().getName(), e.getFloor(), null, null);
     }
-    
+
     @EventListener
     public void onElevatorDoorCloseEvent(ElevatorDoorCloseEvent e) {
-        log.info("Elevator '" + e.getElevator().getName() + "' closed its doors at floor '" + 
-                e.getFloor() + "'...");
+        append(Kind.DOOR_CLOSE, e.getElevator().getName(), e.getFloor(), null, null);
     }
-    
+
     @EventListener
     public void onElevatorDiagnosticUpdateEvent(ElevatorDiagnosticUpdateEvent e) {
         ElevatorDiagnostic d = e.getDiagnosticUpdate();
-        log.info("Diagnostics for elevator '" + d.getDescriptor().getName() + "' received: " +
-            "Total floors passed=" + d.getFloorsPassed() + ", Total trips=" + d.getTripsMade());
+        append(Kind.DIAGNOSTIC, d.getDescriptor().getName(), Entry.NO_FLOOR, d.getFloorsPassed(), d.getTripsMade());
+    }
+
+    /**
+     * @return how many events were not logged, because the writer could not keep up.
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void append(Kind kind, String elevator, int floor, Object detail, Object moreDetail) {
+        if (!log.isInfoEnabled()) return;
+
+        long sequence = entries.claim();
+        if (sequence < 0) {
+            dropped.increment();
+            return;
+        }
+        Entry entry = entries.get(sequence);
+        entry.kind = kind;
+        entry.timestamp = System.currentTimeMillis();
+        entry.elevator = elevator;
+        entry.floor = floor;
+        entry.detail = detail;
+        entry.moreDetail = moreDetail;
+        entries.publish(sequence);
+    }
+
+    private void writeEntries() {
+        while (running || entries.size() > 0) {
+            if (entries.drain(this::write, BATCH) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            log.info(entry.kind.template, entry.timestamp, entry.elevator, entry.floor == Entry.NO_FLOOR ? null : entry.floor, entry.detail, entry.moreDetail);
+        } finally {
+            entry.clear(); // don't hold on to anything until the slot is reused
+        }
+    }
+
+    /**
+     * The kinds of events we log, and how each is written.  Every template takes the same arguments: timestamp,
+     * elevator, floor, detail and more detail (unused ones are left off the end).
+     */
+    private enum Kind {
+        CONFIRM("event=confirm ts={} elevator={} floor={} result={}"),
+        MOVING("event=moving ts={} elevator={} nextFloor={} direction={}"),
+        PASS("event=pass ts={} elevator={} floor={}"),
+        STOP("event=stop ts={} elevator={} floor={}"),
+        DOOR_OPEN("event=door_open ts={} elevator={} floor={}"),
+        DOOR_CLOSE("event=door_close ts={} elevator={} floor={}"),
+        DIAGNOSTIC("event=diagnostic ts={} elevator={} floor={} floorsPassed={} trips={}");
+
+        private final String template;
+
+        Kind(String template) {
+            this.template = template;
+        }
+    }
+
+    /**
+     * A slot in our ring, reused for one event after another.
+     */
+    private static class Entry {
+        private static final int NO_FLOOR = Integer.MIN_VALUE;
+
+        private Kind kind;
+        private long timestamp;
+        private String elevator;
+        private int floor;
+        private Object detail, moreDetail;
+
+        private void clear() {
+            kind = null;
+            elevator = null;
+            detail = moreDetail = null;
+        }
     }
 }
@@ -17,7 +17,8 @@ public interface Floor {
     /**
      * Initiates a request for an elevator to visit this floor and go UP.
      * 
-     * @return a {@link Mono} that will signal the confirmation event once an elevator has been elected to answer our request.
+     * @return a {@link Mono} that will signal the confirmation event once an elevator has been elected to answer our request
+     * (or it is known that none can).  Cancelling a subscription to it before it signals abandons the request.
      * @throws InvalidElevatorRequestException raised if this floor cannot make a request to go UP (ie, from the top floor).
      * @since 0.0.0
      */
@@ -27,9 +28,23 @@ public interface Floor {
      * Initiates a request for an elevator to visit this floor and go DOWN.  
      *     
      * 
-     * @return a {@link Mono} that will signal the confirmation event once an elevator has been elected to answer our request.
+     * @return a {@link Mono} that will signal the confirmation event once an elevator has been elected to answer our request
+     * (or it is known that none can).  Cancelling a subscription to it before it signals abandons the request.
      * @throws InvalidElevatorRequestException raised if this floor cannot make a request to go DOWN (ie, from the first floor).
      * @since 0.0.0
      */
     Mono<ElevatorConfirmEvent> requestDown() throws InvalidElevatorRequestException;
-}
\ No newline at end of file
+
+    /**
+     * Initiates a request for an elevator to visit this floor and take a passenger to a destination floor (destination
+     * dispatch).  Passengers headed to the same or nearby floors are grouped into the same car where possible.
+     * 
+     * @param destination the floor the passenger is going to.
+     * @return a {@link Mono} that will signal the confirmation event once an elevator has been elected to answer our request
+     * (or it is known that none can).  When successful, the confirmation says which elevator to board.  Cancelling a
+     * subscription to it before it signals abandons the request.
+     * @throws InvalidElevatorRequestException raised if the destination is this floor, or beyond the top or first floor.
+     * @since 0.0.1
+     */
+    Mono<ElevatorConfirmEvent> requestTo(int destination) throws InvalidElevatorRequestException;
+}
@@ -0,0 +1,144 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+/**
+ * The floors an elevator is scheduled to stop at, kept as a bitmap (one bit per floor the elevator serves).  Floors can
+ * be added, tested and cleared lock-free from any thread, and walked in either direction from any floor, which is how
+ * an elevator finds its next stop going UP or DOWN.
+ * <p>
+ * Each floor is either scheduled or not, so asking for a floor that is already scheduled is a no-op, and once a stop
+ * has been served (cleared) the floor can be scheduled again.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class FloorStops {
+    /**
+     * Returned by the directional lookups when there is no such stop.
+     */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private final int firstFloor, topFloor;
+    private final AtomicLongArray words;
+
+    public FloorStops(int firstFloor, int topFloor) {
+        if (topFloor < firstFloor) throw new IllegalArgumentException("Top floor (" + topFloor + ") is below the first floor (" + firstFloor + ").");
+        this.firstFloor = firstFloor;
+        this.topFloor = topFloor;
+        this.words = new AtomicLongArray(((topFloor - firstFloor) >>> 6) + 1);
+    }
+
+    /**
+     * @return {@code true} if the floor was added, or {@code false} if it was already scheduled.
+     */
+    public boolean add(int floor) {
+        int bit = bitOf(floor);
+        long mask = 1L << bit;
+        int word = bit >>> 6;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) != 0) return false;
+        } while (!words.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    /**
+     * @return {@code true} if the floor was scheduled (and now is not), or {@code false} if it wasn't scheduled.
+     */
+    public boolean clear(int floor) {
+        if (floor < firstFloor || floor > topFloor) return false;
+        int bit = floor - firstFloor;
+        long mask = 1L << bit;
+        int word = bit >>> 6;
+        long current;
+        do {
+            current = words.get(word);
+            if ((current & mask) == 0) return false;
+        } while (!words.compareAndSet(word, current, current & ~mask));
+        return true;
+    }
+
+    public boolean contains(int floor) {
+        if (floor < firstFloor || floor > topFloor) return false;
+        int bit = floor - firstFloor;
+        return (words.get(bit >>> 6) & (1L << bit)) != 0;
+    }
+
+    public boolean isEmpty() {
+        for (int i = 0; i < words.length(); i++) {
+            if (words.get(i) != 0) return false;
+        }
+        return true;
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < words.length(); i++) {
+            size += Long.bitCount(words.get(i));
+        }
+        return size;
+    }
+
+    /**
+     * @return the lowest scheduled floor at or above the given floor, or {@link #NONE}.
+     */
+    public int nextAtOrAbove(int floor) {
+        if (floor > topFloor) return NONE;
+        int bit = Math.max(floor, firstFloor) - firstFloor;
+        int word = bit >>> 6;
+        long bits = words.get(word) & (-1L << bit);
+        while (true) {
+            if (bits != 0) return firstFloor + (word << 6) + Long.numberOfTrailingZeros(bits);
+            if (++word == words.length()) return NONE;
+            bits = words.get(word);
+        }
+    }
+
+    /**
+     * @return the highest scheduled floor at or below the given floor, or {@link #NONE}.
+     */
+    public int nextAtOrBelow(int floor) {
+        if (floor < firstFloor) return NONE;
+        int bit = Math.min(floor, topFloor) - firstFloor;
+        int word = bit >>> 6;
+        long bits = words.get(word) & (-1L >>> (63 - (bit & 63)));
+        while (true) {
+            if (bits != 0) return firstFloor + (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+            if (word-- == 0) return NONE;
+            bits = words.get(word);
+        }
+    }
+
+    /**
+     * Visit each scheduled floor, lowest first.
+     */
+    public void forEach(IntConsumer action) {
+        for (int floor = nextAtOrAbove(firstFloor); floor != NONE; floor = nextAtOrAbove(floor + 1)) {
+            action.accept(floor);
+        }
+    }
+
+    /**
+     * @return (a copy of) the scheduled floors, lowest first.
+     */
+    public List<Integer> toList() {
+        List<Integer> floors = new ArrayList<>();
+        forEach(floors::add);
+        return floors;
+    }
+
+    private int bitOf(int floor) {
+        if (floor < firstFloor || floor > topFloor) throw new InvalidElevatorRequestException("Floor '" + floor + "' is not between floors " + firstFloor + " and " + topFloor + ".");
+        return floor - firstFloor;
+    }
+
+    @Override
+    public String toString() {
+        return toList().toString();
+    }
+}
@@ -0,0 +1,269 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.context.event.EventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long passengers wait, by following each request through the events it leads to:
+ * <ul>
+ *     <li><b>confirmation latency</b>, from a request to its {@link ElevatorConfirmEvent confirmation}.</li>
+ *     <li><b>wait time</b>, from a request until the elevator confirmed to be on its way stops at the requesting
+ *     floor.</li>
+ *     <li><b>journey time</b>, for destination requests, from the request until the elevator stops at the
+ *     destination.</li>
+ *     <li><b>dwell time</b>, from an elevator opening its doors to closing them.</li>
+ * </ul>
+ * Each is kept in a {@link LatencyHistogram}: overall, and by floor (confirmation and wait) or by elevator (wait,
+ * journey and dwell).
+ * <p>
+ * A request stops being followed once it is answered with no elevator (including when the
+ * {@link ElevatorConfirmationRouter} gives up waiting on a confirmation), or once the elevator answering it is
+ * unregistered.
+ * <p>
+ * Times are taken from the {@link SimulationClock} as the events are received.  The {@code ...At} methods record an
+ * event with an explicit time instead, for replaying events (or testing).
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Builder
+public class HallCallMetrics {
+    /**
+     * Clock the events are timed by.
+     */
+    @Getter
+    @Builder.Default
+    private final SimulationClock clock = SimulationClock.realTime();
+
+    @Getter
+    private final LatencyHistogram confirmationLatency = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram journeyTime = new LatencyHistogram();
+    @Getter
+    private final LatencyHistogram dwellTime = new LatencyHistogram();
+
+    private final Map<Integer, LatencyHistogram> confirmationLatencyByFloor = new ConcurrentHashMap<>();
+    private final Map<Integer, LatencyHistogram> waitTimeByFloor = new ConcurrentHashMap<>();
+    private final Map<UUID, LatencyHistogram> waitTimeByElevator = new ConcurrentHashMap<>();
+    private final Map<UUID, LatencyHistogram> journeyTimeByElevator = new ConcurrentHashMap<>();
+    private final Map<UUID, LatencyHistogram> dwellTimeByElevator = new ConcurrentHashMap<>();
+
+    private final Map<UUID, Pending> pendingConfirmation = new ConcurrentHashMap<>();
+    private final Map<Integer, List<Pending>> waitingAtFloor = new ConcurrentHashMap<>();
+    private final Map<Integer, List<Pending>> travellingToFloor = new ConcurrentHashMap<>();
+    private final Map<UUID, Long> doorsOpenedAt = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onElevatorRequest(ElevatorRequestEvent e) {
+        requestedAt(e, now());
+    }
+
+    @EventListener
+    public void onElevatorConfirm(ElevatorConfirmEvent e) {
+        confirmedAt(e, now());
+    }
+
+    @EventListener
+    public void onElevatorFloorStop(ElevatorFloorStopEvent e) {
+        stoppedAt(e, now());
+    }
+
+    @EventListener
+    public void onElevatorUnregistered(ElevatorUnregisteredEvent e) {
+        forget(e.getElevator().getId());
+    }
+
+    @EventListener
+    public void onElevatorDoorOpen(ElevatorDoorOpenEvent e) {
+        doorsOpenedAt(e, now());
+    }
+
+    @EventListener
+    public void onElevatorDoorClose(ElevatorDoorCloseEvent e) {
+        doorsClosedAt(e, now());
+    }
+
+    public void requestedAt(ElevatorRequestEvent request, long nanos) {
+        Pending pending = new Pending(request, nanos);
+        pendingConfirmation.put(request.getId(), pending);
+        waiting(waitingAtFloor, request.getRequestFloor(), pending);
+    }
+
+    public void confirmedAt(ElevatorConfirmEvent confirmation, long nanos) {
+        Pending pending = pendingConfirmation.remove(confirmation.getConfirmationOf().getId());
+        if (pending == null) return; // we never saw the request
+
+        long latency = nanos - pending.requestedAt;
+        confirmationLatency.record(latency);
+        histogram(confirmationLatencyByFloor, pending.request.getRequestFloor()).record(latency);
+
+        if (confirmation.getResult() != ElevatorConfirmEvent.Result.SUCCESS || confirmation.getElevator() == null) {
+            // nobody is coming (or we can't tell who), so there is no wait to measure
+            remove(waitingAtFloor, pending.request.getRequestFloor(), pending);
+        } else {
+            pending.elevator = confirmation.getElevator().getId();
+        }
+    }
+
+    public void stoppedAt(ElevatorFloorStopEvent stop, long nanos) {
+        UUID elevator = stop.getElevator().getId();
+        for (Pending arrived : arrived(waitingAtFloor, stop.getFloor(), elevator)) {
+            long wait = nanos - arrived.requestedAt;
+            waitTime.record(wait);
+            histogram(waitTimeByFloor, stop.getFloor()).record(wait);
+            histogram(waitTimeByElevator, elevator).record(wait);
+            pendingConfirmation.remove(arrived.request.getId());
+
+            if (arrived.request instanceof ElevatorDestinationRequestEvent) {
+                arrived.elevator = elevator; // they're on board
+                waiting(travellingToFloor, ((ElevatorDestinationRequestEvent) arrived.request).getDestinationFloor(), arrived);
+            }
+        }
+        for (Pending arrived : arrived(travellingToFloor, stop.getFloor(), elevator)) {
+            long journey = nanos - arrived.requestedAt;
+            journeyTime.record(journey);
+            histogram(journeyTimeByElevator, elevator).record(journey);
+        }
+    }
+
+    /**
+     * Stop following the requests an elevator was answering (ie, once it is taken out of service).
+     */
+    public void forget(UUID elevator) {
+        for (Map<Integer, List<Pending>> floors : Arrays.asList(waitingAtFloor, travellingToFloor)) {
+            for (Integer floor : floors.keySet()) {
+                arrived(floors, floor, elevator).forEach(gone -> pendingConfirmation.remove(gone.request.getId()));
+            }
+        }
+        doorsOpenedAt.remove(elevator);
+    }
+
+    public void doorsOpenedAt(ElevatorDoorOpenEvent open, long nanos) {
+        doorsOpenedAt.put(open.getElevator().getId(), nanos);
+    }
+
+    public void doorsClosedAt(ElevatorDoorCloseEvent close, long nanos) {
+        UUID elevator = close.getElevator().getId();
+        Long openedAt = doorsOpenedAt.remove(elevator);
+        if (openedAt != null) {
+            long dwell = nanos - openedAt;
+            dwellTime.record(dwell);
+            histogram(dwellTimeByElevator, elevator).record(dwell);
+        }
+    }
+
+    /**
+     * @return the confirmation latency of requests made from a floor, if any have been confirmed.
+     */
+    public Optional<LatencyHistogram> confirmationLatencyAtFloor(int floor) {
+        return Optional.ofNullable(confirmationLatencyByFloor.get(floor));
+    }
+
+    /**
+     * @return the wait time of passengers at a floor, if any have been picked up.
+     */
+    public Optional<LatencyHistogram> waitTimeAtFloor(int floor) {
+        return Optional.ofNullable(waitTimeByFloor.get(floor));
+    }
+
+    /**
+     * @return the wait time of passengers picked up by an elevator, if it has picked any up.
+     */
+    public Optional<LatencyHistogram> waitTimeFor(UUID elevator) {
+        return Optional.ofNullable(waitTimeByElevator.get(elevator));
+    }
+
+    /**
+     * @return the journey time of passengers taken to their destination by an elevator, if it has taken any.
+     */
+    public Optional<LatencyHistogram> journeyTimeFor(UUID elevator) {
+        return Optional.ofNullable(journeyTimeByElevator.get(elevator));
+    }
+
+    /**
+     * @return how long an elevator keeps its doors open, if it has opened them.
+     */
+    public Optional<LatencyHistogram> dwellTimeFor(UUID elevator) {
+        return Optional.ofNullable(dwellTimeByElevator.get(elevator));
+    }
+
+    /**
+     * @return how many requests are still being followed (waiting for an elevator, or on board one).
+     */
+    public int getFollowingCount() {
+        int following = 0;
+        for (List<Pending> waiting : waitingAtFloor.values()) following += waiting.size();
+        for (List<Pending> travelling : travellingToFloor.values()) following += travelling.size();
+        return following;
+    }
+
+    private long now() {
+        return getClock().now(TimeUnit.NANOSECONDS);
+    }
+
+    private static <K> LatencyHistogram histogram(Map<K, LatencyHistogram> histograms, K key) {
+        return histograms.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+
+    private static void waiting(Map<Integer, List<Pending>> floors, int floor, Pending pending) {
+        floors.compute(floor, (f, waiting) -> {
+            List<Pending> list = waiting != null ? waiting : new ArrayList<>();
+            list.add(pending);
+            return list;
+        });
+    }
+
+    private static void remove(Map<Integer, List<Pending>> floors, int floor, Pending pending) {
+        floors.computeIfPresent(floor, (f, waiting) -> {
+            waiting.remove(pending);
+            return waiting.isEmpty() ? null : waiting;
+        });
+    }
+
+    /**
+     * @return those waiting at a floor for the elevator (confirmed to be coming for them), who are no longer waiting.
+     * Those still waiting on a confirmation are left waiting.
+     */
+    private static List<Pending> arrived(Map<Integer, List<Pending>> floors, int floor, UUID elevator) {
+        List<Pending> arrived = new ArrayList<>();
+        floors.computeIfPresent(floor, (f, waiting) -> {
+            for (Iterator<Pending> it = waiting.iterator(); it.hasNext(); ) {
+                Pending pending = it.next();
+                if (elevator.equals(pending.elevator)) {
+                    arrived.add(pending);
+                    it.remove();
+                }
+            }
+            return waiting.isEmpty() ? null : waiting;
+        });
+        return arrived;
+    }
+
+    /**
+     * A request being followed, and the elevator answering it (once known).
+     */
+    private static class Pending {
+        private final ElevatorRequestEvent request;
+        private final long requestedAt;
+        private volatile UUID elevator;
+
+        private Pending(ElevatorRequestEvent request, long requestedAt) {
+            this.request = request;
+            this.requestedAt = requestedAt;
+        }
+    }
+}
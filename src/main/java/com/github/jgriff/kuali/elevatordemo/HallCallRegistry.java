@@ -0,0 +1,109 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent.Direction;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The hall calls an {@link ElevatorElector} has sent an elevator to answer, by floor and direction, so a call made
+ * again (ie, someone pressing the button again, or another passenger arriving) before the elevator gets there is
+ * answered with the same elevator, rather than electing (and tasking) one all over again.  A call is answered once
+ * its elevator stops at the floor, and the next call from there is elected afresh.
+ * <p>
+ * Each call is only remembered until a deadline, so one whose stop is never seen (ie, the floor stop event was
+ * lost, or the elevator dropped the stop) is elected afresh once it has waited too long, rather than being coalesced
+ * onto an elevator that is never coming.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+class HallCallRegistry {
+    private final Map<HallCall, Assignment> assigned = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder(), expired = new LongAdder();
+
+    /**
+     * @return the elevator already on its way to answer a call from the floor (in the direction), if any.  Each call
+     * answered this way is counted as {@link #getCoalescedCount() coalesced}.  A call past its deadline (at
+     * {@code now}) is forgotten, and counted as {@link #getExpiredCount() expired}, instead.
+     */
+    Optional<ElevatorDescriptor> coalesce(int floor, Direction direction, long now) {
+        HallCall call = new HallCall(floor, direction);
+        Assignment assignment = assigned.get(call);
+        if (assignment == null) {
+            return Optional.empty();
+        }
+        if (now - assignment.expiresAt >= 0) {
+            if (assigned.remove(call, assignment)) {
+                expired.increment();
+            }
+            return Optional.empty();
+        }
+        coalesced.increment();
+        return Optional.of(assignment.elevator);
+    }
+
+    /**
+     * Record the elevator sent to answer a call from the floor (in the direction), until its deadline.
+     */
+    void assign(int floor, Direction direction, ElevatorDescriptor elevator, long expiresAt) {
+        assigned.put(new HallCall(floor, direction), new Assignment(elevator, expiresAt));
+    }
+
+    /**
+     * Forget a call (ie, its elevator couldn't be sent after all).
+     */
+    void cancel(int floor, Direction direction) {
+        assigned.remove(new HallCall(floor, direction));
+    }
+
+    /**
+     * An elevator stopped at a floor, answering the calls (in either direction) it was sent there for.
+     */
+    void stopped(UUID elevator, int floor) {
+        for (Direction direction : Direction.values()) {
+            assigned.computeIfPresent(new HallCall(floor, direction), (call, a) -> a.elevator.getId().equals(elevator) ? null : a);
+        }
+    }
+
+    /**
+     * Forget every call an elevator was sent to answer (ie, it was taken out of service).
+     */
+    void remove(UUID elevator) {
+        assigned.values().removeIf(a -> a.elevator.getId().equals(elevator));
+    }
+
+    /**
+     * @return how many calls were answered with an elevator already on its way.
+     */
+    long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return how many calls were elected afresh, for their elevator not stopping at the floor before the deadline.
+     */
+    long getExpiredCount() {
+        return expired.sum();
+    }
+
+    int size() {
+        return assigned.size();
+    }
+
+    @Value
+    private static class HallCall {
+        int floor;
+        Direction direction;
+    }
+
+    @Value
+    private static class Assignment {
+        ElevatorDescriptor elevator;
+        long expiresAt;
+    }
+}
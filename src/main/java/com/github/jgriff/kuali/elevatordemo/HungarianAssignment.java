@@ -0,0 +1,85 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import java.util.Arrays;
+
+/**
+ * Solves the assignment problem (the Hungarian method, with potentials): given the cost of each of {@code n} tasks
+ * being done by each of {@code m >= n} workers, finds the assignment of tasks to (distinct) workers with the least
+ * total cost, in {@code O(n^2 m)}.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+final class HungarianAssignment {
+    /**
+     * Stands in for infinite costs, which the potentials can't be computed from.
+     */
+    private static final double IMPOSSIBLE = 1e12;
+
+    private HungarianAssignment() {
+    }
+
+    /**
+     * @param costs cost of each task (row) being done by each worker (column), with at least as many workers as tasks.
+     * @return the worker assigned each task.
+     */
+    static int[] solve(double[][] costs) {
+        int n = costs.length, m = n == 0 ? 0 : costs[0].length;
+        if (m < n) throw new IllegalArgumentException("Cannot assign " + n + " tasks to " + m + " workers.");
+
+        // 1-based, as in the textbook algorithm: worker 0 is a sentinel for the task being added
+        double[] u = new double[n + 1], v = new double[m + 1], minSlack = new double[m + 1];
+        int[] taskOf = new int[m + 1], previous = new int[m + 1];
+        boolean[] visited = new boolean[m + 1];
+        for (int task = 1; task <= n; task++) {
+            taskOf[0] = task;
+            int worker = 0;
+            Arrays.fill(minSlack, Double.POSITIVE_INFINITY);
+            Arrays.fill(visited, false);
+            do {
+                visited[worker] = true;
+                int t = taskOf[worker], next = 0;
+                double delta = Double.POSITIVE_INFINITY;
+                for (int w = 1; w <= m; w++) {
+                    if (visited[w]) continue;
+                    double slack = cost(costs, t - 1, w - 1) - u[t] - v[w];
+                    if (slack < minSlack[w]) {
+                        minSlack[w] = slack;
+                        previous[w] = worker;
+                    }
+                    if (minSlack[w] < delta) {
+                        delta = minSlack[w];
+                        next = w;
+                    }
+                }
+                for (int w = 0; w <= m; w++) {
+                    if (visited[w]) {
+                        u[taskOf[w]] += delta;
+                        v[w] -= delta;
+                    } else {
+                        minSlack[w] -= delta;
+                    }
+                }
+                worker = next;
+            } while (taskOf[worker] != 0);
+
+            // augment along the path found
+            do {
+                int w = previous[worker];
+                taskOf[worker] = taskOf[w];
+                worker = w;
+            } while (worker != 0);
+        }
+
+        int[] assigned = new int[n];
+        for (int w = 1; w <= m; w++) {
+            if (taskOf[w] != 0) assigned[taskOf[w] - 1] = w - 1;
+        }
+        return assigned;
+    }
+
+    private static double cost(double[][] costs, int task, int worker) {
+        double cost = costs[task][worker];
+        return Double.isInfinite(cost) || Double.isNaN(cost) ? IMPOSSIBLE : cost;
+    }
+}
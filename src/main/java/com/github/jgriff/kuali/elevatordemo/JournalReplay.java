@@ -0,0 +1,275 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Singular;
+import lombok.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Re-runs the hall calls of a recorded {@link EventJournal journal} against a fresh set of elevators and
+ * {@link ElevatorElector}, to see how a different dispatch strategy or elevator configuration would have served the
+ * same passengers.  Wait and journey times of the recorded and replayed runs are measured the same way (by
+ * {@link HallCallMetrics}), so they can be compared directly.
+ * <p>
+ * A replay is deterministic, and so reproducible run after run (ie, to regression test a dispatch change):
+ * <ul>
+ *     <li>it runs on a {@link VirtualClock}, driven on the calling thread, so it is as fast as it can be computed and
+ *     never depends on the wall clock or thread scheduling.</li>
+ *     <li>events are delivered synchronously, to each listener in turn, rather than through the (asynchronous)
+ *     event bus.</li>
+ *     <li>the elevators are given fixed ids, so the elector's ties (between elevators equally suited to a call) are
+ *     always broken the same way.</li>
+ * </ul>
+ * Every replayed operation and confirmation (and when it happened) is folded into a {@link Result#getFingerprint()
+ * fingerprint}, which is the same for every replay of the same recording and configuration.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Builder
+@Getter
+public class JournalReplay {
+    /**
+     * The recorded events (ie, {@link EventJournal#read(java.nio.file.Path)}).  Only the hall calls are replayed; the
+     * rest are only measured, for the recorded run's statistics.
+     */
+    @NonNull
+    private final Flux<EventCodec.Entry> recording;
+
+    /**
+     * Creates the elector to replay against (which is then wired to the replayed elevators).
+     */
+    @Builder.Default
+    private final Supplier<ElevatorElector> elector = ElevatorElector::new;
+
+    /**
+     * Configures each replayed elevator (ie, its {@link BasicElevator.Scheduling scheduling} or speed).  Its id, name,
+     * floors, clock and event publisher are set by the replay.
+     */
+    @Builder.Default
+    private final UnaryOperator<BasicElevator.BasicElevatorBuilder> elevatorConfiguration = UnaryOperator.identity();
+
+    /**
+     * Top floor of the building.
+     */
+    @Builder.Default
+    private final int topFloor = 10;
+
+    /**
+     * Floor each replayed elevator starts at (one elevator per floor given).  If none are given, the recorded
+     * elevators are replayed, starting where each was first seen in the recording.
+     */
+    @Singular
+    private final List<Integer> startingFloors;
+
+    /**
+     * Replay the recording.  Every call starts over, with new elevators, a new elector and a new clock.
+     */
+    public Result replay() {
+        List<EventCodec.Entry> entries = recording.collectList().block();
+        HallCallMetrics recorded = measureRecorded(entries);
+
+        VirtualClock clock = new VirtualClock();
+        try {
+            HallCallMetrics replayed = HallCallMetrics.builder().clock(clock).build();
+            Dispatcher dispatcher = new Dispatcher(clock, replayed);
+
+            BasicElevatorRegistry registry = BasicElevatorRegistry.builder().eventPublisher(dispatcher).build();
+            dispatcher.elector = elector.get();
+            dispatcher.elector.setEventPublisher(dispatcher);
+            dispatcher.elector.setRegistry(registry);
+            dispatcher.elector.setClock(clock); // so a batch window is waited out in simulated time, too
+
+            List<Integer> floors = startingFloors.isEmpty() ? recordedStartingFloors(entries) : startingFloors;
+            List<BasicElevator> elevators = new ArrayList<>();
+            for (int i = 0; i < floors.size(); i++) {
+                BasicElevator elevator = elevatorConfiguration.apply(BasicElevator.builder())
+                        .id(new UUID(0, i + 1))
+                        .name("Elevator " + (i + 1))
+                        .topFloor(topFloor)
+                        .currentFloor(floors.get(i))
+                        .clock(clock)
+                        .eventPublisher(dispatcher)
+                        .build();
+                registry.register(elevator);
+                elevators.add(elevator);
+            }
+            elevators.forEach(BasicElevator::publishCurrentStatus);
+
+            int hallCalls = 0;
+            Long origin = null;
+            for (EventCodec.Entry entry : entries) {
+                if (!(entry.getEvent() instanceof ElevatorRequestEvent)) continue;
+                if (origin == null) origin = entry.getTimestamp();
+                Object request = entry.getEvent();
+                long at = entry.getTimestamp() - origin; // keeping the recorded gaps between calls
+                clock.getScheduler().schedule(() -> dispatcher.publishEvent(request), at, TimeUnit.NANOSECONDS);
+                ++hallCalls;
+            }
+            clock.advance();
+
+            return Result.builder()
+                    .hallCalls(hallCalls)
+                    .recorded(recorded)
+                    .replayed(replayed)
+                    .simulatedTime(Duration.ofNanos(clock.now(TimeUnit.NANOSECONDS)))
+                    .fingerprint(dispatcher.fingerprint)
+                    .build();
+        } finally {
+            clock.shutdown();
+        }
+    }
+
+    private static HallCallMetrics measureRecorded(List<EventCodec.Entry> entries) {
+        HallCallMetrics metrics = HallCallMetrics.builder().build();
+        for (EventCodec.Entry entry : entries) {
+            Object event = entry.getEvent();
+            long at = entry.getTimestamp();
+            if (event instanceof ElevatorRequestEvent) metrics.requestedAt((ElevatorRequestEvent) event, at);
+            else if (event instanceof ElevatorConfirmEvent) metrics.confirmedAt((ElevatorConfirmEvent) event, at);
+            else if (event instanceof ElevatorFloorStopEvent) metrics.stoppedAt((ElevatorFloorStopEvent) event, at);
+            else if (event instanceof ElevatorDoorOpenEvent) metrics.doorsOpenedAt((ElevatorDoorOpenEvent) event, at);
+            else if (event instanceof ElevatorDoorCloseEvent) metrics.doorsClosedAt((ElevatorDoorCloseEvent) event, at);
+        }
+        return metrics;
+    }
+
+    /**
+     * @return where each recorded elevator was first seen, in the order they were first seen.
+     */
+    private static List<Integer> recordedStartingFloors(List<EventCodec.Entry> entries) {
+        Map<UUID, Integer> floors = new LinkedHashMap<>();
+        for (EventCodec.Entry entry : entries) {
+            if (entry.getEvent() instanceof ElevatorOperationEvent) {
+                ElevatorOperationEvent event = (ElevatorOperationEvent) entry.getEvent();
+                floors.putIfAbsent(event.getElevator().getId(), floorOf(event));
+            }
+        }
+        return new ArrayList<>(floors.values());
+    }
+
+    private static int floorOf(ElevatorOperationEvent event) {
+        if (event instanceof ElevatorMovingEvent) {
+            ElevatorMovingEvent moving = (ElevatorMovingEvent) event;
+            return moving.getNextFloor() + (moving.getDirection() == ElevatorMovingEvent.Direction.UP ? -1 : 1);
+        }
+        if (event instanceof ElevatorFloorPassEvent) return ((ElevatorFloorPassEvent) event).getFloor();
+        if (event instanceof ElevatorFloorStopEvent) return ((ElevatorFloorStopEvent) event).getFloor();
+        if (event instanceof ElevatorDoorOpenEvent) return ((ElevatorDoorOpenEvent) event).getFloor();
+        return ((ElevatorDoorCloseEvent) event).getFloor();
+    }
+
+    /**
+     * Delivers the replayed events, synchronously, to the listeners taking part in the replay (and folds them into
+     * the fingerprint).
+     */
+    private static class Dispatcher implements ApplicationEventPublisher {
+        private final VirtualClock clock;
+        private final HallCallMetrics metrics;
+        private ElevatorElector elector;
+        private long fingerprint = 17;
+
+        private Dispatcher(VirtualClock clock, HallCallMetrics metrics) {
+            this.clock = clock;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void publishEvent(Object event) {
+            if (event instanceof ElevatorStatusUpdateEvent) {
+                elector.onElevatorStatusUpdate((ElevatorStatusUpdateEvent) event);
+            } else if (event instanceof ElevatorUnregisteredEvent) {
+                elector.onElevatorUnregistered((ElevatorUnregisteredEvent) event);
+            } else if (event instanceof ElevatorRequestEvent) {
+                metrics.onElevatorRequest((ElevatorRequestEvent) event);
+                if (event instanceof ElevatorRequestUpEvent) elector.onElevatorRequestUp((ElevatorRequestUpEvent) event);
+                else if (event instanceof ElevatorRequestDownEvent) elector.onElevatorRequestDown((ElevatorRequestDownEvent) event);
+                else if (event instanceof ElevatorDestinationRequestEvent) elector.onElevatorDestinationRequest((ElevatorDestinationRequestEvent) event);
+            } else if (event instanceof ElevatorConfirmEvent) {
+                ElevatorConfirmEvent confirm = (ElevatorConfirmEvent) event;
+                fold(ElevatorConfirmEvent.class, confirm.getElevator(), confirm.getConfirmationOf().getRequestFloor(), confirm.getResult().ordinal());
+                metrics.onElevatorConfirm(confirm);
+            } else if (event instanceof ElevatorOperationEvent) {
+                ElevatorOperationEvent operation = (ElevatorOperationEvent) event;
+                fold(operation.getClass(), operation.getElevator(), floorOf(operation), 0);
+                if (event instanceof ElevatorFloorStopEvent) {
+                    metrics.onElevatorFloorStop((ElevatorFloorStopEvent) event);
+                    elector.onElevatorFloorStop((ElevatorFloorStopEvent) event);
+                } else if (event instanceof ElevatorDoorOpenEvent) {
+                    metrics.onElevatorDoorOpen((ElevatorDoorOpenEvent) event);
+                } else if (event instanceof ElevatorDoorCloseEvent) {
+                    metrics.onElevatorDoorClose((ElevatorDoorCloseEvent) event);
+                }
+            }
+        }
+
+        private void fold(Class<?> type, ElevatorDescriptor elevator, int floor, int detail) {
+            long hash = fingerprint;
+            hash = 31 * hash + clock.now(TimeUnit.NANOSECONDS);
+            hash = 31 * hash + type.getName().hashCode();
+            hash = 31 * hash + (elevator == null ? 0 : elevator.getId().hashCode());
+            hash = 31 * hash + floor;
+            hash = 31 * hash + detail;
+            fingerprint = hash;
+        }
+    }
+
+    /**
+     * How the recorded and replayed runs served the same hall calls.
+     */
+    @Value
+    @Builder
+    public static class Result {
+        /**
+         * Number of hall calls replayed.
+         */
+        private final int hallCalls;
+        /**
+         * Measurements of the recorded run.
+         */
+        private final HallCallMetrics recorded;
+        /**
+         * Measurements of the replayed run.
+         */
+        private final HallCallMetrics replayed;
+        /**
+         * How long the replay took, in simulated time (until the last elevator came to rest).
+         */
+        private final Duration simulatedTime;
+        /**
+         * Summary of everything that happened in the replay, and when.  Replays that behave the same have the same
+         * fingerprint.
+         */
+        private final long fingerprint;
+
+        public LatencyHistogram.Snapshot getRecordedWaitTime() {
+            return recorded.getWaitTime().snapshot();
+        }
+
+        public LatencyHistogram.Snapshot getReplayedWaitTime() {
+            return replayed.getWaitTime().snapshot();
+        }
+
+        public LatencyHistogram.Snapshot getRecordedJourneyTime() {
+            return recorded.getJourneyTime().snapshot();
+        }
+
+        public LatencyHistogram.Snapshot getReplayedJourneyTime() {
+            return replayed.getJourneyTime().snapshot();
+        }
+    }
+}
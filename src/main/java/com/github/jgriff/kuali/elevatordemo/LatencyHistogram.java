@@ -0,0 +1,132 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies (in nanoseconds), for percentiles without keeping every sample.  Buckets are log-linear: each
+ * power of 2 is split into {@value #SUB_BUCKETS} equal buckets, so any latency (from a nanosecond to centuries) is
+ * counted to within about 3% of its value, in a fixed number of buckets.
+ * <p>
+ * Recording is lock-free and allocates nothing, so it can sit on the hot path of every request.  A
+ * {@link #snapshot() snapshot} may be taken at any time (while recording continues), and is only ever as precise as
+ * the buckets.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = indexOf(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder(), sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record a latency.  Negative latencies (from clocks that were not in step) are counted as zero.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        count.increment();
+        sum.add(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public void record(Duration latency) {
+        record(latency.toNanos());
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * @return the latency at or below which the given fraction of recorded latencies fall (ie, 0.99 for p99), or
+     * zero if nothing has been recorded.
+     */
+    public Duration percentile(double fraction) {
+        long[] snapshot = copyCounts();
+        return Duration.ofNanos(percentile(snapshot, total(snapshot), fraction));
+    }
+
+    /**
+     * @return the percentiles (and count, mean and max) of the latencies recorded so far.
+     */
+    public Snapshot snapshot() {
+        long[] snapshot = copyCounts();
+        long total = total(snapshot);
+        return Snapshot.builder()
+                .count(total)
+                .mean(Duration.ofNanos(total == 0 ? 0 : sum.sum() / total))
+                .p50(Duration.ofNanos(percentile(snapshot, total, 0.50)))
+                .p90(Duration.ofNanos(percentile(snapshot, total, 0.90)))
+                .p99(Duration.ofNanos(percentile(snapshot, total, 0.99)))
+                .max(Duration.ofNanos(max.get()))
+                .build();
+    }
+
+    private long percentile(long[] snapshot, long total, double fraction) {
+        if (total == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(highestValueIn(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private long[] copyCounts() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return snapshot;
+    }
+
+    private static long total(long[] snapshot) {
+        long total = 0;
+        for (long bucket : snapshot) {
+            total += bucket;
+        }
+        return total;
+    }
+
+    private static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    private static long highestValueIn(int index) {
+        if (index < 2 * SUB_BUCKETS) return index;
+        int shift = index / SUB_BUCKETS - 1;
+        long mantissa = index - (long) shift * SUB_BUCKETS;
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    @Override
+    public String toString() {
+        return snapshot().toString();
+    }
+
+    /**
+     * Percentiles of a {@link LatencyHistogram}, at the time it was taken.
+     */
+    @Value
+    @Builder
+    public static class Snapshot {
+        private final long count;
+        private final Duration mean, p50, p90, p99, max;
+    }
+}
@@ -0,0 +1,345 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.context.event.SimpleApplicationEventMulticaster;
+import org.springframework.core.ResolvableType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous event bus for the types in our {@link com.github.jgriff.kuali.elevatordemo.events events} package.  It
+ * is installed as the application context's event multicaster, so producers keep publishing with
+ * {@link org.springframework.context.ApplicationEventPublisher} and consumers keep using
+ * {@link org.springframework.context.event.EventListener}, but producers never wait on consumers.
+ * <p>
+ * Each event type is a topic, whose subscribers are the listeners Spring resolves for it.  Every subscriber gets its
+ * own bounded queue per partition, drained on the bus's thread pool.  Events are partitioned by the elevator they are
+ * about (or by floor for requests and confirmations), so each subscriber sees the events for any one elevator in the
+ * order they were published.
+ * <p>
+ * A published event is queued for its partition's hand-off (which returns straight away), and the hand-off, on a thread
+ * of its own, gives it to each subscriber's queue.  When a subscriber's queue is full, the topic's
+ * {@link Overflow overflow strategy} decides what gives: by default the hand-off {@link Overflow#BLOCK waits} for room
+ * (holding up that partition's later events, but never the producer), and only topics whose events supersede one
+ * another (such as statuses) should be made lossy.  Events are still lost (and counted, see
+ * {@link #getDroppedCount()}) if a subscriber is stuck for longer than the {@link #getBlockTimeout() block timeout}, or
+ * if a partition's hand-off falls {@link #getHandOffCapacity() too far} behind.
+ * <p>
+ * Any other events (such as Spring's own) are still dispatched synchronously.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Slf4j
+@Builder
+public class PartitionedEventBus extends SimpleApplicationEventMulticaster {
+    private static final String TOPIC_PACKAGE = ElevatorOperationEvent.class.getPackage().getName();
+
+    /**
+     * Number of partitions (and so, of queues) per subscriber.
+     */
+    @Getter
+    @Builder.Default
+    private final int partitions = Runtime.getRuntime().availableProcessors();
+    /**
+     * Capacity of each subscriber queue.
+     */
+    @Getter
+    @Builder.Default
+    private final int queueCapacity = 1024;
+    /**
+     * What to do when a subscriber queue is full, unless overridden for the topic.
+     */
+    @Getter
+    @Builder.Default
+    private final Overflow defaultOverflow = Overflow.BLOCK;
+    /**
+     * Longest the hand-off waits for room in a subscriber's queue (when its topic {@link Overflow#BLOCK blocks}), before
+     * that subscriber's copy of the event is dropped.
+     */
+    @Getter
+    @Builder.Default
+    private final Duration blockTimeout = Duration.ofSeconds(5);
+    /**
+     * Events that may be waiting (per partition) to be handed to the subscribers, beyond which they are dropped rather
+     * than holding up the producer.
+     */
+    @Getter
+    @Builder.Default
+    private final int handOffCapacity = 1 << 16;
+    /**
+     * Overflow strategy by topic (applies to the event type and its subtypes).
+     */
+    @Singular("topicOverflow")
+    private final Map<Class<?>, Overflow> topicOverflows;
+    @Builder.Default
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), daemonThreads("event-bus-"));
+    /**
+     * Runs the hand-offs (which may wait on a subscriber, so are kept off the subscribers' pool).
+     */
+    @Builder.Default
+    private final ExecutorService handOffExecutor = Executors.newCachedThreadPool(daemonThreads("event-bus-hand-off-"));
+
+    private final Map<ApplicationListener<?>, Lane[]> lanes = new ConcurrentHashMap<>();
+    private final Map<Integer, HandOff> handOffs = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Overflow> overflowCache = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    @Override
+    public void multicastEvent(ApplicationEvent event, ResolvableType eventType) {
+        Object payload = event instanceof PayloadApplicationEvent ? ((PayloadApplicationEvent<?>) event).getPayload() : event;
+        if (!payload.getClass().getName().startsWith(TOPIC_PACKAGE)) {
+            super.multicastEvent(event, eventType);
+            return;
+        }
+
+        int partition = Math.floorMod(partitionKey(payload).hashCode(), getPartitions());
+        Overflow overflow = overflowFor(payload.getClass());
+        ResolvableType type = eventType != null ? eventType : ResolvableType.forInstance(event);
+        Collection<ApplicationListener<?>> listeners = getApplicationListeners(event, type);
+        if (listeners.isEmpty()) return;
+        HandOff handOff = handOffs.computeIfAbsent(partition, HandOff::new);
+        if (overflow == Overflow.ERROR) {
+            // refuse the event outright, rather than after some subscribers were already given it
+            if (handOff.isFull()) throw new EventBusOverflowException("Subscribers cannot keep up, partition " + partition + " is full.");
+            for (ApplicationListener<?> listener : listeners) {
+                if (lanesOf(listener)[partition].isFull()) {
+                    throw new EventBusOverflowException("Subscriber '" + listener + "' cannot keep up, its queue is full.");
+                }
+            }
+        }
+        handOff.offer(new Delivery(event, listeners, overflow));
+    }
+
+    @Override
+    public void removeApplicationListener(ApplicationListener<?> listener) {
+        super.removeApplicationListener(listener);
+        lanes.remove(listener);
+    }
+
+    /**
+     * @return how many events have been dropped, because a subscriber could not keep up.
+     * @since 0.0.1
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stop delivering events.  Any still queued are discarded.
+     *
+     * @since 0.0.1
+     */
+    public void shutdown() {
+        handOffExecutor.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private Object partitionKey(Object payload) {
+        if (payload instanceof ElevatorOperationEvent) return ((ElevatorOperationEvent) payload).getElevator().getId();
+        if (payload instanceof ElevatorStatusUpdateEvent) return ((ElevatorStatusUpdateEvent) payload).getStatusUpdate().getDescriptor().getId();
+        if (payload instanceof ElevatorDiagnosticUpdateEvent) return ((ElevatorDiagnosticUpdateEvent) payload).getDiagnosticUpdate().getDescriptor().getId();
+        if (payload instanceof ElevatorRegisteredEvent) return ((ElevatorRegisteredEvent) payload).getElevator().getId();
+        if (payload instanceof ElevatorUnregisteredEvent) return ((ElevatorUnregisteredEvent) payload).getElevator().getId();
+        if (payload instanceof ElevatorRequestEvent) return ((ElevatorRequestEvent) payload).getRequestFloor();
+        if (payload instanceof ElevatorConfirmEvent) return ((ElevatorConfirmEvent) payload).getConfirmationOf().getRequestFloor();
+        return payload.getClass();
+    }
+
+    private Overflow overflowFor(Class<?> topic) {
+        return overflowCache.computeIfAbsent(topic, t -> topicOverflows.entrySet().stream()
+                .filter(e -> e.getKey().isAssignableFrom(t))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(getDefaultOverflow()));
+    }
+
+    private Lane[] lanesOf(ApplicationListener<?> listener) {
+        return lanes.computeIfAbsent(listener, l -> {
+            Lane[] partitioned = new Lane[getPartitions()];
+            for (int i = 0; i < partitioned.length; i++) {
+                partitioned[i] = new Lane(l);
+            }
+            return partitioned;
+        });
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threads = new CustomizableThreadFactory(prefix);
+        threads.setDaemon(true);
+        return threads;
+    }
+
+    /**
+     * What to do with an event when a subscriber's queue is full.
+     */
+    public enum Overflow {
+        /**
+         * Hold up the partition's hand-off (never the producer) until there is room, up to the
+         * {@link #getBlockTimeout() block timeout}, after which that subscriber misses the event (and it is counted as
+         * dropped).
+         */
+        BLOCK,
+        /**
+         * Drop the event being published (the subscriber never sees it).
+         */
+        DROP_NEWEST,
+        /**
+         * Drop the oldest event still waiting in the queue, to make room (good for events that supersede earlier ones).
+         */
+        DROP_OLDEST,
+        /**
+         * Raise an {@link EventBusOverflowException} to the producer, without giving the event to any subscriber.
+         * Queues are checked when the event is published, so should one fill up before the event is handed to it, that
+         * subscriber's copy is dropped (and counted) instead.
+         */
+        ERROR
+    }
+
+    /**
+     * An event on its way to the subscribers resolved for it when it was published.
+     */
+    private static final class Delivery {
+        private final ApplicationEvent event;
+        private final Collection<ApplicationListener<?>> listeners;
+        private final Overflow overflow;
+
+        private Delivery(ApplicationEvent event, Collection<ApplicationListener<?>> listeners, Overflow overflow) {
+            this.event = event;
+            this.listeners = listeners;
+            this.overflow = overflow;
+        }
+    }
+
+    /**
+     * Events published to one partition, waiting to be given to their subscribers' queues.  It is drained by at most one
+     * thread at a time, so every subscriber is given the partition's events in the order they were published.
+     */
+    private final class HandOff implements Runnable {
+        private final int partition;
+        private final BlockingQueue<Delivery> queue = new LinkedBlockingQueue<>(getHandOffCapacity());
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private HandOff(int partition) {
+            this.partition = partition;
+        }
+
+        private boolean isFull() {
+            return queue.remainingCapacity() == 0;
+        }
+
+        private void offer(Delivery delivery) {
+            if (!queue.offer(delivery)) {
+                dropped.add(delivery.listeners.size());
+                return;
+            }
+            if (wip.getAndIncrement() == 0) {
+                handOffExecutor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                Delivery delivery;
+                while ((delivery = queue.poll()) != null) {
+                    for (ApplicationListener<?> listener : delivery.listeners) {
+                        lanesOf(listener)[partition].offer(delivery.event, delivery.overflow);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+
+    /**
+     * Queue of events for one subscriber (in one partition).  It is drained by at most one thread at a time, so the
+     * subscriber receives the events in the order they were queued.
+     */
+    private final class Lane implements Runnable {
+        private final ApplicationListener<?> listener;
+        private final BlockingQueue<ApplicationEvent> queue = new ArrayBlockingQueue<>(getQueueCapacity());
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private Lane(ApplicationListener<?> listener) {
+            this.listener = listener;
+        }
+
+        private boolean isFull() {
+            return queue.remainingCapacity() == 0;
+        }
+
+        /**
+         * Queue an event (only ever called by the partition's hand-off).
+         */
+        private void offer(ApplicationEvent event, Overflow overflow) {
+            if (!queue.offer(event)) {
+                switch (overflow) {
+                    case BLOCK:
+                        try {
+                            if (!queue.offer(event, getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                                dropped.increment();
+                                log.warn("Subscriber '" + listener + "' cannot keep up, dropped event: " + event);
+                                return;
+                            }
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt(); // shutting down
+                            dropped.increment();
+                            return;
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        queue.poll();
+                        dropped.increment();
+                        if (!queue.offer(event)) {
+                            dropped.increment();
+                        }
+                        break;
+                    default:
+                        dropped.increment();
+                        return;
+                }
+            }
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            int missed = 1;
+            do {
+                ApplicationEvent event;
+                while ((event = queue.poll()) != null) {
+                    try {
+                        invokeListener(listener, event);
+                    } catch (Throwable t) {
+                        log.error("Subscriber '" + listener + "' failed to handle event: " + event, t);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link SimulationClock} that keeps real (wall-clock) time, so one simulated second takes one real second.  This is
+ * what the demo runs on, so you can watch the elevators in action.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class RealTimeClock implements SimulationClock {
+    static final RealTimeClock INSTANCE = new RealTimeClock();
+
+    @Override
+    public Scheduler getScheduler() {
+        return Schedulers.elastic();
+    }
+}
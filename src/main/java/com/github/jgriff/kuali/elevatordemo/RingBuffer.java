@@ -0,0 +1,106 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, preallocated ring of reusable slots, written by any number of producers and read by a single consumer.
+ * Producers never wait: they {@link #claim() claim} a slot (or find the ring full), fill it in place and
+ * {@link #publish(long) publish} it.  The consumer {@link #drain(Consumer, int) drains} published slots in the order
+ * they were claimed.  Nothing is allocated per entry, since the slots themselves are reused.
+ * <p>
+ * A slot must not be touched once published, and the consumer must copy out anything it needs from a slot before its
+ * handler returns (after which the slot may be reused).
+ *
+ * @param <T> the type of the (mutable) slots.
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class RingBuffer<T> {
+    private final Object[] slots;
+    private final int mask;
+    /**
+     * For each slot, 1 + the sequence last published to it (so 0 means never published).
+     */
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    /**
+     * @param capacity number of slots, rounded up to a power of 2.
+     * @param slotFactory creates each (reusable) slot, up front.
+     */
+    public RingBuffer(int capacity, Supplier<T> slotFactory) {
+        if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("Capacity must be between 1 and 2^30, not: " + capacity);
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.slots = new Object[size];
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = slotFactory.get();
+        }
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * @return the sequence of the slot claimed, or {@code -1} if the ring is full.
+     */
+    public long claim() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) return -1;
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        return sequence;
+    }
+
+    /**
+     * @return the slot for a claimed sequence, to fill in.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(long sequence) {
+        return (T) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Hand a claimed (and filled in) slot to the consumer.
+     */
+    public void publish(long sequence) {
+        published.lazySet((int) sequence & mask, sequence + 1);
+    }
+
+    /**
+     * Consume published slots, in order, until one is not yet published (or the maximum is reached).  Only one thread
+     * may drain at a time.
+     *
+     * @return how many slots were consumed.
+     */
+    @SuppressWarnings("unchecked")
+    public int drain(Consumer<? super T> handler, int max) {
+        long next = consumed;
+        int drained = 0;
+        try {
+            while (drained < max && published.get((int) next & mask) == next + 1) {
+                T slot = (T) slots[(int) next & mask];
+                ++next; // a slot that fails to be handled is still consumed, rather than retried forever
+                ++drained;
+                handler.accept(slot);
+            }
+        } finally {
+            consumed = next;
+        }
+        return drained;
+    }
+
+    /**
+     * @return how many slots are claimed, but not yet consumed.
+     */
+    public int size() {
+        return (int) (claimed.get() - consumed);
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import reactor.core.scheduler.Scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Source of time for the simulation.  Every delay in the simulation (elevators moving between floors, doors staying
+ * open, etc) is scheduled on the clock's {@link #getScheduler() scheduler}, so the same elevators, floors and elector
+ * can run against real (wall-clock) time for a demo, or against {@link VirtualClock virtual time} for capacity
+ * planning runs that need to simulate hours of building traffic in seconds.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ * @see RealTimeClock
+ * @see VirtualClock
+ */
+public interface SimulationClock {
+    /**
+     * @return the scheduler that simulated work (and delays) must be scheduled on, so that it observes this clock's time.
+     * @since 0.0.1
+     */
+    Scheduler getScheduler();
+
+    /**
+     * @param unit the unit to return the current time in.
+     * @return the current time according to this clock.
+     * @since 0.0.1
+     */
+    default long now(TimeUnit unit) {
+        return getScheduler().now(unit);
+    }
+
+    /**
+     * Stop this clock, releasing any resources it holds.  Any work still scheduled on it will not run.
+     *
+     * @since 0.0.1
+     */
+    default void shutdown() {
+    }
+
+    /**
+     * @return a clock that keeps real (wall-clock) time.
+     * @since 0.0.1
+     */
+    static SimulationClock realTime() {
+        return RealTimeClock.INSTANCE;
+    }
+}
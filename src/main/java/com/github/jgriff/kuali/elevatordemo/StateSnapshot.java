@@ -0,0 +1,72 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent;
+import lombok.Builder;
+import lombok.Singular;
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The state of the elevators and the {@link ElevatorElector} at a point in time, as saved (and restored) by the
+ * {@link StateSnapshotStore}, so a restart carries on where it left off.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Value
+@Builder
+public class StateSnapshot {
+    /**
+     * When the snapshot was taken (epoch millis).
+     */
+    private final long takenAt;
+    @Singular
+    private final List<ElevatorState> elevators;
+    private final ElectorState elector;
+
+    /**
+     * Where an elevator is, where it is going and how far it has been.
+     */
+    @Value
+    @Builder
+    public static class ElevatorState {
+        private final UUID id;
+        private final int currentFloor;
+        /**
+         * Direction of travel, or {@code null} if it hasn't moved yet.
+         */
+        private final ElevatorMovingEvent.Direction direction;
+        /**
+         * Floors the elevator is still to stop at (in the order requested, for
+         * {@link BasicElevator.Scheduling#FIFO FIFO} elevators).
+         */
+        @Singular
+        private final List<Integer> stops;
+        private final int floorsPassed, tripsMade;
+    }
+
+    /**
+     * What the elector knows of the elevators, and the passengers it has waiting on them.
+     */
+    @Value
+    @Builder
+    public static class ElectorState {
+        @Singular
+        private final List<ElevatorStatus> statuses;
+        @Singular
+        private final List<Boarding> boardings;
+    }
+
+    /**
+     * A (destination dispatch) passenger waiting at their floor for the elevator they were assigned.
+     */
+    @Value
+    @Builder
+    public static class Boarding {
+        private final UUID elevator;
+        private final int origin, destination;
+        private final ElevatorMovingEvent.Direction direction;
+    }
+}
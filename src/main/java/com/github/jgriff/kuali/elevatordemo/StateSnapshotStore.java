@@ -0,0 +1,260 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically saves a {@link StateSnapshot} of the elevators (their floor, pending stops and diagnostic counters) and
+ * the {@link ElevatorElector electors} of each {@link BankRouter bank} (their latest elevator statuses, and the
+ * passengers waiting to board) to a local file, and restores it on startup, so a restart (ie, a redeploy) doesn't lose
+ * any queued stops.
+ * <p>
+ * The file is a small binary encoding, written to a temporary file first and then moved over the last snapshot, so a
+ * crash mid-save never leaves a half-written snapshot behind.  Elevators are matched up by id, so they need ids that
+ * are the same from one run to the next.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Builder
+@Slf4j
+public class StateSnapshotStore {
+    private static final int MAGIC = 0x454C5653, VERSION = 1;
+
+    /**
+     * File the snapshot is saved to.
+     */
+    @Getter
+    @NonNull
+    private final Path file;
+
+    /**
+     * How often a snapshot is taken.
+     */
+    @Getter
+    @Builder.Default
+    private final Duration interval = Duration.ofSeconds(5);
+
+    /**
+     * Clock the snapshots are scheduled on.
+     */
+    @Getter
+    @Builder.Default
+    private final SimulationClock clock = SimulationClock.realTime();
+
+    @Getter
+    @NonNull
+    private final ElevatorRegistry registry;
+    @Getter
+    @NonNull
+    private final BankRouter banks;
+
+    private Disposable saving;
+
+    /**
+     * Start saving a snapshot every {@link #interval}.
+     */
+    public synchronized void start() {
+        if (saving == null) {
+            long period = interval.toNanos();
+            saving = clock.getScheduler().schedulePeriodically(this::saveQuietly, period, period, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Stop saving snapshots, saving one last one of where we stopped.
+     */
+    public synchronized void stop() {
+        if (saving != null) {
+            saving.dispose();
+            saving = null;
+            saveQuietly();
+        }
+    }
+
+    /**
+     * @return the current state of the elevators and electors.
+     */
+    public StateSnapshot take() {
+        StateSnapshot.StateSnapshotBuilder snapshot = StateSnapshot.builder().takenAt(System.currentTimeMillis());
+        registry.getElevators().stream()
+                .filter(e -> e instanceof BasicElevator)
+                .forEach(e -> snapshot.elevator(((BasicElevator) e).snapshot()));
+        return snapshot.elector(banks.snapshot()).build();
+    }
+
+    public void save() throws IOException {
+        write(take(), file);
+    }
+
+    /**
+     * Restore the elevators and electors from the last snapshot saved (if there is one).  Elevators that are no longer
+     * registered are skipped.
+     *
+     * @return whether there was a snapshot to restore.
+     */
+    public boolean restore() throws IOException {
+        Optional<StateSnapshot> snapshot = read(file);
+        snapshot.ifPresent(s -> {
+            s.getElevators().forEach(state -> registry.lookup(state.getId())
+                    .filter(e -> e instanceof BasicElevator)
+                    .ifPresent(e -> ((BasicElevator) e).restore(state)));
+            banks.restore(s.getElector());
+            log.info("Restored " + s.getElevators().size() + " elevators from snapshot taken at " + s.getTakenAt() + ".");
+        });
+        return snapshot.isPresent();
+    }
+
+    private void saveQuietly() {
+        try {
+            save();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to save a snapshot to: " + file, e);
+        }
+    }
+
+    /**
+     * Write a snapshot to a file (replacing whatever was there).
+     */
+    public static void write(StateSnapshot snapshot, Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(snapshot.getTakenAt());
+
+                out.writeInt(snapshot.getElevators().size());
+                for (StateSnapshot.ElevatorState e : snapshot.getElevators()) {
+                    writeId(e.getId(), out);
+                    out.writeInt(e.getCurrentFloor());
+                    writeDirection(e.getDirection(), out);
+                    writeFloors(e.getStops(), out);
+                    out.writeInt(e.getFloorsPassed());
+                    out.writeInt(e.getTripsMade());
+                }
+
+                StateSnapshot.ElectorState elector = snapshot.getElector();
+                out.writeInt(elector.getStatuses().size());
+                for (ElevatorStatus s : elector.getStatuses()) {
+                    writeId(s.getDescriptor().getId(), out);
+                    out.writeUTF(s.getDescriptor().getName() != null ? s.getDescriptor().getName() : "");
+                    out.writeByte(s.getOperationalState().ordinal());
+                    out.writeInt(s.getCurrentFloor() != null ? s.getCurrentFloor() : FloorStops.NONE);
+                    writeDirection(s.getDirection(), out);
+                    writeFloors(s.getFutureStops() != null ? s.getFutureStops() : new ArrayList<>(), out);
+                }
+                out.writeInt(elector.getBoardings().size());
+                for (StateSnapshot.Boarding b : elector.getBoardings()) {
+                    writeId(b.getElevator(), out);
+                    out.writeInt(b.getOrigin());
+                    out.writeInt(b.getDestination());
+                    writeDirection(b.getDirection(), out);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return the snapshot saved to a file, or empty if there is none.
+     */
+    public static Optional<StateSnapshot> read(Path file) throws IOException {
+        if (!Files.exists(file)) return Optional.empty();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a snapshot: " + file);
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("Unsupported snapshot version '" + version + "': " + file);
+
+            StateSnapshot.StateSnapshotBuilder snapshot = StateSnapshot.builder().takenAt(in.readLong());
+            for (int i = in.readInt(); i > 0; i--) {
+                snapshot.elevator(StateSnapshot.ElevatorState.builder()
+                        .id(readId(in))
+                        .currentFloor(in.readInt())
+                        .direction(readDirection(in))
+                        .stops(readFloors(in))
+                        .floorsPassed(in.readInt())
+                        .tripsMade(in.readInt())
+                        .build());
+            }
+
+            StateSnapshot.ElectorState.ElectorStateBuilder elector = StateSnapshot.ElectorState.builder();
+            for (int i = in.readInt(); i > 0; i--) {
+                UUID id = readId(in);
+                String name = in.readUTF();
+                ElevatorOperationalState state = ElevatorOperationalState.values()[in.readByte()];
+                int floor = in.readInt();
+                elector.status(ElevatorStatus.builder()
+                        .descriptor(ElevatorDescriptor.builder().id(id).name(name).build())
+                        .operationalState(state)
+                        .currentFloor(floor != FloorStops.NONE ? floor : null)
+                        .direction(readDirection(in))
+                        .futureStops(readFloors(in))
+                        .build());
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                elector.boarding(StateSnapshot.Boarding.builder()
+                        .elevator(readId(in))
+                        .origin(in.readInt())
+                        .destination(in.readInt())
+                        .direction(readDirection(in))
+                        .build());
+            }
+            return Optional.of(snapshot.elector(elector.build()).build());
+        }
+    }
+
+    private static void writeId(UUID id, DataOutput out) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private static UUID readId(DataInput in) throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private static void writeDirection(ElevatorMovingEvent.Direction direction, DataOutput out) throws IOException {
+        out.writeByte(direction != null ? direction.ordinal() : -1);
+    }
+
+    private static ElevatorMovingEvent.Direction readDirection(DataInput in) throws IOException {
+        byte direction = in.readByte();
+        return direction >= 0 ? ElevatorMovingEvent.Direction.values()[direction] : null;
+    }
+
+    private static void writeFloors(List<Integer> floors, DataOutput out) throws IOException {
+        out.writeInt(floors.size());
+        for (int floor : floors) {
+            out.writeInt(floor);
+        }
+    }
+
+    private static List<Integer> readFloors(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<Integer> floors = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            floors.add(in.readInt());
+        }
+        return floors;
+    }
+}
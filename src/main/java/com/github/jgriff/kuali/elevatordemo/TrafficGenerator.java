@@ -0,0 +1,242 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorConfirmEvent;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates building traffic: passengers arriving at {@link Floor floors} and requesting elevators, according to a
+ * {@link Profile traffic profile}.  Arrivals are a Poisson process (exponentially distributed gaps between
+ * passengers) at the configured {@link #arrivalsPerSecond rate}, kept on the {@link SimulationClock}, so the same
+ * traffic can be played in real time or as fast as the simulation can go.
+ * <p>
+ * Given the same {@link #seed}, the generator produces the same passengers at the same (simulated) times.  At high
+ * rates, every passenger due since the last timer tick arrives on the next one, so the rate isn't limited by the
+ * resolution of the clock's timers.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Builder
+@Slf4j
+public class TrafficGenerator {
+    /**
+     * The floors passengers arrive at, lowest (the lobby) first.
+     */
+    @NonNull
+    private final List<Floor> floors;
+    /**
+     * Clock the passengers arrive by.
+     */
+    @Getter
+    @Builder.Default
+    private final SimulationClock clock = SimulationClock.realTime();
+    /**
+     * Where passengers come from and go to.
+     */
+    @Getter
+    @Builder.Default
+    private final Profile profile = Profile.INTER_FLOOR;
+    /**
+     * Average number of passengers arriving per (simulated) second, across the whole building.
+     */
+    @Getter
+    @Builder.Default
+    private final double arrivalsPerSecond = 1;
+    /**
+     * Seed for the random passengers, to reproduce the same traffic.
+     */
+    @Getter
+    @Builder.Default
+    private final long seed = System.nanoTime();
+    /**
+     * Whether passengers say where they are going ({@link Floor#requestTo(int)}), rather than just calling for UP or
+     * DOWN.
+     */
+    @Getter
+    @Builder.Default
+    private final boolean destinationDispatch = false;
+
+    private final LongAdder generated = new LongAdder(), confirmed = new LongAdder(), unanswered = new LongAdder();
+    private Random random;
+    private long nextArrival;
+    private volatile boolean running;
+    private volatile Disposable nextTick;
+
+    /**
+     * Start generating traffic (from now, on our clock).
+     *
+     * @since 0.0.1
+     */
+    public synchronized void start() {
+        if (getArrivalsPerSecond() <= 0) throw new IllegalStateException("Arrival rate must be positive, not: " + getArrivalsPerSecond());
+        if (floors.size() < 2) throw new IllegalStateException("Need at least 2 floors to generate traffic between.");
+        if (running) return;
+
+        running = true;
+        random = new Random(getSeed());
+        nextArrival = getClock().now(TimeUnit.NANOSECONDS) + nanosToNextArrival();
+        scheduleTick(nextArrival - getClock().now(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Stop generating traffic.  Requests already made are not affected.
+     *
+     * @since 0.0.1
+     */
+    public synchronized void stop() {
+        running = false;
+        Disposable tick = nextTick;
+        if (tick != null) {
+            tick.dispose();
+        }
+    }
+
+    private void scheduleTick(long delayNanos) {
+        nextTick = getClock().getScheduler().schedule(this::tick, Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void tick() {
+        if (!running) return;
+
+        // everyone due by now arrives
+        long now = getClock().now(TimeUnit.NANOSECONDS);
+        try {
+            while (nextArrival <= now) {
+                Trip trip = getProfile().nextTrip(random, floors.size());
+                nextArrival += nanosToNextArrival();
+                arrive(trip);
+            }
+        } finally {
+            scheduleTick(nextArrival - now); // whatever happened, the traffic keeps coming
+        }
+    }
+
+    private long nanosToNextArrival() {
+        double seconds = -Math.log(1 - random.nextDouble()) / getArrivalsPerSecond();
+        return Math.max(1, (long) (seconds * TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private void arrive(Trip trip) {
+        Floor from = floors.get(trip.getOrigin());
+        Floor to = floors.get(trip.getDestination());
+        generated.increment();
+        if (log.isDebugEnabled()) {
+            log.debug("Passenger arriving at floor '" + from.getNumber() + "' going to floor '" + to.getNumber() + "' ...");
+        }
+
+        Mono<ElevatorConfirmEvent> confirmation;
+        try {
+            if (isDestinationDispatch()) {
+                confirmation = from.requestTo(to.getNumber());
+            } else {
+                confirmation = trip.getDestination() > trip.getOrigin() ? from.requestUp() : from.requestDown();
+            }
+        } catch (InvalidElevatorRequestException e) {
+            log.warn("Generated an invalid request from floor '" + from.getNumber() + "' to floor '" + to.getNumber() + "'.", e);
+            unanswered.increment();
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Failed to request an elevator from floor '" + from.getNumber() + "'.", e);
+            unanswered.increment();
+            return;
+        }
+        confirmation.subscribe(this::confirmed, e -> unanswered.increment());
+    }
+
+    private void confirmed(ElevatorConfirmEvent confirm) {
+        if (confirm.getResult() == ElevatorConfirmEvent.Result.SUCCESS) {
+            confirmed.increment();
+        } else {
+            unanswered.increment();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Receiving confirmation for elevator request from floor '" + confirm.getConfirmationOf().getRequestFloor() + "': " + confirm);
+        }
+    }
+
+    /**
+     * @return how many passengers have arrived (and requested an elevator).
+     * @since 0.0.1
+     */
+    public long getGeneratedCount() {
+        return generated.sum();
+    }
+
+    /**
+     * @return how many requests have been confirmed with an elevator on its way.
+     * @since 0.0.1
+     */
+    public long getConfirmedCount() {
+        return confirmed.sum();
+    }
+
+    /**
+     * @return how many requests could not be answered with an elevator (none available, or an error).
+     * @since 0.0.1
+     */
+    public long getUnansweredCount() {
+        return unanswered.sum();
+    }
+
+    /**
+     * Traffic profiles.  Each is a mix of passengers leaving the lobby (the first floor), heading for the lobby, and
+     * travelling between the other floors, with the floors themselves chosen at random.
+     */
+    public enum Profile {
+        /**
+         * Morning arrivals: most passengers head up from the lobby.
+         */
+        UP_PEAK(0.85, 0.05),
+        /**
+         * Evening departures: most passengers head down to the lobby.
+         */
+        DOWN_PEAK(0.05, 0.85),
+        /**
+         * Lunch time: passengers both leaving for, and returning from, the lobby.
+         */
+        LUNCH(0.45, 0.45),
+        /**
+         * Passengers travelling between any two floors, uniformly.
+         */
+        INTER_FLOOR(0, 0);
+
+        private final double fromLobby, toLobby;
+
+        Profile(double fromLobby, double toLobby) {
+            this.fromLobby = fromLobby;
+            this.toLobby = toLobby;
+        }
+
+        /**
+         * @return a random trip, between floor indexes {@code [0, floors)} (0 being the lobby).
+         */
+        Trip nextTrip(Random random, int floors) {
+            double kind = random.nextDouble();
+            if (kind < fromLobby) return new Trip(0, 1 + random.nextInt(floors - 1));
+            if (kind < fromLobby + toLobby) return new Trip(1 + random.nextInt(floors - 1), 0);
+
+            int origin = random.nextInt(floors);
+            int destination = random.nextInt(floors - 1);
+            return new Trip(origin, destination >= origin ? destination + 1 : destination);
+        }
+    }
+
+    /**
+     * A passenger's trip, as floor indexes.
+     */
+    @Value
+    static class Trip {
+        int origin, destination;
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link SimulationClock} that keeps virtual time.  Rather than waiting for the wall clock to catch up, time jumps
+ * straight to the next scheduled task (a discrete-event simulation), so a day of building traffic runs as fast as the
+ * simulation itself can be computed.
+ * <p>
+ * Every task runs on a single thread, in the order it is due (ties run in the order they were scheduled).  The clock
+ * can either be driven by its own background thread (see {@link #start()}), or directly by the caller using
+ * {@link #advance()}, which runs everything due until no work remains.  Don't do both at once.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Slf4j
+public class VirtualClock implements SimulationClock {
+    private final PriorityBlockingQueue<Task> tasks = new PriorityBlockingQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Scheduler scheduler = new DiscreteEventScheduler();
+    private volatile long nanoTime;
+    private volatile boolean shutdown;
+    private Thread driver;
+
+    @Override
+    public Scheduler getScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public long now(TimeUnit unit) {
+        return unit.convert(nanoTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Start driving this clock from a background (daemon) thread, which runs tasks as soon as they are scheduled.
+     *
+     * @since 0.0.1
+     */
+    public synchronized void start() {
+        if (driver == null) {
+            driver = new Thread(this::drive, "virtual-clock");
+            driver.setDaemon(true);
+            driver.start();
+        }
+    }
+
+    /**
+     * Run every scheduled task (including any they schedule in turn) on the calling thread, moving time forward as
+     * needed, until there is nothing left to do.
+     *
+     * @since 0.0.1
+     */
+    public void advance() {
+        Task next;
+        while (!shutdown && (next = tasks.poll()) != null) {
+            run(next);
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        tasks.clear();
+        if (driver != null) {
+            driver.interrupt();
+        }
+    }
+
+    private void drive() {
+        try {
+            while (!shutdown) {
+                run(tasks.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run(Task task) {
+        if (task.isDisposed()) return; // cancelled tasks are discarded lazily, and never move time forward
+
+        if (task.dueTime > nanoTime) {
+            nanoTime = task.dueTime;
+        }
+        try {
+            task.runnable.run();
+        } catch (Throwable t) {
+            log.error("Scheduled task failed on the virtual clock.", t);
+        }
+        task.completed();
+    }
+
+    private Task submit(Runnable runnable, long delay, long period, TimeUnit unit, Set<Task> owner) {
+        if (shutdown) throw new RejectedExecutionException("Virtual clock has been shut down.");
+
+        Task task = new Task(runnable, unit.toNanos(period), owner);
+        task.scheduleAt(nanoTime + Math.max(0, unit.toNanos(delay)));
+        return task;
+    }
+
+    /**
+     * A unit of work scheduled on the clock.  Periodic tasks are simply re-queued after each run.
+     */
+    private final class Task implements Disposable, Comparable<Task> {
+        private final Runnable runnable;
+        private final long period;
+        private final Set<Task> owner;
+        private long dueTime, order;
+        private volatile boolean disposed;
+
+        private Task(Runnable runnable, long period, Set<Task> owner) {
+            this.runnable = runnable;
+            this.period = period;
+            this.owner = owner;
+            if (owner != null) {
+                owner.add(this);
+            }
+        }
+
+        private void scheduleAt(long dueTime) {
+            this.dueTime = dueTime;
+            this.order = sequence.getAndIncrement();
+            tasks.offer(this);
+        }
+
+        private void completed() {
+            if (period > 0 && !disposed && !shutdown) {
+                scheduleAt(dueTime + period);
+            } else if (owner != null) {
+                owner.remove(this);
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            if (owner != null) {
+                owner.remove(this);
+            }
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            int byTime = Long.compare(dueTime, other.dueTime);
+            return byTime != 0 ? byTime : Long.compare(order, other.order);
+        }
+    }
+
+    private final class DiscreteEventScheduler implements Scheduler {
+        @Override
+        public Disposable schedule(Runnable task) {
+            return submit(task, 0, 0, TimeUnit.NANOSECONDS, null);
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            return submit(task, delay, 0, unit, null);
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            return submit(task, initialDelay, period, unit, null);
+        }
+
+        @Override
+        public long now(TimeUnit unit) {
+            return VirtualClock.this.now(unit);
+        }
+
+        @Override
+        public Worker createWorker() {
+            return new VirtualWorker();
+        }
+
+        @Override
+        public void dispose() {
+            VirtualClock.this.shutdown();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return shutdown;
+        }
+    }
+
+    /**
+     * Worker whose tasks can be cancelled as a group.  All tasks run on the clock's single thread, so they are
+     * naturally serialized, as a {@link Scheduler.Worker} requires.
+     */
+    private final class VirtualWorker implements Scheduler.Worker {
+        private final Set<Task> pending = ConcurrentHashMap.newKeySet();
+        private volatile boolean disposed;
+
+        @Override
+        public Disposable schedule(Runnable task) {
+            return schedule(task, 0, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+            if (disposed) throw new RejectedExecutionException("Worker has been disposed.");
+            return submit(task, delay, 0, unit, pending);
+        }
+
+        @Override
+        public Disposable schedulePeriodically(Runnable task, long initialDelay, long period, TimeUnit unit) {
+            if (disposed) throw new RejectedExecutionException("Worker has been disposed.");
+            return submit(task, initialDelay, period, unit, pending);
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            pending.forEach(Task::dispose);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+}
@@ -1,37 +1,83 @@
 package com.github.jgriff.kuali.elevatordemo.events;
 
+import com.github.jgriff.kuali.elevatordemo.ElevatorDescriptor;
 import com.github.jgriff.kuali.elevatordemo.Identifiable;
 import lombok.NonNull;
 import lombok.Value;
 
+import java.time.Duration;
 import java.util.UUID;
 
 /**
- * Event signaling a confirmation response to requesting and elevator.  
+ * Event signaling a confirmation response to requesting and elevator.  A successful confirmation may also say which
+ * {@link #elevator} is on its way (which passengers need to know, to board the right car), and when it is
+ * {@link #eta expected}.
  * 
  * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
  * @since 0.0.0
  */
 @Value
 public class ElevatorConfirmEvent implements Identifiable<UUID> {
-    private final UUID id = UUID.randomUUID();
+    private final UUID id;
     private final ElevatorRequestEvent confirmationOf;
     private final Result result;
+    private final ElevatorDescriptor elevator;
+    /**
+     * How long the elevator is expected to take to arrive, from when the call was confirmed (or {@code null} if that
+     * isn't known).
+     * @since 0.0.1
+     */
+    private final Duration eta;
+
+    public ElevatorConfirmEvent(@NonNull ElevatorRequestEvent confirmationOf, @NonNull Result result, ElevatorDescriptor elevator) {
+        this(EventIds.next(), confirmationOf, result, elevator, null);
+    }
+
+    /**
+     * @since 0.0.1
+     */
+    public ElevatorConfirmEvent(@NonNull ElevatorRequestEvent confirmationOf, @NonNull Result result, ElevatorDescriptor elevator, Duration eta) {
+        this(EventIds.next(), confirmationOf, result, elevator, eta);
+    }
+
+    /**
+     * Restores a confirmation with its original id (ie, as read back from the
+     * {@link com.github.jgriff.kuali.elevatordemo.EventJournal journal}).
+     * @since 0.0.1
+     */
+    public ElevatorConfirmEvent(@NonNull UUID id, @NonNull ElevatorRequestEvent confirmationOf, @NonNull Result result, ElevatorDescriptor elevator, Duration eta) {
+        this.id = id;
+        this.confirmationOf = confirmationOf;
+        this.result = result;
+        this.elevator = elevator;
+        this.eta = eta;
+    }
 
     public boolean isConfirming(@NonNull ElevatorRequestEvent candidate) {
         return confirmationOf.getId().equals(candidate.getId());
     }
     
     public static ElevatorConfirmEvent confirming(@NonNull ElevatorRequestEvent request) {
-        return new ElevatorConfirmEvent(request, Result.SUCCESS);
+        return new ElevatorConfirmEvent(request, Result.SUCCESS, null);
+    }
+    
+    public static ElevatorConfirmEvent confirming(@NonNull ElevatorRequestEvent request, @NonNull ElevatorDescriptor elevator) {
+        return new ElevatorConfirmEvent(request, Result.SUCCESS, elevator);
+    }
+    
+    /**
+     * @since 0.0.1
+     */
+    public static ElevatorConfirmEvent confirming(@NonNull ElevatorRequestEvent request, @NonNull ElevatorDescriptor elevator, Duration eta) {
+        return new ElevatorConfirmEvent(request, Result.SUCCESS, elevator, eta);
     }
     
     public static ElevatorConfirmEvent noElevatorAvailableFor(@NonNull ElevatorRequestEvent request) {
-        return new ElevatorConfirmEvent(request, Result.NO_AVAILABLE_ELEVATOR);
+        return new ElevatorConfirmEvent(request, Result.NO_AVAILABLE_ELEVATOR, null);
     }
     
     public static ElevatorConfirmEvent errorFor(@NonNull ElevatorRequestEvent request) {
-        return new ElevatorConfirmEvent(request, Result.ERROR);
+        return new ElevatorConfirmEvent(request, Result.ERROR, null);
     }
     
     public enum Result {
@@ -0,0 +1,47 @@
+package com.github.jgriff.kuali.elevatordemo.events;
+
+import com.github.jgriff.kuali.elevatordemo.Floor;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.ToString;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Event signaling a {@link Floor} is requesting an elevator to take a passenger to a {@link #destinationFloor}
+ * (destination dispatch).  Knowing where each passenger is going lets the elector group passengers headed to the
+ * same (or nearby) floors into the same car.
+ * 
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @see ElevatorRequestUpEvent
+ * @see ElevatorRequestDownEvent
+ * @since 0.0.1
+ */
+@Value
+@EqualsAndHashCode(callSuper=true)
+@ToString(callSuper = true)
+public class ElevatorDestinationRequestEvent extends ElevatorRequestEvent {
+    private final int destinationFloor;
+    
+    public ElevatorDestinationRequestEvent(int requestFloor, int destinationFloor) { 
+        super(requestFloor);
+        this.destinationFloor = destinationFloor;
+    }
+
+    public ElevatorDestinationRequestEvent(@NonNull UUID id, int requestFloor, int destinationFloor) {
+        super(id, requestFloor);
+        this.destinationFloor = destinationFloor;
+    }
+
+    /**
+     * @return the direction the passenger is travelling in.
+     */
+    public ElevatorMovingEvent.Direction getDirection() {
+        return getDestinationFloor() > getRequestFloor() ? ElevatorMovingEvent.Direction.UP : ElevatorMovingEvent.Direction.DOWN;
+    }
+    
+    public static ElevatorDestinationRequestEvent from(Floor requestFloor, int destinationFloor) {
+        return new ElevatorDestinationRequestEvent(requestFloor.getNumber(), destinationFloor);
+    }
+}
@@ -12,7 +12,7 @@ import java.util.UUID;
  */
 @Value
 public class ElevatorDiagnosticUpdateEvent implements Identifiable<UUID> {
-    private final UUID id = UUID.randomUUID(); 
+    private final UUID id = EventIds.next();
     private final ElevatorDiagnostic diagnosticUpdate;
 
     public static ElevatorDiagnosticUpdateEvent forDiagnostic(ElevatorDiagnostic diagnostic) {
@@ -3,6 +3,8 @@ package com.github.jgriff.kuali.elevatordemo.events;
 import com.github.jgriff.kuali.elevatordemo.ElevatorDescriptor;
 import lombok.*;
 
+import java.util.UUID;
+
 /**
  * Event signaling an elevator is passing a particular floor, without stopping at it.
  * 
@@ -24,4 +26,9 @@ public class ElevatorFloorPassEvent extends ElevatorOperationEvent {
         super(elevator);
         this.floor = floor;
     }
+
+    public ElevatorFloorPassEvent(@NonNull UUID id, @NonNull ElevatorDescriptor elevator, int floor) {
+        super(id, elevator);
+        this.floor = floor;
+    }
 }
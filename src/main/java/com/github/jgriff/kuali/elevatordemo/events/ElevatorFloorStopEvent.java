@@ -3,6 +3,8 @@ package com.github.jgriff.kuali.elevatordemo.events;
 import com.github.jgriff.kuali.elevatordemo.ElevatorDescriptor;
 import lombok.*;
 
+import java.util.UUID;
+
 /**
  * Event signaling an elevator is stopping at a particular floor.  A "stop" means the elevator is stopping at this
  * floor and will open its doors (see {@link ElevatorDoorOpenEvent}.
@@ -25,4 +27,9 @@ public class ElevatorFloorStopEvent extends ElevatorOperationEvent {
         super(elevator);
         this.floor = floor;
     }
+
+    public ElevatorFloorStopEvent(@NonNull UUID id, @NonNull ElevatorDescriptor elevator, int floor) {
+        super(id, elevator);
+        this.floor = floor;
+    }
 }
@@ -0,0 +1,37 @@
+package com.github.jgriff.kuali.elevatordemo.events;
+
+import com.github.jgriff.kuali.elevatordemo.ElevatorDescriptor;
+import com.github.jgriff.kuali.elevatordemo.Identifiable;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Command for an elevator (running in another JVM) to {@link com.github.jgriff.kuali.elevatordemo.Elevator#moveToFloor(int)
+ * move to a floor}, sent over an {@link com.github.jgriff.kuali.elevatordemo.EventLink} on behalf of whoever tasked it
+ * (ie, the elector).  The elevator's side answers each command with an {@link ElevatorMoveReply}.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Value
+public class ElevatorMoveCommand implements Identifiable<UUID> {
+    private final UUID id;
+    private final ElevatorDescriptor elevator;
+    private final int floor;
+
+    public ElevatorMoveCommand(@NonNull ElevatorDescriptor elevator, int floor) {
+        this(EventIds.next(), elevator, floor);
+    }
+
+    /**
+     * Restores a command with its original id (ie, as received over the link), so its reply can be matched to it.
+     * @since 0.0.1
+     */
+    public ElevatorMoveCommand(@NonNull UUID id, @NonNull ElevatorDescriptor elevator, int floor) {
+        this.id = id;
+        this.elevator = elevator;
+        this.floor = floor;
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.jgriff.kuali.elevatordemo.events;
+
+import com.github.jgriff.kuali.elevatordemo.ElevatorDescriptor;
+import com.github.jgriff.kuali.elevatordemo.Identifiable;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Answer to an {@link ElevatorMoveCommand}, sent back over the {@link com.github.jgriff.kuali.elevatordemo.EventLink}
+ * by the elevator's side, so whoever tasked the elevator learns whether it took the stop (just as if it had called
+ * {@link com.github.jgriff.kuali.elevatordemo.Elevator#moveToFloor(int)} itself).
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+@Value
+public class ElevatorMoveReply implements Identifiable<UUID> {
+    private final UUID id = EventIds.next();
+    private final ElevatorDescriptor elevator;
+    /**
+     * Id of the {@link ElevatorMoveCommand} answered.
+     */
+    private final UUID commandId;
+    private final Result result;
+
+    public static ElevatorMoveReply to(ElevatorMoveCommand command, Result result) {
+        return new ElevatorMoveReply(command.getElevator(), command.getId(), result);
+    }
+
+    public enum Result {
+        /**
+         * The elevator took the stop.
+         */
+        MOVING,
+        /**
+         * The elevator turned the stop down (ie, it already has as many as it can take on), or is no longer there.
+         */
+        UNAVAILABLE,
+        /**
+         * The elevator can't go to the floor.
+         */
+        INVALID,
+        /**
+         * The elevator failed to take the stop, for any other reason.
+         */
+        FAILED
+    }
+}
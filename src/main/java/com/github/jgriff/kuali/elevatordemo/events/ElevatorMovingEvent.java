@@ -3,6 +3,8 @@ package com.github.jgriff.kuali.elevatordemo.events;
 import com.github.jgriff.kuali.elevatordemo.ElevatorDescriptor;
 import lombok.*;
 
+import java.util.UUID;
+
 /**
  * Event signaling an elevator is now moving.  The direction it is moving is given by {@link #getDirection()}. 
  * 
@@ -30,6 +32,12 @@ public class ElevatorMovingEvent extends ElevatorOperationEvent {
         this.direction = direction;
         this.nextFloor = nextFloor;
     }
+
+    public ElevatorMovingEvent(@NonNull UUID id, @NonNull ElevatorDescriptor elevator, @NonNull Direction direction, int nextFloor) {
+        super(id, elevator);
+        this.direction = direction;
+        this.nextFloor = nextFloor;
+    }
     
     public enum Direction {
         UP,
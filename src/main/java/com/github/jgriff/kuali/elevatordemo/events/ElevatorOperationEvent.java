@@ -16,7 +16,7 @@ import java.util.UUID;
  */
 @Data
 public abstract class ElevatorOperationEvent implements Identifiable<UUID> {
-    private final UUID id = UUID.randomUUID();
+    private final UUID id;
     /**
      * The elevator this operation pertains to.
      * @since 0.0.0
@@ -24,6 +24,17 @@ public abstract class ElevatorOperationEvent implements Identifiable<UUID> {
     private final ElevatorDescriptor elevator;
 
     public ElevatorOperationEvent(@NonNull ElevatorDescriptor elevator) {
+        this(EventIds.next(), elevator);
+    }
+
+    /**
+     * Restores an event with its original id (ie, as read back from the
+     * {@link com.github.jgriff.kuali.elevatordemo.EventJournal journal}).  Each kind of operation event has a constructor
+     * taking the id first, which comes through here.
+     * @since 0.0.1
+     */
+    protected ElevatorOperationEvent(@NonNull UUID id, @NonNull ElevatorDescriptor elevator) {
+        this.id = id;
         this.elevator = elevator;
     }
 }
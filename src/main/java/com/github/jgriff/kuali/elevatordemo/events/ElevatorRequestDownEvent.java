@@ -2,9 +2,12 @@ package com.github.jgriff.kuali.elevatordemo.events;
 
 import com.github.jgriff.kuali.elevatordemo.Floor;
 import lombok.EqualsAndHashCode;
+import lombok.NonNull;
 import lombok.ToString;
 import lombok.Value;
 
+import java.util.UUID;
+
 /**
  * Event signaling a {@link Floor} is requesting an elevator to go DOWN.  
  * 
@@ -17,6 +20,10 @@ import lombok.Value;
 @ToString(callSuper = true)
 public class ElevatorRequestDownEvent extends ElevatorRequestEvent {
     public ElevatorRequestDownEvent(int requestFloor) { super(requestFloor); }
+
+    public ElevatorRequestDownEvent(@NonNull UUID id, int requestFloor) {
+        super(id, requestFloor);
+    }
     
     public static ElevatorRequestDownEvent from(Floor requestFloor) {
         return new ElevatorRequestDownEvent(requestFloor.getNumber());
@@ -2,6 +2,7 @@ package com.github.jgriff.kuali.elevatordemo.events;
 
 import com.github.jgriff.kuali.elevatordemo.Identifiable;
 import lombok.Data;
+import lombok.NonNull;
 
 import java.util.UUID;
 
@@ -13,10 +14,20 @@ import java.util.UUID;
  */
 @Data
 public abstract class ElevatorRequestEvent implements Identifiable<UUID> {
-    private final UUID id = UUID.randomUUID();
+    private final UUID id;
     private final int requestFloor;
     
     public ElevatorRequestEvent(int requestFloor) { 
+        this(EventIds.next(), requestFloor);
+    }
+
+    /**
+     * Restores a request with its original id (ie, as read back from the
+     * {@link com.github.jgriff.kuali.elevatordemo.EventJournal journal}), for the subclasses' id-first constructors.
+     * @since 0.0.1
+     */
+    protected ElevatorRequestEvent(@NonNull UUID id, int requestFloor) {
+        this.id = id;
         this.requestFloor = requestFloor;
     }
 }
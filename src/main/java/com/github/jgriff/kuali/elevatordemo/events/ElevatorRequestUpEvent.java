@@ -2,9 +2,12 @@ package com.github.jgriff.kuali.elevatordemo.events;
 
 import com.github.jgriff.kuali.elevatordemo.Floor;
 import lombok.EqualsAndHashCode;
+import lombok.NonNull;
 import lombok.ToString;
 import lombok.Value;
 
+import java.util.UUID;
+
 /**
  * Event signaling a {@link Floor} is requesting an elevator to go UP.  
  * 
@@ -19,6 +22,10 @@ public class ElevatorRequestUpEvent extends ElevatorRequestEvent {
     public ElevatorRequestUpEvent(int requestFloor) { 
         super(requestFloor);
     }
+
+    public ElevatorRequestUpEvent(@NonNull UUID id, int requestFloor) {
+        super(id, requestFloor);
+    }
     
     public static ElevatorRequestUpEvent from(Floor requestFloor) {
         return new ElevatorRequestUpEvent(requestFloor.getNumber());
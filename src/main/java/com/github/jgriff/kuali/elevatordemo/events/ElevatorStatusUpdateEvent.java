@@ -23,7 +23,7 @@ import java.util.UUID;
 @Value
 @Builder
 public class ElevatorStatusUpdateEvent implements Identifiable<UUID> {
-    private final UUID id = UUID.randomUUID();
+    private final UUID id = EventIds.next();
     private final ElevatorStatus statusUpdate;
 
     public static ElevatorStatusUpdateEvent forStatus(ElevatorStatus status) {
@@ -0,0 +1,25 @@
+package com.github.jgriff.kuali.elevatordemo.events;
+
+import com.github.jgriff.kuali.elevatordemo.ElevatorDescriptor;
+import com.github.jgriff.kuali.elevatordemo.Identifiable;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Event signaling an elevator has been unregistered from the {@link com.github.jgriff.kuali.elevatordemo.ElevatorRegistry},
+ * and is no longer in service.
+ * 
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @see ElevatorRegisteredEvent
+ * @since 0.0.1
+ */
+@Value
+public class ElevatorUnregisteredEvent implements Identifiable<UUID> {
+    private final UUID id = EventIds.next();
+    private final ElevatorDescriptor elevator;
+
+    public static ElevatorUnregisteredEvent forElevator(ElevatorDescriptor elevator) {
+        return new ElevatorUnregisteredEvent(elevator);
+    }
+}
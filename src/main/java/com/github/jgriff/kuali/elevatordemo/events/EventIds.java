@@ -0,0 +1,39 @@
+package com.github.jgriff.kuali.elevatordemo.events;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates the ids of our events.  {@link UUID#randomUUID()} draws every id from a shared {@link SecureRandom}, which
+ * is slow and contended, and we make several events for every floor an elevator passes.  Instead, an id here is made
+ * of this node's epoch (when it started, plus some randomness, chosen once) and a sequence number.  Each thread takes
+ * its sequence numbers from a block of its own, so threads only meet on the shared counter once per block.
+ * <p>
+ * Ids are unique within a node, and (with overwhelming likelihood) across nodes, but unlike random UUIDs they are not
+ * unguessable.  Don't use them for anything that must be.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public final class EventIds {
+    private static final int BLOCK_BITS = 10;
+    private static final long EPOCH = (System.currentTimeMillis() / 1000) << 32 | (new SecureRandom().nextInt() & 0xFFFFFFFFL);
+    private static final AtomicLong BLOCKS = new AtomicLong();
+    private static final ThreadLocal<long[]> SEQUENCE = ThreadLocal.withInitial(() -> new long[2]); // next, end of block
+
+    private EventIds() {
+    }
+
+    /**
+     * @return a new event id.
+     */
+    public static UUID next() {
+        long[] sequence = SEQUENCE.get();
+        if (sequence[0] == sequence[1]) {
+            sequence[0] = BLOCKS.getAndIncrement() << BLOCK_BITS;
+            sequence[1] = sequence[0] + (1 << BLOCK_BITS);
+        }
+        return new UUID(EPOCH, sequence[0]++);
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestUpEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class AdmissionControlTests {
+    private VirtualClock clock = new VirtualClock();
+
+    @Test
+    @DisplayName("lets every request in when there are no limits")
+    void unlimited() {
+        AdmissionControl sut = AdmissionControl.builder().clock(clock).build();
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(sut.admit(new ElevatorRequestUpEvent(1)));
+        }
+    }
+
+    @Test
+    @DisplayName("lets a floor's burst in at once, then one request per 1/rate seconds")
+    void limitsEachFloor() {
+        AdmissionControl sut = AdmissionControl.builder().clock(clock).floorRate(2).floorBurst(3).build();
+
+        // a burst of 3 is let in, the 4th is not
+        for (int i = 0; i < 3; i++) {
+            assertTrue(sut.admit(new ElevatorRequestUpEvent(1)));
+        }
+        assertFalse(sut.admit(new ElevatorRequestUpEvent(1)));
+
+        // but other floors have limits of their own
+        assertTrue(sut.admit(new ElevatorRequestUpEvent(2)));
+
+        // half a second later (at 2 a second), there is room for one more
+        advance(500);
+        assertTrue(sut.admit(new ElevatorRequestUpEvent(1)));
+        assertFalse(sut.admit(new ElevatorRequestUpEvent(1)));
+
+        assertEquals(2, sut.getFloorRejectedCount());
+        assertEquals(0, sut.getBuildingRejectedCount());
+    }
+
+    @Test
+    @DisplayName("limits the whole building, across every floor")
+    void limitsTheBuilding() {
+        AdmissionControl sut = AdmissionControl.builder().clock(clock).buildingRate(1).buildingBurst(2).build();
+
+        assertTrue(sut.admit(new ElevatorRequestUpEvent(1)));
+        assertTrue(sut.admit(new ElevatorRequestUpEvent(2)));
+        assertFalse(sut.admit(new ElevatorRequestUpEvent(3)));
+
+        // a bucket never fills beyond its burst, however long it is left
+        advance(60_000);
+        assertTrue(sut.admit(new ElevatorRequestUpEvent(3)));
+        assertTrue(sut.admit(new ElevatorRequestUpEvent(4)));
+        assertFalse(sut.admit(new ElevatorRequestUpEvent(5)));
+
+        assertEquals(2, sut.getBuildingRejectedCount());
+    }
+
+    private void advance(long millis) {
+        clock.getScheduler().schedule(() -> {}, millis, MILLISECONDS);
+        clock.advance();
+    }
+}
@@ -0,0 +1,129 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class BankRouterTests {
+    private final List<Object> published = new CopyOnWriteArrayList<>();
+    private final Elevator low = elevator("Low"), high = elevator("High");
+    private final ElevatorBank lowRise = ElevatorBank.builder().name("Low").lowestFloor(1).highestFloor(10).elevator(low.describe().getId()).build();
+    private final ElevatorBank highRise = ElevatorBank.builder().name("High").lowestFloor(11).highestFloor(20).elevator(high.describe().getId()).build();
+    private final BankRouter sut = BankRouter.builder()
+            .bank(lowRise)
+            .bank(highRise)
+            .eventPublisher(published::add)
+            .registry(registry())
+            .build();
+
+    @AfterEach
+    void close() {
+        sut.close();
+    }
+
+    @Test
+    @DisplayName("calls are answered by the bank serving the floor, even when another bank's elevator is closer")
+    void routesByFloor() {
+        statusOf(low, 10);
+        statusOf(high, 20);
+
+        sut.onElevatorRequestDown(new ElevatorRequestDownEvent(12));
+
+        Mockito.verify(high, Mockito.timeout(5000)).moveToFloor(12);
+        Mockito.verify(low, Mockito.never()).moveToFloor(12);
+    }
+
+    @Test
+    @DisplayName("banks take turns answering calls from the lobby")
+    void sharesTheLobby() {
+        ElevatorBank first = sut.bankFor(new ElevatorRequestUpEvent(1)).orElse(null);
+        ElevatorBank second = sut.bankFor(new ElevatorRequestUpEvent(1)).orElse(null);
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    @DisplayName("destination requests go to the bank serving the destination")
+    void routesDestinationRequests() {
+        assertEquals(Optional.of(highRise), sut.bankFor(new ElevatorDestinationRequestEvent(1, 15)));
+        assertEquals(Optional.of(lowRise), sut.bankFor(new ElevatorDestinationRequestEvent(1, 5)));
+        assertEquals(Optional.empty(), sut.bankFor(new ElevatorDestinationRequestEvent(5, 15)));
+    }
+
+    @Test
+    @DisplayName("calls no bank serves are answered straight away")
+    void noBankServes() {
+        ElevatorRequestEvent request = new ElevatorRequestUpEvent(21);
+
+        sut.onElevatorRequestUp(request);
+
+        await().until(() -> !published.isEmpty());
+        ElevatorConfirmEvent confirm = (ElevatorConfirmEvent) published.get(0);
+        assertEquals(ElevatorConfirmEvent.Result.NO_AVAILABLE_ELEVATOR, confirm.getResult());
+        assertTrue(confirm.isConfirming(request));
+    }
+
+    @Test
+    @DisplayName("with no banks (ie, only running elevators), calls are left for the linked elector to answer")
+    void noBanksLeavesCallsUnanswered() {
+        BankRouter elevatorsOnly = BankRouter.builder()
+                .eventPublisher(published::add)
+                .registry(registry())
+                .build();
+
+        elevatorsOnly.onElevatorRequestUp(new ElevatorRequestUpEvent(5));
+
+        assertTrue(published.isEmpty());
+        elevatorsOnly.close();
+    }
+
+    @Test
+    @DisplayName("an elevator may only be in one bank")
+    void elevatorInOneBank() {
+        assertThrows(IllegalArgumentException.class, () -> BankRouter.builder()
+                .bank(lowRise)
+                .bank(ElevatorBank.builder().name("Other").lowestFloor(11).highestFloor(20).elevator(low.describe().getId()).build())
+                .eventPublisher(published::add)
+                .registry(registry())
+                .build());
+    }
+
+    private void statusOf(Elevator elevator, int floor) {
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+                .descriptor(elevator.describe())
+                .operationalState(ElevatorOperationalState.OPERATIONAL)
+                .currentFloor(floor)
+                .build()));
+    }
+
+    private ElevatorRegistry registry() {
+        ElevatorRegistry registry = BasicElevatorRegistry.builder().eventPublisher(event -> {}).build();
+        registry.register(low);
+        registry.register(high);
+        return registry;
+    }
+
+    private static Elevator elevator(String name) {
+        Elevator elevator = mock(Elevator.class);
+        when(elevator.describe()).thenReturn(ElevatorDescriptor.builder().id(UUID.randomUUID()).name(name).build());
+        return elevator;
+    }
+}
@@ -1,6 +1,9 @@
 package com.github.jgriff.kuali.elevatordemo;
 
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorConfirmEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorDestinationRequestEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorFloorStopEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent;
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestDownEvent;
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestUpEvent;
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorStatusUpdateEvent;
@@ -12,11 +15,15 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.context.ApplicationEventPublisher;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
@@ -42,7 +49,10 @@ public class ElectorTests implements MockitoTest, EventTest {
         when(elevatorOne.describe()).thenReturn(elevatorOneDescriptor);
         when(elevatorTwo.describe()).thenReturn(elevatorTwoDescriptor);
         
-        sut.setElevators(Arrays.asList(elevatorOne, elevatorTwo));
+        ElevatorRegistry registry = BasicElevatorRegistry.builder().eventPublisher(eventPublisher).build();
+        registry.register(elevatorOne);
+        registry.register(elevatorTwo);
+        sut.setRegistry(registry);
     }
     
     @Test
@@ -105,6 +115,484 @@ public class ElectorTests implements MockitoTest, EventTest {
         assertTrue(expectedConfirmation.isConfirming(request), "Confirmation did not carry the original request.");
     }
     
+    @Test
+    void prefersElevatorStoppedAtTheFloor() {
+        // given: elevator one is idle at the floor, elevator two is closer to it from below, on its way UP past it
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(6)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(5)
+            .direction(ElevatorMovingEvent.Direction.UP)
+            .futureStops(Collections.singletonList(9))
+            .build()
+        ));
+        
+        // when: a request arrives
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(6));
+        
+        // then: the elector chooses the elevator already there (which is elevator one) 
+        Mockito.verify(elevatorOne, Mockito.timeout(timeout().toMillis())).moveToFloor(6);
+        Mockito.verify(elevatorTwo, Mockito.never()).moveToFloor(6);
+    }
+    
+    @Test
+    void prefersElevatorPassingByInTheRequestedDirection() {
+        // given: elevator one is idle further above the floor than elevator two is below it, on its way UP past it
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(12)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(2)
+            .direction(ElevatorMovingEvent.Direction.UP)
+            .futureStops(Collections.singletonList(9))
+            .build()
+        ));
+        
+        // when: a request arrives
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(6));
+        
+        // then: the elector chooses the elevator passing by (which is elevator two) 
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis())).moveToFloor(6);
+        Mockito.verify(elevatorOne, Mockito.never()).moveToFloor(6);
+    }
+    
+    @Test
+    void ignoresElevatorThatTurnsAroundBeforeTheFloor() {
+        // given: elevator one is idle above the floor, elevator two is nearer, going UP but only as far as floor 4
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(9)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(2)
+            .direction(ElevatorMovingEvent.Direction.UP)
+            .futureStops(Collections.singletonList(4))
+            .build()
+        ));
+        
+        // when: a request arrives
+        sut.onElevatorRequestDown(new ElevatorRequestDownEvent(8));
+        
+        // then: elevator two would only get there after turning around at floor 4, so elevator one arrives sooner 
+        Mockito.verify(elevatorOne, Mockito.timeout(timeout().toMillis())).moveToFloor(8);
+    }
+    
+    @Test
+    void prefersIdleElevatorOverANearerBusyOne() {
+        // given: elevator one is just below the floor, but has to stop at every floor on the way there
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(4)
+            .direction(ElevatorMovingEvent.Direction.UP)
+            .futureStops(Arrays.asList(5, 6, 7))
+            .movementSpeed(Duration.ofSeconds(2))
+            .doorOpenDelay(Duration.ofSeconds(10))
+            .build()
+        ));
+        // and: elevator two is idle, further away
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(1)
+            .movementSpeed(Duration.ofSeconds(2))
+            .doorOpenDelay(Duration.ofSeconds(10))
+            .build()
+        ));
+        
+        // when: a request arrives
+        ElevatorRequestUpEvent request = new ElevatorRequestUpEvent(8);
+        sut.onElevatorRequestUp(request);
+        
+        // then: the elector chooses the elevator that arrives soonest (which is elevator two, 7 floors away, in 14s)
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis())).moveToFloor(8);
+        Mockito.verify(elevatorOne, Mockito.never()).moveToFloor(8);
+        
+        // and: tells the caller when to expect it
+        ElevatorConfirmEvent expectedConfirmation = captureEvent(ElevatorConfirmEvent.class);
+        assertEquals(Duration.ofSeconds(14), expectedConfirmation.getEta());
+    }
+    
+    @Test
+    void groupsPassengersWithNearbyDestinationsIntoTheSameCar() {
+        // given: 2 idle elevators, elevator two nearer the lobby
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(5)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(2)
+            .build()
+        ));
+        
+        // when: a passenger in the lobby asks for floor 20, and is assigned elevator two
+        sut.onElevatorDestinationRequest(new ElevatorDestinationRequestEvent(1, 20));
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis())).moveToFloor(1);
+        
+        // and: elevator one has since come down to the lobby too (so it would be elected, if not for grouping) 
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(1)
+            .build()
+        ));
+        
+        // and: another passenger in the lobby asks for floor 21
+        ElevatorDestinationRequestEvent request = new ElevatorDestinationRequestEvent(1, 21);
+        sut.onElevatorDestinationRequest(request);
+        
+        // then: they are grouped into the same car (elevator two), and told so
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis()).times(2)).moveToFloor(1);
+        Mockito.verify(elevatorOne, Mockito.never()).moveToFloor(1);
+        ElevatorConfirmEvent expectedConfirmation = captureEvent(e -> e instanceof ElevatorConfirmEvent && ((ElevatorConfirmEvent) e).isConfirming(request));
+        assertEquals(elevatorTwoDescriptor, expectedConfirmation.getElevator());
+        
+        // and: once elevator two stops at the lobby, it takes both of them to their floors
+        sut.onElevatorFloorStop(ElevatorFloorStopEvent.builder().elevator(elevatorTwoDescriptor).floor(1).build());
+        Mockito.verify(elevatorTwo).moveToFloor(20);
+        Mockito.verify(elevatorTwo).moveToFloor(21);
+    }
+    
+    @Test
+    void takesEveryOtherPassengerOnWhenOneDestinationIsInvalid() {
+        // given: elevator two is idle in the lobby
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(1)
+            .build()
+        ));
+        Mockito.doThrow(new InvalidElevatorRequestException("Too high")).when(elevatorTwo).moveToFloor(20);
+        
+        // and: two passengers in the lobby board it, one for a floor it can't go to
+        sut.onElevatorDestinationRequest(new ElevatorDestinationRequestEvent(1, 20));
+        sut.onElevatorDestinationRequest(new ElevatorDestinationRequestEvent(1, 21));
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis()).times(2)).moveToFloor(1);
+        
+        // when: it stops at the lobby
+        sut.onElevatorFloorStop(ElevatorFloorStopEvent.builder().elevator(elevatorTwoDescriptor).floor(1).build());
+        
+        // then: the other passenger is still taken to their floor
+        Mockito.verify(elevatorTwo).moveToFloor(20);
+        Mockito.verify(elevatorTwo).moveToFloor(21);
+    }
+    
+    @Test
+    void keepsAskingForABoardedPassengersDestinationUntilTheElevatorTakesIt() {
+        // given: elevator two is idle in the lobby
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(1)
+            .build()
+        ));
+        
+        // and: two passengers board it in the lobby, but it is full by then, so turns down both their floors (once)
+        Mockito.doThrow(new ElevatorUnavailableException("Full")).doNothing().when(elevatorTwo).moveToFloor(20);
+        Mockito.doThrow(new ElevatorUnavailableException("Full")).when(elevatorTwo).moveToFloor(5);
+        sut.onElevatorDestinationRequest(new ElevatorDestinationRequestEvent(1, 20));
+        sut.onElevatorDestinationRequest(new ElevatorDestinationRequestEvent(1, 5));
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis()).times(2)).moveToFloor(1);
+        sut.onElevatorFloorStop(ElevatorFloorStopEvent.builder().elevator(elevatorTwoDescriptor).floor(1).build());
+        assertEquals(2, sut.overflowedCalls());
+        
+        // when: it next stops (for someone else) at floor 5
+        sut.onElevatorFloorStop(ElevatorFloorStopEvent.builder().elevator(elevatorTwoDescriptor).floor(5).build());
+        
+        // then: the passenger for floor 5 gets off, and the other's floor is asked for again (and taken this time)
+        Mockito.verify(elevatorTwo, Mockito.times(1)).moveToFloor(5);
+        Mockito.verify(elevatorTwo, Mockito.times(2)).moveToFloor(20);
+        
+        // and: isn't asked for again after that
+        sut.onElevatorFloorStop(ElevatorFloorStopEvent.builder().elevator(elevatorTwoDescriptor).floor(12).build());
+        Mockito.verify(elevatorTwo, Mockito.times(2)).moveToFloor(20);
+    }
+    
+    @Test
+    void doesNotBoardPassengersTheElevatorFailedToFetch() {
+        // given: elevator two is idle in the lobby, but fails to take on floor 7 (e.g. a remote car answering FAILED)
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(1)
+            .build()
+        ));
+        Mockito.doThrow(new IllegalStateException("Failed")).when(elevatorTwo).moveToFloor(7);
+        
+        // when: a passenger on floor 7 asks for floor 15
+        sut.onElevatorDestinationRequest(new ElevatorDestinationRequestEvent(7, 15));
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis())).moveToFloor(7);
+        
+        // and: the elevator later stops at floor 7 anyway
+        sut.onElevatorFloorStop(ElevatorFloorStopEvent.builder().elevator(elevatorTwoDescriptor).floor(7).build());
+        
+        // then: it isn't sent on to floor 15 for a passenger that was never told it was coming
+        Mockito.verify(elevatorTwo, Mockito.never()).moveToFloor(15);
+    }
+    
+    @Test
+    void passesOverElevatorsWithNoRoomForAnotherStop() {
+        // given: elevator one is nearest floor 9, but already has the most stops it takes on
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(8)
+            .direction(ElevatorMovingEvent.Direction.UP)
+            .futureStops(Arrays.asList(10, 12))
+            .maxStops(2)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(1)
+            .build()
+        ));
+        
+        // when: a request arrives from floor 9
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(9));
+        
+        // then: elevator two is sent instead (rather than elevator one turning it down)
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis())).moveToFloor(9);
+        Mockito.verify(elevatorOne, Mockito.never()).moveToFloor(9);
+        assertEquals(0, sut.overflowedCalls());
+    }
+    
+    @Test
+    void ignoresStatusThatArrivesAfterANewerOne() {
+        // given: elevator one has moved on to floor 9, but its status from floor 3 arrives late
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(9)
+            .version(2)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(3)
+            .version(1)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(5)
+            .version(1)
+            .build()
+        ));
+        
+        // when: a request arrives from floor 3
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(3));
+        
+        // then: the elector chooses the elevator that is actually closest (which is elevator two)
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis())).moveToFloor(3);
+        Mockito.verify(elevatorOne, Mockito.never()).moveToFloor(3);
+    }
+    
+    @Test
+    void spreadsABatchOfCallsOverTheCars() {
+        // given: calls are assigned in batches
+        VirtualClock clock = new VirtualClock();
+        sut.setClock(clock);
+        sut.setBatchWindow(Duration.ofMillis(100));
+        
+        // and: elevator one is idle at floor 5, elevator two at floor 8
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(5)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(8)
+            .build()
+        ));
+        
+        // when: calls from floors 6 and 4 arrive together (both nearest to elevator one)
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(6));
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(4));
+        Mockito.verify(elevatorOne, Mockito.never()).moveToFloor(Mockito.anyInt());
+        clock.advance();
+        
+        // then: rather than sending elevator one to both, elevator two takes floor 6
+        Mockito.verify(elevatorTwo).moveToFloor(6);
+        Mockito.verify(elevatorOne).moveToFloor(4);
+        Mockito.verify(elevatorOne, Mockito.never()).moveToFloor(6);
+        
+        // and: reports that the calls waited for the window, to save waiting for the elevator
+        ElevatorElector.BatchingReport report = sut.batchingReport();
+        assertEquals(1, report.getBatches());
+        assertEquals(2, report.getDelay().getCount());
+        assertTrue(report.getEstimatedWaitSaved().compareTo(Duration.ZERO) > 0, "Batching saved no waiting: " + report);
+    }
+    
+    @Test
+    void comparesABatchOnlyAgainstCarsWithRoomForItsCalls() {
+        // given: calls are assigned in batches
+        VirtualClock clock = new VirtualClock();
+        sut.setClock(clock);
+        sut.setBatchWindow(Duration.ofMillis(100));
+        
+        // and: elevator one is at floor 5 but has no room for another stop, elevator two is idle at floor 8
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(5)
+            .direction(ElevatorMovingEvent.Direction.UP)
+            .futureStops(Arrays.asList(10))
+            .maxStops(1)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(8)
+            .build()
+        ));
+        
+        // when: calls from floors 6 and 4 arrive together
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(6));
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(4));
+        clock.advance();
+        
+        // then: elevator two takes floor 6, and elevator one neither
+        Mockito.verify(elevatorTwo).moveToFloor(6);
+        Mockito.verify(elevatorOne, Mockito.never()).moveToFloor(Mockito.anyInt());
+        
+        // and: batching isn't reported as costing more waiting than sending elevator one (which couldn't have gone)
+        ElevatorElector.BatchingReport report = sut.batchingReport();
+        assertEquals(Duration.ZERO, report.getEstimatedWaitSaved());
+    }
+    
+    @Test
+    void answersRepeatedCallsWithTheElevatorAlreadyOnItsWay() {
+        // given: 2 elevators in operation
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(3)
+            .build()
+        ));
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorTwoDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(8)
+            .build()
+        ));
+        
+        // when: the UP button on floor 9 is pressed three times
+        ElevatorRequestUpEvent first = new ElevatorRequestUpEvent(9), second = new ElevatorRequestUpEvent(9), third = new ElevatorRequestUpEvent(9);
+        sut.onElevatorRequestUp(first);
+        sut.onElevatorRequestUp(second);
+        sut.onElevatorRequestUp(third);
+        
+        // then: elevator two is only sent once, but every call is confirmed with it
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis())).moveToFloor(9);
+        List<ElevatorConfirmEvent> confirmations = captureEvents(e -> e instanceof ElevatorConfirmEvent, 3);
+        for (ElevatorRequestUpEvent request : Arrays.asList(first, second, third)) {
+            assertTrue(confirmations.stream().anyMatch(c -> c.isConfirming(request) && elevatorTwoDescriptor.equals(c.getElevator())));
+        }
+        assertEquals(2, sut.coalescedHallCalls());
+        
+        // and: once elevator two has stopped there, the next call elects an elevator again
+        sut.onElevatorFloorStop(ElevatorFloorStopEvent.builder().elevator(elevatorTwoDescriptor).floor(9).build());
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(9));
+        Mockito.verify(elevatorTwo, Mockito.timeout(timeout().toMillis()).times(2)).moveToFloor(9);
+    }
+    
+    @Test
+    void electsRepeatedCallsAfreshOnceTheElevatorSentIsOverdue() {
+        // given: hall calls are given up on after 30 seconds
+        VirtualClock clock = new VirtualClock();
+        sut.setClock(clock);
+        sut.setHallCallExpiry(Duration.ofSeconds(30));
+        
+        // and: 1 elevator in operation, sent to answer a call from floor 9
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(3)
+            .build()
+        ));
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(9));
+        Mockito.verify(elevatorOne, Mockito.timeout(timeout().toMillis())).moveToFloor(9);
+        
+        // when: its stop at floor 9 is never seen, and the call is made again after the deadline
+        clock.getScheduler().schedule(() -> {}, 31, TimeUnit.SECONDS);
+        clock.advance();
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(9));
+        
+        // then: the call isn't coalesced onto the overdue elevator, but elected (and the elevator tasked) again
+        Mockito.verify(elevatorOne, Mockito.timeout(timeout().toMillis()).times(2)).moveToFloor(9);
+        assertEquals(0, sut.coalescedHallCalls());
+        assertEquals(1, sut.expiredHallCalls());
+    }
+    
+    @Test
+    void answersNoAvailableElevatorWhenTheElectedOneIsFull() {
+        // given: 1 elevator in operation, which has all the stops it can take
+        sut.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+            .descriptor(elevatorOneDescriptor)
+            .operationalState(ElevatorOperationalState.OPERATIONAL)
+            .currentFloor(3)
+            .build()
+        ));
+        Mockito.doThrow(new ElevatorUnavailableException("Full")).when(elevatorOne).moveToFloor(9);
+        
+        // when: a request arrives
+        ElevatorRequestUpEvent request = new ElevatorRequestUpEvent(9);
+        sut.onElevatorRequestUp(request);
+        
+        // then: the elector answers that no elevator is available (rather than with an error)
+        ElevatorConfirmEvent expectedConfirmation = captureEvent(ElevatorConfirmEvent.class);
+        assertTrue(expectedConfirmation.isConfirming(request), "Confirmation did not carry the original request.");
+        assertEquals(ElevatorConfirmEvent.Result.NO_AVAILABLE_ELEVATOR, expectedConfirmation.getResult());
+        assertEquals(1, sut.overflowedCalls());
+        
+        // and: the call isn't left waiting on the elevator that turned it down, so calling again elects it again
+        sut.onElevatorRequestUp(new ElevatorRequestUpEvent(9));
+        Mockito.verify(elevatorOne, Mockito.timeout(timeout().toMillis()).times(2)).moveToFloor(9);
+        assertEquals(0, sut.coalescedHallCalls());
+        assertEquals(2, sut.overflowedCalls());
+    }
+    
+    @Test
+    void answersNoAvailableElevatorWhenThereAreNone() {
+        // given: no elevators have reported their status
+        
+        // when: a request arrives
+        ElevatorRequestUpEvent request = new ElevatorRequestUpEvent(9);
+        sut.onElevatorRequestUp(request);
+        
+        // then: the elector answers that no elevator is available
+        ElevatorConfirmEvent expectedConfirmation = captureEvent(ElevatorConfirmEvent.class);
+        assertTrue(expectedConfirmation.isConfirming(request), "Confirmation did not carry the original request.");
+        assertEquals(ElevatorConfirmEvent.Result.NO_AVAILABLE_ELEVATOR, expectedConfirmation.getResult());
+    }
+    
     private <E> E captureEvent(Class type) {
         return captureEvent((it) -> type.isAssignableFrom(it.getClass()));
     }
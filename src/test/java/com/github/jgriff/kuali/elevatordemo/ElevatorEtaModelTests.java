@@ -0,0 +1,114 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class ElevatorEtaModelTests {
+    private ElevatorEtaModel sut = new ElevatorEtaModel();
+
+    private ElevatorDescriptor one = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator One").build();
+    private ElevatorDescriptor two = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator Two").build();
+
+    @Test
+    @DisplayName("an idle elevator comes straight to the floor")
+    void idle() {
+        sut.update(status(one, 3, null, Collections.emptyList()));
+
+        assertEquals(Optional.of(Duration.ofSeconds(10)), sut.eta(one.getId(), 8, Direction.UP));
+        assertEquals(Optional.of(Duration.ZERO), sut.eta(one.getId(), 3, Direction.DOWN));
+    }
+
+    @Test
+    @DisplayName("stops on the way to the floor hold the elevator up")
+    void stopsOnTheWay() {
+        sut.update(status(one, 3, Direction.UP, Arrays.asList(5, 9, 4)));
+
+        // 4 floors, stopping at 4 and 5 on the way
+        assertEquals(Optional.of(Duration.ofSeconds(8 + 10)), sut.eta(one.getId(), 7, Direction.UP));
+    }
+
+    @Test
+    @DisplayName("an elevator heading away finishes its sweep, then comes back")
+    void headingAway() {
+        sut.update(status(one, 3, Direction.UP, Arrays.asList(5, 1)));
+
+        // up to 5 (stopping there), then down to 4 for the caller going DOWN
+        assertEquals(Optional.of(Duration.ofSeconds(4 + 5 + 2)), sut.eta(one.getId(), 4, Direction.DOWN));
+        // up to 5, then down past the caller to 1 (stopping at both), then back up to 2 for the caller going UP
+        assertEquals(Optional.of(Duration.ofSeconds(4 + 5 + 8 + 5 + 2)), sut.eta(one.getId(), 2, Direction.UP));
+    }
+
+    @Test
+    @DisplayName("finds the elevator arriving soonest, rather than the nearest")
+    void soonest() {
+        sut.update(status(one, 6, Direction.UP, Arrays.asList(7, 8, 9, 10)));
+        sut.update(status(two, 1, null, Collections.emptyList()));
+
+        assertEquals(Optional.of(two.getId()), sut.soonest(10, Direction.UP));
+        assertEquals(Optional.of(one.getId()), sut.soonest(7, Direction.UP));
+    }
+
+    @Test
+    @DisplayName("looks past the nearest elevator for a faster one further away")
+    void fasterFurtherAway() {
+        sut.update(idle(one, 5, Duration.ofSeconds(10)));
+        sut.update(idle(two, 1, Duration.ofSeconds(1)));
+
+        assertEquals(Optional.of(two.getId()), sut.soonest(6, Direction.UP));
+
+        // and: once the faster one is gone, the nearer one is found again
+        sut.remove(two.getId());
+        assertEquals(Optional.of(one.getId()), sut.soonest(6, Direction.UP));
+    }
+
+    @Test
+    @DisplayName("forgets elevators that are out of service")
+    void outOfService() {
+        sut.update(status(one, 3, null, Collections.emptyList()));
+        sut.update(ElevatorStatus.builder()
+                .descriptor(one)
+                .operationalState(ElevatorOperationalState.MAINTENANCE)
+                .currentFloor(3)
+                .build());
+
+        assertFalse(sut.eta(one.getId(), 3, Direction.UP).isPresent());
+        assertFalse(sut.soonest(3, Direction.UP).isPresent());
+    }
+
+    private static ElevatorStatus idle(ElevatorDescriptor elevator, int floor, Duration movementSpeed) {
+        return ElevatorStatus.builder()
+                .descriptor(elevator)
+                .operationalState(ElevatorOperationalState.OPERATIONAL)
+                .currentFloor(floor)
+                .futureStops(Collections.emptyList())
+                .movementSpeed(movementSpeed)
+                .doorOpenDelay(Duration.ofSeconds(5))
+                .build();
+    }
+
+    private static ElevatorStatus status(ElevatorDescriptor elevator, int floor, Direction direction, List<Integer> stops) {
+        return ElevatorStatus.builder()
+                .descriptor(elevator)
+                .operationalState(ElevatorOperationalState.OPERATIONAL)
+                .currentFloor(floor)
+                .direction(direction)
+                .futureStops(stops)
+                .movementSpeed(Duration.ofSeconds(2))
+                .doorOpenDelay(Duration.ofSeconds(5))
+                .build();
+    }
+}
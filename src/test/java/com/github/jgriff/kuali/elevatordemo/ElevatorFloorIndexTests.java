@@ -0,0 +1,87 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class ElevatorFloorIndexTests {
+    private ElevatorFloorIndex sut = new ElevatorFloorIndex();
+
+    private ElevatorDescriptor one = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator One").build();
+    private ElevatorDescriptor two = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator Two").build();
+
+    @Test
+    @DisplayName("walks the elevators nearest the floor first, above or below it")
+    void walksNearestFirst() {
+        sut.update(status(one, 3, null));
+        sut.update(status(two, 8, Direction.UP));
+
+        assertEquals(Arrays.asList(one.getId(), two.getId()), nearestFirst(4));
+        assertEquals(Arrays.asList(two.getId(), one.getId()), nearestFirst(9));
+        assertEquals(Arrays.asList(two.getId(), one.getId()), nearestFirst(6));
+    }
+
+    @Test
+    @DisplayName("follows an elevator as it moves, rather than remembering where it was")
+    void followsMovingElevator() {
+        sut.update(status(one, 3, null));
+        sut.update(status(two, 10, null));
+        sut.update(status(one, 20, Direction.UP));
+
+        assertEquals(Arrays.asList(two.getId(), one.getId()), nearestFirst(4));
+        assertFalse(sut.stoppedAt(3).isPresent(), "Elevator one is no longer stopped at floor 3.");
+    }
+
+    @Test
+    @DisplayName("only finds idle elevators stopped at a floor")
+    void findsStoppedAt() {
+        sut.update(status(one, 5, Direction.UP));
+        sut.update(status(two, 5, null));
+
+        assertEquals(Optional.of(two.getId()), sut.stoppedAt(5));
+        assertFalse(sut.stoppedAt(6).isPresent());
+    }
+
+    @Test
+    @DisplayName("drops elevators that go into maintenance")
+    void dropsElevatorsInMaintenance() {
+        sut.update(status(one, 5, null));
+        sut.update(ElevatorStatus.builder()
+                .descriptor(one)
+                .operationalState(ElevatorOperationalState.MAINTENANCE)
+                .currentFloor(5)
+                .build());
+
+        assertFalse(sut.nearestFirst(5).hasNext());
+        assertFalse(sut.stoppedAt(5).isPresent());
+    }
+
+    private List<UUID> nearestFirst(int floor) {
+        List<UUID> elevators = new ArrayList<>();
+        sut.nearestFirst(floor).forEachRemaining(at -> elevators.addAll(at.getValue()));
+        return elevators;
+    }
+
+    private static ElevatorStatus status(ElevatorDescriptor elevator, int floor, Direction direction) {
+        return ElevatorStatus.builder()
+                .descriptor(elevator)
+                .operationalState(ElevatorOperationalState.OPERATIONAL)
+                .currentFloor(floor)
+                .futureStops(Collections.emptyList())
+                .direction(direction)
+                .build();
+    }
+}
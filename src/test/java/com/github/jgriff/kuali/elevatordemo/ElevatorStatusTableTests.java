@@ -0,0 +1,88 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class ElevatorStatusTableTests {
+    private ElevatorStatusTable sut = new ElevatorStatusTable();
+
+    private ElevatorDescriptor one = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator One").build();
+
+    @Test
+    @DisplayName("a newer status replaces an older one")
+    void takesNewerStatus() {
+        assertTrue(sut.update(status(one, 3, 1)));
+        assertTrue(sut.update(status(one, 4, 2)));
+
+        assertEquals(Optional.of(4), sut.get(one.getId()).map(ElevatorStatus::getCurrentFloor));
+    }
+
+    @Test
+    @DisplayName("an older status arriving late never replaces a newer one")
+    void dropsStaleStatus() {
+        sut.update(status(one, 4, 2));
+
+        assertFalse(sut.update(status(one, 3, 1)));
+        assertFalse(sut.update(status(one, 5, 2)), "A status with the same version is a duplicate.");
+        assertEquals(Optional.of(4), sut.get(one.getId()).map(ElevatorStatus::getCurrentFloor));
+    }
+
+    @Test
+    @DisplayName("statuses without a version are always taken, and replaced by the next versioned one")
+    void takesUnversionedStatus() {
+        sut.update(status(one, 4, 2));
+
+        assertTrue(sut.update(status(one, 7, ElevatorStatus.UNVERSIONED)));
+        assertTrue(sut.update(status(one, 8, 1)));
+        assertEquals(Optional.of(8), sut.get(one.getId()).map(ElevatorStatus::getCurrentFloor));
+    }
+
+    @Test
+    @DisplayName("racing updates always leave the newest status")
+    void keepsNewestUnderContention() throws Exception {
+        int threads = 4, versions = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                executor.submit(() -> {
+                    start.await();
+                    for (int v = 1 + offset; v <= versions; v += threads) {
+                        sut.update(status(one, v, v));
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(Optional.of((long) versions), sut.get(one.getId()).map(ElevatorStatus::getVersion));
+    }
+
+    private static ElevatorStatus status(ElevatorDescriptor elevator, int floor, long version) {
+        return ElevatorStatus.builder()
+                .descriptor(elevator)
+                .operationalState(ElevatorOperationalState.OPERATIONAL)
+                .currentFloor(floor)
+                .version(version)
+                .build();
+    }
+}
@@ -6,11 +6,14 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
 import java.util.function.Predicate;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -213,6 +216,26 @@ public class ElevatorTests implements MockitoTest, EventTest {
         assertEquals(1, ((ElevatorFloorStopEvent)expectedEvents.get(3)).getFloor());
     }
     
+    @Test
+    @DisplayName("events that fail to publish don't stop the elevator")
+    void keepsMovingWhenPublishingFails() {
+        // given: every 'pass' event fails to publish (ie, the event bus refused it)
+        Mockito.doThrow(new EventBusOverflowException("Full"))
+                .when(eventPublisher).publishEvent(Mockito.any(ElevatorFloorPassEvent.class));
+        
+        // when: a request is made to move past a few floors
+        sut.moveToFloor(4);
+        
+        // then: the elevator still gets there
+        ElevatorFloorStopEvent stop = captureEvent(ElevatorFloorStopEvent.class);
+        assertEquals(4, stop.getFloor());
+        
+        // and: keeps taking stops after that
+        sut.moveToFloor(6);
+        List<ElevatorFloorStopEvent> stops = captureEvents(e -> e instanceof ElevatorFloorStopEvent, 2);
+        assertEquals(6, stops.get(1).getFloor());
+    }
+    
     @Test
     @DisplayName("requesting floor below first floor raises an 'InvalidElevatorRequestException'")
     void requestFloorBelowFirstRaisesException() {
@@ -229,11 +252,76 @@ public class ElevatorTests implements MockitoTest, EventTest {
         assertEquals("Cannot go to floor '11', it is above the top floor (10).", thrown.getLocalizedMessage());
     }
     
+    @Test
+    @DisplayName("requesting a stop beyond the most it takes on raises an 'ElevatorUnavailableException'")
+    void requestBeyondMaxStopsRaisesException() {
+        BasicElevator elevator = BasicElevator.builder()
+                .maxStops(2)
+                .clock(new VirtualClock()) // never advanced, so the elevator stays put with its stops
+                .eventPublisher(eventPublisher)
+                .build();
+        elevator.moveToFloor(5);
+        elevator.moveToFloor(7);
+        
+        ElevatorUnavailableException thrown = assertThrows(ElevatorUnavailableException.class, () -> elevator.moveToFloor(9));
+        
+        assertEquals("Cannot go to floor '9', already have the most stops (2).", thrown.getLocalizedMessage());
+        assertEquals(Arrays.asList(5, 7), elevator.getFloorsToStopAt().toList());
+        assertEquals(1, elevator.getRejectedStopCount());
+        
+        // and: a stop it already has is still fine
+        elevator.moveToFloor(7);
+    }
+    
+    @Test
+    @DisplayName("stops requested at the same time never take it beyond the most it takes on")
+    void concurrentRequestsNeverExceedMaxStops() throws InterruptedException {
+        for (int round = 0; round < 100; round++) {
+            BasicElevator elevator = BasicElevator.builder()
+                    .maxStops(3)
+                    .clock(new VirtualClock()) // never advanced, so the elevator stays put with its stops
+                    .eventPublisher(eventPublisher)
+                    .build();
+            elevator.moveToFloor(10);
+            
+            // when: 8 callers race for the 2 stops it has room for
+            CountDownLatch start = new CountDownLatch(1);
+            List<Thread> callers = new ArrayList<>();
+            for (int floor = 2; floor < 10; floor++) {
+                int requested = floor;
+                Thread caller = new Thread(() -> {
+                    try {
+                        start.await();
+                        elevator.moveToFloor(requested);
+                    } catch (InterruptedException | ElevatorUnavailableException e) {
+                        // turned down
+                    }
+                });
+                caller.start();
+                callers.add(caller);
+            }
+            start.countDown();
+            for (Thread caller : callers) {
+                caller.join();
+            }
+            
+            // then: exactly 2 got in, and the rest were turned down
+            assertEquals(3, elevator.getFloorsToStopAt().size(), "Stops: " + elevator.getFloorsToStopAt());
+            assertEquals(6, elevator.getRejectedStopCount());
+        }
+    }
+    
     @Test
     void descriptorHasDefaultId() {
         assertNotNull(BasicElevator.builder().build().describe().getId());
     }
     
+    @Test
+    void descriptorIsTheSameForEveryEvent() {
+        BasicElevator elevator = BasicElevator.builder().build();
+        assertSame(elevator.describe(), elevator.describe());
+    }
+    
     @Test
     void descriptorHasDefaultName() {
         assertEquals("Basic Elevator", BasicElevator.builder().build().describe().getName());
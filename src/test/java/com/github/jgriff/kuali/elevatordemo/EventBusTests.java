@@ -0,0 +1,196 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorFloorPassEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.PayloadApplicationEvent;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class EventBusTests implements TimedTest {
+    private PartitionedEventBus sut = PartitionedEventBus.builder()
+            .partitions(4)
+            .queueCapacity(2)
+            .build();
+
+    private ElevatorDescriptor elevator = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator One").build();
+    private List<ElevatorFloorPassEvent> received = new CopyOnWriteArrayList<>();
+    private CountDownLatch released = new CountDownLatch(1);
+
+    @AfterEach
+    void shutdownBus() {
+        released.countDown();
+        sut.shutdown();
+    }
+
+    @Test
+    @DisplayName("producers are not held up by a slow subscriber")
+    void producersDoNotWaitOnSubscribers() {
+        sut.addApplicationListener(this::slowlyReceive);
+
+        // when: an event is published to a subscriber that is stuck
+        sut.multicastEvent(passing(2));
+
+        // then: we get control back right away, and the subscriber receives it once it gets going again
+        assertTrue(received.isEmpty());
+        released.countDown();
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> received.size() == 1);
+    }
+
+    @Test
+    @DisplayName("a subscriber receives the events for an elevator in the order they were published")
+    void deliversInOrderPerElevator() {
+        PartitionedEventBus sut = PartitionedEventBus.builder().partitions(4).build();
+        sut.addApplicationListener(this::slowlyReceive);
+        released.countDown();
+
+        Arrays.asList(2, 3, 4, 5, 6, 7, 8).forEach(floor -> sut.multicastEvent(passing(floor)));
+
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> received.size() == 7);
+        assertEquals(Arrays.asList(2, 3, 4, 5, 6, 7, 8),
+                received.stream().map(ElevatorFloorPassEvent::getFloor).collect(Collectors.toList()));
+        sut.shutdown();
+    }
+
+    @Test
+    @DisplayName("events beyond a subscriber's queue capacity are dropped, rather than holding up the producer, when the topic allows")
+    void dropsEventsWhenSubscriberQueueIsFull() {
+        PartitionedEventBus sut = PartitionedEventBus.builder()
+                .partitions(4)
+                .queueCapacity(2)
+                .topicOverflow(ElevatorFloorPassEvent.class, PartitionedEventBus.Overflow.DROP_NEWEST)
+                .build();
+        sut.addApplicationListener(this::slowlyReceive);
+
+        Arrays.asList(2, 3, 4, 5, 6).forEach(floor -> sut.multicastEvent(passing(floor)));
+
+        // then: some were dropped (the subscriber is stuck on the first, and its queue only holds 2 more)
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> sut.getDroppedCount() >= 2);
+
+        // and: everything else is still delivered
+        released.countDown();
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> received.size() + sut.getDroppedCount() == 5);
+        sut.shutdown();
+    }
+
+    @Test
+    @DisplayName("by default, the bus (never the producer) waits for room in a full queue, so no event is lost")
+    void waitsForRoomWhenSubscriberQueueIsFull() {
+        sut.addApplicationListener(this::slowlyReceive);
+
+        // when: more events are published than the stuck subscriber has room for
+        Arrays.asList(2, 3, 4, 5, 6).forEach(floor -> sut.multicastEvent(passing(floor)));
+
+        // then: the producer got control back right away, and once the subscriber gets going again, every event is
+        // delivered (in order)
+        assertTrue(received.isEmpty());
+        released.countDown();
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> received.size() == 5);
+        assertEquals(Arrays.asList(2, 3, 4, 5, 6),
+                received.stream().map(ElevatorFloorPassEvent::getFloor).collect(Collectors.toList()));
+        assertEquals(0, sut.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("a subscriber stuck for longer than the block timeout misses events, rather than anyone being told")
+    void dropsEventsForStuckSubscriber() {
+        PartitionedEventBus sut = PartitionedEventBus.builder()
+                .partitions(1)
+                .queueCapacity(1)
+                .blockTimeout(Duration.ofMillis(50))
+                .build();
+        sut.addApplicationListener(this::slowlyReceive);
+
+        // when: the stuck subscriber is given one more event than it has room for
+        Arrays.asList(2, 3, 4).forEach(floor -> sut.multicastEvent(passing(floor)));
+
+        // then: it misses that one (and only that one)
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> sut.getDroppedCount() == 1);
+        released.countDown();
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> received.size() == 2);
+        assertEquals(Arrays.asList(2, 3), received.stream().map(ElevatorFloorPassEvent::getFloor).collect(Collectors.toList()));
+        sut.shutdown();
+    }
+
+    @Test
+    @DisplayName("a subscriber publishing to its own full queue is not held up")
+    void subscriberPublishingToItselfDoesNotDeadlock() {
+        PartitionedEventBus sut = PartitionedEventBus.builder().partitions(1).queueCapacity(1).build();
+        sut.addApplicationListener((ApplicationEvent event) -> {
+            ElevatorFloorPassEvent pass = (ElevatorFloorPassEvent) ((PayloadApplicationEvent<?>) event).getPayload();
+            received.add(pass);
+            if (pass.getFloor() == 2) {
+                Arrays.asList(3, 4, 5).forEach(floor -> sut.multicastEvent(passing(floor)));
+            }
+        });
+
+        sut.multicastEvent(passing(2));
+
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> received.size() == 4);
+        assertEquals(Arrays.asList(2, 3, 4, 5),
+                received.stream().map(ElevatorFloorPassEvent::getFloor).collect(Collectors.toList()));
+        sut.shutdown();
+    }
+
+    @Test
+    @DisplayName("an 'ERROR' topic refuses an event no subscriber has room for, without giving it to any of them")
+    void errorRefusesEventBeforeDeliveringToAnySubscriber() throws InterruptedException {
+        PartitionedEventBus sut = PartitionedEventBus.builder()
+                .partitions(1)
+                .queueCapacity(1)
+                .defaultOverflow(PartitionedEventBus.Overflow.ERROR)
+                .build();
+        CountDownLatch stuck = new CountDownLatch(1);
+        sut.addApplicationListener((ApplicationEvent event) -> {
+            stuck.countDown();
+            slowlyReceive(event);
+        });
+        // (handed events after the slow subscriber, so once it has one, the slow subscriber has been handed it too)
+        List<ElevatorFloorPassEvent> quick = new CopyOnWriteArrayList<>();
+        sut.addApplicationListener((ApplicationEvent event) -> quick.add((ElevatorFloorPassEvent) ((PayloadApplicationEvent<?>) event).getPayload()));
+
+        // given: the slow subscriber is stuck on one event, with another waiting in its queue
+        sut.multicastEvent(passing(2));
+        assertTrue(stuck.await(timeout().getSeconds(), SECONDS));
+        sut.multicastEvent(passing(3));
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> quick.size() == 2);
+
+        // when: one more is published
+        assertThrows(EventBusOverflowException.class, () -> sut.multicastEvent(passing(4)));
+
+        // then: not even the quick subscriber got it
+        released.countDown();
+        await().atMost(timeout().getSeconds(), SECONDS).until(() -> received.size() == 2);
+        assertEquals(2, quick.size());
+        sut.shutdown();
+    }
+
+    private ApplicationEvent passing(int floor) {
+        return new PayloadApplicationEvent<>(this, ElevatorFloorPassEvent.builder().elevator(elevator).floor(floor).build());
+    }
+
+    private void slowlyReceive(ApplicationEvent event) {
+        try {
+            released.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        received.add((ElevatorFloorPassEvent) ((PayloadApplicationEvent<?>) event).getPayload());
+    }
+}
@@ -0,0 +1,202 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class EventJournalTests {
+    private final ElevatorDescriptor elevator = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator 1").build();
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("journal");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("every kind of event decodes to what was encoded, ids and all")
+    void codecRoundTrip() {
+        List<Object> events = events();
+        EventCodec codec = new EventCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int i = 0; i < events.size(); i++) {
+            codec.encode(events.get(i), i, buffer);
+        }
+
+        buffer.flip();
+        for (int i = 0; i < events.size(); i++) {
+            EventCodec.Entry entry = codec.decode(buffer);
+            assertEquals(i, entry.getTimestamp());
+            assertEquals(events.get(i), entry.getEvent());
+        }
+        assertNull(codec.decode(buffer));
+    }
+
+    @Test
+    @DisplayName("a move command keeps its id, so the reply decoded with it can be matched to it")
+    void codecRoundTripOfCommandAndReply() {
+        ElevatorMoveCommand command = new ElevatorMoveCommand(elevator, 7);
+        ElevatorMoveReply reply = ElevatorMoveReply.to(command, ElevatorMoveReply.Result.UNAVAILABLE);
+        EventCodec codec = new EventCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        codec.encode(command, 0, buffer);
+        codec.encode(reply, 0, buffer);
+
+        buffer.flip();
+        assertEquals(command, codec.decode(buffer).getEvent());
+        ElevatorMoveReply decoded = (ElevatorMoveReply) codec.decode(buffer).getEvent();
+        assertEquals(command.getId(), decoded.getCommandId());
+        assertEquals(elevator, decoded.getElevator());
+        assertEquals(ElevatorMoveReply.Result.UNAVAILABLE, decoded.getResult());
+    }
+
+    @Test
+    @DisplayName("an event that doesn't fit leaves the buffer as it was")
+    void codecOverflow() {
+        ByteBuffer buffer = ByteBuffer.allocate(EventCodec.HEADER_SIZE + 4);
+
+        assertThrows(BufferOverflowException.class, () -> new EventCodec().encode(new ElevatorFloorStopEvent(elevator, 1), 0, buffer));
+        assertEquals(0, buffer.position());
+    }
+
+    @Test
+    @DisplayName("an event that doesn't even leave room for its length is an overflow, too")
+    void codecOverflowWithoutRoomForLength() {
+        for (int left = 0; left < 4; left++) {
+            ByteBuffer buffer = ByteBuffer.allocate(left);
+
+            assertThrows(BufferOverflowException.class, () -> new EventCodec().encode(new ElevatorFloorStopEvent(elevator, 1), 0, buffer));
+            assertEquals(0, buffer.position());
+        }
+    }
+
+    @Test
+    @DisplayName("segments roll over when records fill them to within a few bytes of the end")
+    void rollsOverWhenRecordsFillSegmentExactly() throws Exception {
+        ByteBuffer measure = ByteBuffer.allocate(256);
+        new EventCodec().encode(new ElevatorFloorPassEvent(elevator, 1), 0, measure);
+        int recordSize = measure.position();
+
+        for (int left = 0; left < 4; left++) {
+            Path segments = Files.createDirectory(directory.resolve("left-" + left));
+            EventJournal journal = EventJournal.builder().directory(segments).segmentSize(8 + 4 * recordSize + left).maxSegments(100).build();
+            journal.start();
+            IntStream.range(0, 20).mapToObj(floor -> new ElevatorFloorPassEvent(elevator, floor)).forEach(journal::onElevatorOperation);
+            await().until(() -> journal.getWrittenCount() + journal.getDroppedCount() == 20);
+            journal.close();
+
+            assertEquals(0, journal.getDroppedCount(), "Dropped events with " + left + " bytes left in a segment.");
+            assertEquals(5, EventJournal.segments(segments).size());
+            assertEquals(IntStream.range(0, 20).boxed().collect(Collectors.toList()), EventJournal.read(segments)
+                    .map(e -> ((ElevatorFloorPassEvent) e.getEvent()).getFloor())
+                    .collectList().block());
+        }
+    }
+
+    @Test
+    @DisplayName("journaled events are read back in the order they were published")
+    void readsBackWhatWasJournaled() throws Exception {
+        EventJournal journal = EventJournal.builder().directory(directory).build();
+        journal.start();
+        List<Object> events = events();
+        events.forEach(publishTo(journal));
+        journal.close();
+
+        List<Object> read = EventJournal.read(directory).map(EventCodec.Entry::getEvent).collectList().block();
+        assertEquals(events, read);
+        assertEquals(events.size(), journal.getWrittenCount());
+        assertEquals(0, journal.getDroppedCount());
+    }
+
+    @Test
+    @DisplayName("segments roll over when full, and only the most recent are kept")
+    void rollsOverAndRetains() throws Exception {
+        EventJournal journal = EventJournal.builder().directory(directory).segmentSize(256).maxSegments(3).build();
+        journal.start();
+        IntStream.range(0, 100).mapToObj(floor -> new ElevatorFloorPassEvent(elevator, floor)).forEach(journal::onElevatorOperation);
+        await().until(() -> journal.getWrittenCount() == 100);
+        journal.close();
+
+        assertEquals(3, EventJournal.segments(directory).size());
+        List<Integer> floors = EventJournal.read(directory)
+                .map(e -> ((ElevatorFloorPassEvent) e.getEvent()).getFloor())
+                .collectList().block();
+        // the oldest are gone, but what's left is the most recent, in order
+        assertEquals(99, (int) floors.get(floors.size() - 1));
+        assertEquals(IntStream.rangeClosed(100 - floors.size(), 99).boxed().collect(Collectors.toList()), floors);
+    }
+
+    @Test
+    @DisplayName("a restarted journal carries on in a new segment, after the old ones")
+    void restartsInNewSegment() throws Exception {
+        EventJournal first = EventJournal.builder().directory(directory).build();
+        first.start();
+        first.onElevatorRequest(new ElevatorRequestUpEvent(1));
+        first.close();
+
+        EventJournal second = EventJournal.builder().directory(directory).build();
+        second.start();
+        second.onElevatorRequest(new ElevatorRequestDownEvent(2));
+        second.close();
+
+        assertEquals(2, EventJournal.segments(directory).size());
+        assertEquals(Arrays.asList(1, 2), EventJournal.read(directory)
+                .map(e -> ((ElevatorRequestEvent) e.getEvent()).getRequestFloor())
+                .collectList().block());
+    }
+
+    private Consumer<Object> publishTo(EventJournal journal) {
+        return event -> {
+            if (event instanceof ElevatorOperationEvent) journal.onElevatorOperation((ElevatorOperationEvent) event);
+            else if (event instanceof ElevatorRequestEvent) journal.onElevatorRequest((ElevatorRequestEvent) event);
+            else journal.onElevatorConfirm((ElevatorConfirmEvent) event);
+        };
+    }
+
+    private List<Object> events() {
+        ElevatorRequestEvent request = new ElevatorRequestUpEvent(3);
+        return Arrays.asList(
+                request,
+                new ElevatorRequestDownEvent(7),
+                new ElevatorDestinationRequestEvent(2, 9),
+                ElevatorConfirmEvent.confirming(request, elevator),
+                ElevatorConfirmEvent.confirming(request, elevator, Duration.ofSeconds(12)),
+                ElevatorConfirmEvent.noElevatorAvailableFor(request),
+                new ElevatorMovingEvent(elevator, ElevatorMovingEvent.Direction.UP, 4),
+                new ElevatorFloorPassEvent(elevator, 2),
+                new ElevatorFloorStopEvent(elevator, 3),
+                new ElevatorDoorOpenEvent(elevator, 3),
+                new ElevatorDoorCloseEvent(elevator, 3));
+    }
+}
@@ -0,0 +1,193 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorConfirmEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestUpEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorStatusUpdateEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Links two "JVMs" (an elector's side, and an elevator's) over loopback.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class EventLinkTests {
+    private final ElevatorDescriptor descriptor = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator 1").build();
+    private final Elevator elevator = mock(Elevator.class);
+
+    private final List<Object> electorSideEvents = new CopyOnWriteArrayList<>();
+    private final ElevatorRegistry electorSideRegistry = BasicElevatorRegistry.builder().eventPublisher(event -> {}).build();
+    private final EventLink electorSide = EventLink.builder().eventPublisher(electorSideEvents::add).registry(electorSideRegistry).build();
+
+    private final List<Object> elevatorSideEvents = new CopyOnWriteArrayList<>();
+    private final ElevatorRegistry elevatorSideRegistry = BasicElevatorRegistry.builder().eventPublisher(event -> {}).build();
+    private final EventLink elevatorSide = EventLink.builder().eventPublisher(elevatorSideEvents::add).registry(elevatorSideRegistry).build();
+
+    @BeforeEach
+    void link() throws Exception {
+        when(elevator.describe()).thenReturn(descriptor);
+        elevatorSideRegistry.register(elevator);
+
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            CompletableFuture<Void> accepted = CompletableFuture.runAsync(() -> {
+                try {
+                    electorSide.accept(server);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            elevatorSide.connect(server.getInetAddress().getHostAddress(), server.getLocalPort());
+            accepted.get();
+        }
+    }
+
+    @AfterEach
+    void unlink() {
+        elevatorSide.close();
+        electorSide.close();
+    }
+
+    @Test
+    @DisplayName("the other side's elevators are registered, and tasking one sends it a command")
+    void remoteElevatorsAreTaskable() {
+        await().until(() -> electorSideRegistry.lookup(descriptor.getId()).isPresent());
+
+        electorSideRegistry.lookup(descriptor.getId()).get().moveToFloor(5);
+
+        Mockito.verify(elevator, Mockito.timeout(5000)).moveToFloor(5);
+    }
+
+    @Test
+    @DisplayName("a stop the remote elevator turns down fails on our side, as it would locally, and the link carries on")
+    void remoteRejectionsAreThrown() {
+        await().until(() -> electorSideRegistry.lookup(descriptor.getId()).isPresent());
+        Elevator remote = electorSideRegistry.lookup(descriptor.getId()).get();
+        Mockito.doThrow(new ElevatorUnavailableException("Full")).when(elevator).moveToFloor(7);
+        Mockito.doThrow(new InvalidElevatorRequestException("No such floor")).when(elevator).moveToFloor(99);
+
+        assertThrows(ElevatorUnavailableException.class, () -> remote.moveToFloor(7));
+        assertThrows(InvalidElevatorRequestException.class, () -> remote.moveToFloor(99));
+
+        remote.moveToFloor(5);
+        Mockito.verify(elevator).moveToFloor(5);
+        assertTrue(electorSide.isConnected());
+        assertTrue(elevatorSide.isConnected());
+    }
+
+    @Test
+    @DisplayName("a call the remote elevator turns down is answered with no elevator available, rather than as confirmed")
+    void remoteRejectionsFailTheCall() {
+        await().until(() -> electorSideRegistry.lookup(descriptor.getId()).isPresent());
+        Mockito.doThrow(new ElevatorUnavailableException("Full")).when(elevator).moveToFloor(7);
+        ElevatorElector elector = new ElevatorElector();
+        elector.setEventPublisher(electorSideEvents::add);
+        elector.setRegistry(electorSideRegistry);
+        elector.onElevatorStatusUpdate(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+                .descriptor(descriptor)
+                .operationalState(ElevatorOperationalState.OPERATIONAL)
+                .currentFloor(3)
+                .futureStops(Collections.emptyList())
+                .build()));
+
+        ElevatorRequestUpEvent request = new ElevatorRequestUpEvent(7);
+        elector.onElevatorRequestUp(request);
+
+        await().until(() -> electorSideEvents.stream().anyMatch(e -> e instanceof ElevatorConfirmEvent));
+        ElevatorConfirmEvent confirmation = (ElevatorConfirmEvent) electorSideEvents.stream()
+                .filter(e -> e instanceof ElevatorConfirmEvent).findFirst().get();
+        assertTrue(confirmation.isConfirming(request));
+        assertEquals(ElevatorConfirmEvent.Result.NO_AVAILABLE_ELEVATOR, confirmation.getResult());
+        assertEquals(1, elector.overflowedCalls());
+    }
+
+    @Test
+    @DisplayName("a remote elevator in one of the elector's banks is elected for calls, just like a local one")
+    void remoteElevatorsAreElected() {
+        await().until(() -> electorSideRegistry.lookup(descriptor.getId()).isPresent());
+        BankRouter banks = BankRouter.builder()
+                .bank(ElevatorBank.builder().name("Bank 1").lowestFloor(1).highestFloor(10).elevator(descriptor.getId()).build())
+                .eventPublisher(electorSideEvents::add)
+                .registry(electorSideRegistry)
+                .build();
+        try {
+            // when: the elevator reports in over the link, and a call is made on the elector's side
+            elevatorSide.onEvent(ElevatorStatusUpdateEvent.forStatus(ElevatorStatus.builder()
+                    .descriptor(descriptor)
+                    .operationalState(ElevatorOperationalState.OPERATIONAL)
+                    .currentFloor(3)
+                    .futureStops(Collections.emptyList())
+                    .build()));
+            await().until(() -> electorSideEvents.stream().anyMatch(e -> e instanceof ElevatorStatusUpdateEvent));
+            banks.onElevatorStatusUpdate((ElevatorStatusUpdateEvent) electorSideEvents.stream()
+                    .filter(e -> e instanceof ElevatorStatusUpdateEvent).findFirst().get());
+            banks.onElevatorRequestUp(new ElevatorRequestUpEvent(7));
+
+            // then: the elevator (on the other side) is sent
+            Mockito.verify(elevator, Mockito.timeout(5000)).moveToFloor(7);
+        } finally {
+            banks.close();
+        }
+    }
+
+    @Test
+    @DisplayName("statuses are published on the other side, just as they were sent")
+    void statusesArePublishedRemotely() {
+        ElevatorStatus status = ElevatorStatus.builder()
+                .descriptor(descriptor)
+                .operationalState(ElevatorOperationalState.OPERATIONAL)
+                .currentFloor(3)
+                .futureStops(Arrays.asList(5, 9))
+                .build();
+
+        elevatorSide.onEvent(ElevatorStatusUpdateEvent.forStatus(status));
+
+        await().until(() -> electorSideEvents.stream().anyMatch(e -> e instanceof ElevatorStatusUpdateEvent));
+        ElevatorStatusUpdateEvent received = (ElevatorStatusUpdateEvent) electorSideEvents.stream()
+                .filter(e -> e instanceof ElevatorStatusUpdateEvent).findFirst().get();
+        assertEquals(status, received.getStatusUpdate());
+    }
+
+    @Test
+    @DisplayName("events received from the other side are not sent back to it")
+    void receivedEventsAreNotEchoed() {
+        ElevatorRequestUpEvent request = new ElevatorRequestUpEvent(2);
+        elevatorSide.onEvent(request);
+        await().until(() -> electorSideEvents.contains(request));
+        long sent = electorSide.getSentCount();
+
+        electorSide.onEvent((ElevatorRequestUpEvent) electorSideEvents.get(electorSideEvents.indexOf(request)));
+
+        assertEquals(sent, electorSide.getSentCount());
+        assertTrue(elevatorSideEvents.isEmpty());
+    }
+
+    @Test
+    @DisplayName("the other side's elevators are unregistered when the link is lost")
+    void lostLinkUnregistersElevators() {
+        await().until(() -> electorSideRegistry.lookup(descriptor.getId()).isPresent());
+
+        elevatorSide.close();
+
+        await().until(() -> !electorSideRegistry.lookup(descriptor.getId()).isPresent());
+        assertFalse(electorSide.isConnected());
+    }
+}
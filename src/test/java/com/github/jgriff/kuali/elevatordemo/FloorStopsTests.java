@@ -0,0 +1,59 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class FloorStopsTests {
+    private FloorStops sut = new FloorStops(1, 150);
+
+    @Test
+    @DisplayName("a floor is only scheduled once, but can be scheduled again after it has been served")
+    void stopsAreRequestableAgainAfterBeingServed() {
+        assertTrue(sut.add(5));
+        assertFalse(sut.add(5), "Should not schedule the same floor twice.");
+        assertEquals(1, sut.size());
+
+        assertTrue(sut.clear(5));
+        assertFalse(sut.contains(5));
+        assertFalse(sut.clear(5), "Should have nothing left to clear.");
+
+        assertTrue(sut.add(5));
+        assertTrue(sut.contains(5));
+    }
+
+    @Test
+    @DisplayName("the next stop can be found going up or down from any floor (across words of the bitmap)")
+    void nextStopInEitherDirection() {
+        Arrays.asList(3, 64, 65, 130).forEach(sut::add);
+
+        assertEquals(3, sut.nextAtOrAbove(1));
+        assertEquals(64, sut.nextAtOrAbove(4));
+        assertEquals(65, sut.nextAtOrAbove(65));
+        assertEquals(130, sut.nextAtOrAbove(66));
+        assertEquals(FloorStops.NONE, sut.nextAtOrAbove(131));
+
+        assertEquals(130, sut.nextAtOrBelow(150));
+        assertEquals(65, sut.nextAtOrBelow(129));
+        assertEquals(3, sut.nextAtOrBelow(63));
+        assertEquals(FloorStops.NONE, sut.nextAtOrBelow(2));
+
+        assertEquals(Arrays.asList(3, 64, 65, 130), sut.toList());
+    }
+
+    @Test
+    @DisplayName("floors outside of the range served are rejected")
+    void rejectsFloorsOutOfRange() {
+        assertThrows(InvalidElevatorRequestException.class, () -> sut.add(0));
+        assertThrows(InvalidElevatorRequestException.class, () -> sut.add(151));
+        assertFalse(sut.contains(151));
+        assertTrue(sut.isEmpty());
+    }
+}
@@ -1,6 +1,7 @@
 package com.github.jgriff.kuali.elevatordemo;
 
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorConfirmEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorDestinationRequestEvent;
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestDownEvent;
 import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestUpEvent;
 import org.junit.jupiter.api.DisplayName;
@@ -11,8 +12,17 @@ import org.mockito.Mock;
 import org.springframework.context.ApplicationEventPublisher;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -64,9 +74,9 @@ public class FloorTests implements MockitoTest, TimedTest {
         // then: publish a mock confirmation (would normally come from the component responsible for electing an elevator to service our request)
         ElevatorConfirmEvent confirmEvent = ElevatorConfirmEvent.confirming(requestEventCaptor.getValue());
         // but first, throw in some noise to make sure we are filtering for just our expected confirmation
-        sut.onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(ElevatorRequestUpEvent.from(sut))); 
-        sut.onElevatorRequestConfirm(confirmEvent); // THIS is the confirmation we should be looking for
-        sut.onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(ElevatorRequestUpEvent.from(sut))); // more noise... 
+        sut.getConfirmationRouter().onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(ElevatorRequestUpEvent.from(sut))); 
+        sut.getConfirmationRouter().onElevatorRequestConfirm(confirmEvent); // THIS is the confirmation we should be looking for
+        sut.getConfirmationRouter().onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(ElevatorRequestUpEvent.from(sut))); // more noise... 
         
         // finally: verify the confirm event is delivered in the Mono we return to our caller
         ElevatorConfirmEvent delivered = confirm.block(timeout());
@@ -88,15 +98,168 @@ public class FloorTests implements MockitoTest, TimedTest {
         // then: publish a mock confirmation (would normally come from the component responsible for electing an elevator to service our request)
         ElevatorConfirmEvent confirmEvent = ElevatorConfirmEvent.confirming(requestEventCaptor.getValue());
         // but first, throw in some noise to make sure we are filtering for just our expected confirmation
-        sut.onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(ElevatorRequestDownEvent.from(sut))); 
-        sut.onElevatorRequestConfirm(confirmEvent); // THIS is the confirmation we should be looking for
-        sut.onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(ElevatorRequestDownEvent.from(sut))); // more noise... 
+        sut.getConfirmationRouter().onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(ElevatorRequestDownEvent.from(sut))); 
+        sut.getConfirmationRouter().onElevatorRequestConfirm(confirmEvent); // THIS is the confirmation we should be looking for
+        sut.getConfirmationRouter().onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(ElevatorRequestDownEvent.from(sut))); // more noise... 
         
         // finally: verify the confirm event is delivered in the Mono we return to our caller
         ElevatorConfirmEvent delivered = confirm.block(timeout());
         assertEquals(confirmEvent, delivered, "Did not deliver confirm event in returned Mono.");
     }
     
+    @Test
+    @DisplayName("forgets a request once its confirmation has been delivered")
+    void forgetsConfirmedRequests() {
+        ArgumentCaptor<ElevatorRequestUpEvent> requestEventCaptor = ArgumentCaptor.forClass(ElevatorRequestUpEvent.class);
+        
+        // when: a request is made and confirmed
+        sut.requestUp();
+        verify(eventPublisher).publishEvent(requestEventCaptor.capture());
+        assertEquals(1, sut.getConfirmationRouter().getPendingCount());
+        sut.getConfirmationRouter().onElevatorRequestConfirm(ElevatorConfirmEvent.confirming(requestEventCaptor.getValue()));
+        
+        // then: nothing is left waiting for a confirmation
+        assertEquals(0, sut.getConfirmationRouter().getPendingCount());
+    }
+    
+    @Test
+    @DisplayName("a request that is never confirmed is answered with 'NO_AVAILABLE_ELEVATOR' once it times out")
+    void unconfirmedRequestTimesOut() {
+        VirtualClock clock = new VirtualClock();
+        BasicFloor floor = BasicFloor.builder()
+                .number(3)
+                .eventPublisher(eventPublisher)
+                .confirmationRouter(ElevatorConfirmationRouter.builder().clock(clock).confirmationTimeout(Duration.ofMinutes(1)).build())
+                .build();
+        
+        // when: a request is made, but nobody confirms it
+        Mono<ElevatorConfirmEvent> confirm = floor.requestUp();
+        clock.advance();
+        
+        // then: the request gives up, and we are told no elevator is available
+        assertEquals(ElevatorConfirmEvent.Result.NO_AVAILABLE_ELEVATOR, confirm.block(timeout()).getResult());
+        assertEquals(0, floor.getConfirmationRouter().getPendingCount());
+        assertEquals(1, floor.getConfirmationRouter().getTimedOutCount());
+    }
+    
+    @Test
+    @DisplayName("a request that times out has its 'NO_AVAILABLE_ELEVATOR' answer published, for everyone following it")
+    void timedOutConfirmationIsPublished() {
+        VirtualClock clock = new VirtualClock();
+        BasicFloor floor = BasicFloor.builder()
+                .number(3)
+                .eventPublisher(eventPublisher)
+                .confirmationRouter(ElevatorConfirmationRouter.builder().clock(clock).eventPublisher(eventPublisher).build())
+                .build();
+        
+        floor.requestUp();
+        clock.advance();
+        
+        verify(eventPublisher).publishEvent((Object) argThat(e -> e instanceof ElevatorConfirmEvent
+                && ((ElevatorConfirmEvent) e).getResult() == ElevatorConfirmEvent.Result.NO_AVAILABLE_ELEVATOR));
+    }
+    
+    @Test
+    @DisplayName("requests beyond the maximum pending are answered with 'NO_AVAILABLE_ELEVATOR', without being published")
+    void tooManyPendingRequestsAreRejected() {
+        BasicFloor floor = BasicFloor.builder()
+                .number(3)
+                .eventPublisher(eventPublisher)
+                .confirmationRouter(ElevatorConfirmationRouter.builder().maxPendingRequests(1).build())
+                .build();
+        
+        // when: more requests are made than we can have pending
+        floor.requestUp();
+        Mono<ElevatorConfirmEvent> rejected = floor.requestUp();
+        
+        // then: the extra request is turned away right away
+        assertEquals(ElevatorConfirmEvent.Result.NO_AVAILABLE_ELEVATOR, rejected.block(timeout()).getResult());
+        assertEquals(1, floor.getConfirmationRouter().getRejectedCount());
+        
+        // and: only the first request was published
+        verify(eventPublisher, times(1)).publishEvent(any(ElevatorRequestUpEvent.class));
+    }
+    
+    @Test
+    @DisplayName("requests made faster than the admission control lets in are answered with 'NO_AVAILABLE_ELEVATOR', without being published")
+    void throttledRequestsAreRejected() {
+        BasicFloor floor = BasicFloor.builder()
+                .number(3)
+                .eventPublisher(eventPublisher)
+                .confirmationRouter(ElevatorConfirmationRouter.builder()
+                        .admissionControl(AdmissionControl.builder().clock(new VirtualClock()).floorRate(1).build())
+                        .build())
+                .build();
+        
+        // when: two requests are made at once, from a floor let in one a second
+        floor.requestUp();
+        Mono<ElevatorConfirmEvent> throttled = floor.requestUp();
+        
+        // then: the second request is turned away right away
+        assertEquals(ElevatorConfirmEvent.Result.NO_AVAILABLE_ELEVATOR, throttled.block(timeout()).getResult());
+        assertEquals(1, floor.getConfirmationRouter().getThrottledCount());
+        assertEquals(1, floor.getConfirmationRouter().getAdmissionControl().getFloorRejectedCount());
+        
+        // and: only the first request was published
+        verify(eventPublisher, times(1)).publishEvent(any(ElevatorRequestUpEvent.class));
+    }
+    
+    @Test
+    @DisplayName("cancelling a request's confirmation abandons the request")
+    void cancellingConfirmationAbandonsRequest() {
+        sut.requestUp().subscribe().dispose();
+        
+        assertEquals(0, sut.getConfirmationRouter().getPendingCount());
+        assertEquals(1, sut.getConfirmationRouter().getCancelledCount());
+    }
+    
+    @Test
+    @DisplayName("abandoning a request fails anyone else waiting on its confirmation, rather than leaving them hanging")
+    void abandoningRequestFailsOtherSubscribers() {
+        Mono<ElevatorConfirmEvent> confirm = sut.requestUp();
+        CompletableFuture<ElevatorConfirmEvent> waiting = confirm.toFuture();
+        
+        // when: another subscriber gives up on the request
+        confirm.subscribe().dispose();
+        
+        // then: the one still waiting is told the request was abandoned
+        assertThrows(CancellationException.class, waiting::join);
+    }
+    
+    @Test
+    @DisplayName("no more than the maximum pending requests are published, however many floors request at once")
+    void maxPendingRequestsHoldsUnderContention() throws InterruptedException {
+        ElevatorConfirmationRouter router = ElevatorConfirmationRouter.builder().maxPendingRequests(50).build();
+        BasicFloor floor = BasicFloor.builder().number(3).eventPublisher(eventPublisher).confirmationRouter(router).build();
+        
+        // when: 8 threads make 100 requests each, all at once (and none are confirmed)
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    floor.requestUp();
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        // then: exactly the maximum are pending, and the rest were turned away
+        assertEquals(50, router.getPendingCount());
+        assertEquals(750, router.getRejectedCount());
+        verify(eventPublisher, times(50)).publishEvent(any(ElevatorRequestUpEvent.class));
+    }
+    
     @Test
     @DisplayName("requesting DOWN from the first floor raises an 'InvalidElevatorRequestException'")
     void requestDownFromFirstFloorRaisesException() {
@@ -107,6 +270,38 @@ public class FloorTests implements MockitoTest, TimedTest {
         assertEquals("Cannot go DOWN from the first floor.", thrown.getLocalizedMessage());
     }
 
+    @Test
+    @DisplayName("requesting a destination from a floor results in publishing a 'ElevatorDestinationRequestEvent' with both floors")
+    void requestToPublishesElevatorDestinationRequestEvent() {
+        sut.requestTo(7);
+        
+        // verify that our floor published the expected event
+        verify(eventPublisher).publishEvent((Object)
+            argThat(e -> ElevatorDestinationRequestEvent.class.cast(e).getRequestFloor() == 3
+                    && ElevatorDestinationRequestEvent.class.cast(e).getDestinationFloor() == 7)
+        );
+    }
+
+    @Test
+    @DisplayName("requesting the floor we are on as a destination raises an 'InvalidElevatorRequestException'")
+    void requestToSameFloorRaisesException() {
+        InvalidElevatorRequestException thrown = assertThrows(InvalidElevatorRequestException.class, () -> sut.requestTo(3));
+
+        assertEquals("Cannot go to floor '3', we are already there.", thrown.getLocalizedMessage());
+    }
+
+    @Test
+    @DisplayName("requesting a destination outside the building raises an 'InvalidElevatorRequestException'")
+    void requestToFloorOutsideBuildingRaisesException() {
+        BasicFloor floor = BasicFloor.builder().number(3).topFloor(50).eventPublisher(eventPublisher).build();
+
+        InvalidElevatorRequestException above = assertThrows(InvalidElevatorRequestException.class, () -> floor.requestTo(99));
+        assertEquals("Cannot go to floor '99', it is above the top floor.", above.getLocalizedMessage());
+        InvalidElevatorRequestException below = assertThrows(InvalidElevatorRequestException.class, () -> floor.requestTo(0));
+        assertEquals("Cannot go to floor '0', it is below the first floor.", below.getLocalizedMessage());
+        verify(eventPublisher, times(0)).publishEvent(any(ElevatorDestinationRequestEvent.class));
+    }
+
     @Test
     @DisplayName("by default, a floor is not the top floor")
     void notTopFloorByDefault() {
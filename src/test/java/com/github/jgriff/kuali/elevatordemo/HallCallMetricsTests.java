@@ -0,0 +1,114 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class HallCallMetricsTests {
+    private HallCallMetrics sut = HallCallMetrics.builder().build();
+
+    private ElevatorDescriptor one = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator One").build();
+    private ElevatorDescriptor two = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator Two").build();
+
+    @Test
+    @DisplayName("measures from a request to its confirmation, and to the confirmed elevator stopping at the floor")
+    void measuresConfirmationAndWait() {
+        ElevatorRequestUpEvent request = new ElevatorRequestUpEvent(5);
+        sut.requestedAt(request, seconds(0));
+        sut.confirmedAt(ElevatorConfirmEvent.confirming(request, one), seconds(1));
+
+        // another elevator stopping at the floor is not the one they are waiting for
+        sut.stoppedAt(ElevatorFloorStopEvent.builder().elevator(two).floor(5).build(), seconds(20));
+        sut.stoppedAt(ElevatorFloorStopEvent.builder().elevator(one).floor(5).build(), seconds(30));
+
+        assertEquals(Duration.ofSeconds(1), sut.getConfirmationLatency().snapshot().getMax());
+        assertEquals(Duration.ofSeconds(1), sut.confirmationLatencyAtFloor(5).get().snapshot().getMax());
+        assertEquals(Duration.ofSeconds(30), sut.getWaitTime().snapshot().getMax());
+        assertEquals(1, sut.waitTimeAtFloor(5).get().getCount());
+        assertEquals(1, sut.waitTimeFor(one.getId()).get().getCount());
+        assertFalse(sut.waitTimeFor(two.getId()).isPresent());
+    }
+
+    @Test
+    @DisplayName("measures a destination request's journey, until its elevator stops at the destination")
+    void measuresJourney() {
+        ElevatorDestinationRequestEvent request = new ElevatorDestinationRequestEvent(1, 9);
+        sut.requestedAt(request, seconds(0));
+        sut.confirmedAt(ElevatorConfirmEvent.confirming(request, one), seconds(1));
+        sut.stoppedAt(ElevatorFloorStopEvent.builder().elevator(one).floor(1).build(), seconds(10));
+        sut.stoppedAt(ElevatorFloorStopEvent.builder().elevator(one).floor(9).build(), seconds(40));
+
+        assertEquals(Duration.ofSeconds(10), sut.getWaitTime().snapshot().getMax());
+        assertEquals(Duration.ofSeconds(40), sut.getJourneyTime().snapshot().getMax());
+        assertEquals(1, sut.journeyTimeFor(one.getId()).get().getCount());
+    }
+
+    @Test
+    @DisplayName("does not measure a wait when no elevator is coming")
+    void noWaitWhenNoElevatorIsComing() {
+        ElevatorRequestDownEvent request = new ElevatorRequestDownEvent(5);
+        sut.requestedAt(request, seconds(0));
+        sut.confirmedAt(ElevatorConfirmEvent.noElevatorAvailableFor(request), seconds(1));
+        sut.stoppedAt(ElevatorFloorStopEvent.builder().elevator(one).floor(5).build(), seconds(30));
+
+        assertEquals(1, sut.getConfirmationLatency().getCount());
+        assertEquals(0, sut.getWaitTime().getCount());
+    }
+
+    @Test
+    @DisplayName("stops following a request that times out, so a later stop at its floor isn't counted as its wait")
+    void forgetsTimedOutRequest() {
+        ElevatorRequestUpEvent request = new ElevatorRequestUpEvent(5);
+        sut.requestedAt(request, seconds(0));
+
+        // a stop before the request is confirmed isn't by the elevator coming for it
+        sut.stoppedAt(ElevatorFloorStopEvent.builder().elevator(one).floor(5).build(), seconds(10));
+        assertEquals(0, sut.getWaitTime().getCount());
+
+        // the router gives up on it
+        sut.confirmedAt(ElevatorConfirmEvent.noElevatorAvailableFor(request), seconds(30));
+        sut.stoppedAt(ElevatorFloorStopEvent.builder().elevator(two).floor(5).build(), seconds(40));
+
+        assertEquals(0, sut.getWaitTime().getCount());
+        assertEquals(0, sut.getFollowingCount());
+    }
+
+    @Test
+    @DisplayName("stops following the requests an elevator was answering, once it is unregistered")
+    void forgetsRequestsOfUnregisteredElevator() {
+        ElevatorRequestUpEvent waiting = new ElevatorRequestUpEvent(5);
+        ElevatorDestinationRequestEvent travelling = new ElevatorDestinationRequestEvent(1, 9);
+        sut.requestedAt(waiting, seconds(0));
+        sut.confirmedAt(ElevatorConfirmEvent.confirming(waiting, one), seconds(1));
+        sut.requestedAt(travelling, seconds(0));
+        sut.confirmedAt(ElevatorConfirmEvent.confirming(travelling, one), seconds(1));
+        sut.stoppedAt(ElevatorFloorStopEvent.builder().elevator(one).floor(1).build(), seconds(10));
+        assertEquals(2, sut.getFollowingCount());
+
+        sut.onElevatorUnregistered(ElevatorUnregisteredEvent.forElevator(one));
+
+        assertEquals(0, sut.getFollowingCount());
+    }
+
+    @Test
+    @DisplayName("measures how long the doors stay open")
+    void measuresDwell() {
+        sut.doorsOpenedAt(ElevatorDoorOpenEvent.builder().elevator(one).floor(3).build(), seconds(10));
+        sut.doorsClosedAt(ElevatorDoorCloseEvent.builder().elevator(one).floor(3).build(), seconds(15));
+
+        assertEquals(Duration.ofSeconds(5), sut.dwellTimeFor(one.getId()).get().snapshot().getMax());
+    }
+
+    private static long seconds(long seconds) {
+        return Duration.ofSeconds(seconds).toNanos();
+    }
+}
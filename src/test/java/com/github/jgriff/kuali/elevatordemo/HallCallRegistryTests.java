@@ -0,0 +1,86 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent.Direction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class HallCallRegistryTests {
+    private static final long NOW = 0, LATER = 1_000;
+
+    private HallCallRegistry sut = new HallCallRegistry();
+
+    private ElevatorDescriptor one = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator One").build();
+    private ElevatorDescriptor two = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator Two").build();
+
+    @Test
+    @DisplayName("a call made again is answered with the elevator already on its way")
+    void coalesces() {
+        sut.assign(12, Direction.UP, one, LATER);
+
+        assertEquals(Optional.of(one), sut.coalesce(12, Direction.UP, NOW));
+        assertEquals(Optional.of(one), sut.coalesce(12, Direction.UP, NOW));
+        assertEquals(2, sut.getCoalescedCount());
+    }
+
+    @Test
+    @DisplayName("calls from the same floor, going the other way, are not coalesced")
+    void keyedByDirection() {
+        sut.assign(12, Direction.UP, one, LATER);
+
+        assertFalse(sut.coalesce(12, Direction.DOWN, NOW).isPresent());
+        assertFalse(sut.coalesce(11, Direction.UP, NOW).isPresent());
+        assertEquals(0, sut.getCoalescedCount());
+    }
+
+    @Test
+    @DisplayName("calls are answered once their elevator stops at the floor (and not when another one does)")
+    void clearedByStop() {
+        sut.assign(12, Direction.UP, one, LATER);
+        sut.assign(12, Direction.DOWN, two, LATER);
+
+        sut.stopped(two.getId(), 12);
+        assertEquals(Optional.of(one), sut.coalesce(12, Direction.UP, NOW));
+        assertFalse(sut.coalesce(12, Direction.DOWN, NOW).isPresent());
+
+        sut.stopped(one.getId(), 12);
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    @DisplayName("an elevator taken out of service no longer answers any calls")
+    void clearedByRemoval() {
+        sut.assign(3, Direction.UP, one, LATER);
+        sut.assign(7, Direction.DOWN, one, LATER);
+        sut.assign(9, Direction.DOWN, two, LATER);
+
+        sut.remove(one.getId());
+
+        assertEquals(1, sut.size());
+        assertEquals(Optional.of(two), sut.coalesce(9, Direction.DOWN, NOW));
+    }
+
+    @Test
+    @DisplayName("a call whose elevator hasn't stopped by the deadline is forgotten, to be elected afresh")
+    void expires() {
+        sut.assign(12, Direction.UP, one, LATER);
+
+        assertEquals(Optional.of(one), sut.coalesce(12, Direction.UP, LATER - 1));
+        assertFalse(sut.coalesce(12, Direction.UP, LATER).isPresent());
+        assertEquals(0, sut.size());
+        assertEquals(1, sut.getExpiredCount());
+        assertEquals(1, sut.getCoalescedCount());
+
+        // and: the elevator elected afresh is coalesced onto as before
+        sut.assign(12, Direction.UP, two, LATER * 2);
+        assertEquals(Optional.of(two), sut.coalesce(12, Direction.UP, LATER));
+    }
+}
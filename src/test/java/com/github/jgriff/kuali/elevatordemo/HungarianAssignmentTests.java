@@ -0,0 +1,89 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class HungarianAssignmentTests {
+    @Test
+    @DisplayName("finds the assignment with the least total cost, rather than the greedy one")
+    void findsLeastTotalCost() {
+        double[][] costs = {
+                {1, 2},
+                {1, 9},
+        };
+
+        // greedily, the first task would take worker 0 (leaving the second task the expensive worker 1)
+        assertArrayEquals(new int[] {1, 0}, HungarianAssignment.solve(costs));
+    }
+
+    @Test
+    @DisplayName("leaves the most expensive workers idle, when there are more workers than tasks")
+    void moreWorkersThanTasks() {
+        double[][] costs = {
+                {7, 3, 5},
+        };
+
+        assertArrayEquals(new int[] {1}, HungarianAssignment.solve(costs));
+    }
+
+    @Test
+    @DisplayName("avoids impossible assignments")
+    void avoidsImpossible() {
+        double[][] costs = {
+                {Double.POSITIVE_INFINITY, 50},
+                {1, 2},
+        };
+
+        assertArrayEquals(new int[] {1, 0}, HungarianAssignment.solve(costs));
+    }
+
+    @Test
+    @DisplayName("agrees with a brute force search")
+    void agreesWithBruteForce() {
+        Random random = new Random(42);
+        for (int trial = 0; trial < 100; trial++) {
+            int n = 1 + random.nextInt(5), m = n + random.nextInt(3);
+            double[][] costs = new double[n][m];
+            for (double[] row : costs) {
+                for (int w = 0; w < m; w++) row[w] = random.nextInt(100);
+            }
+
+            int[] assigned = HungarianAssignment.solve(costs);
+            assertEquals(n, Arrays.stream(assigned).distinct().count(), "Each task has a worker of its own.");
+            assertEquals(bruteForce(costs, 0, new boolean[m]), total(costs, assigned), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("needs a worker for every task")
+    void tooFewWorkers() {
+        assertThrows(IllegalArgumentException.class, () -> HungarianAssignment.solve(new double[][] {{1}, {2}}));
+    }
+
+    private static double total(double[][] costs, int[] assigned) {
+        double total = 0;
+        for (int t = 0; t < assigned.length; t++) total += costs[t][assigned[t]];
+        return total;
+    }
+
+    private static double bruteForce(double[][] costs, int task, boolean[] taken) {
+        if (task == costs.length) return 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int w = 0; w < taken.length; w++) {
+            if (taken[w]) continue;
+            taken[w] = true;
+            best = Math.min(best, costs[task][w] + bruteForce(costs, task + 1, taken));
+            taken[w] = false;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,122 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class JournalReplayTests {
+    private final List<EventCodec.Entry> recording = new ArrayList<>();
+
+    @Test
+    @DisplayName("the recorded run is measured from the recorded timestamps")
+    void measuresRecordedRun() {
+        ElevatorDescriptor elevator = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator 1").build();
+        ElevatorRequestEvent request = new ElevatorRequestUpEvent(5);
+        record(0, request);
+        record(1, ElevatorConfirmEvent.confirming(request, elevator));
+        record(12, new ElevatorFloorStopEvent(elevator, 5));
+
+        JournalReplay.Result result = replay().startingFloor(1).build().replay();
+
+        assertEquals(1, result.getRecordedWaitTime().getCount());
+        assertEquals(12, result.getRecordedWaitTime().getMax().getSeconds());
+    }
+
+    @Test
+    @DisplayName("every recorded hall call is answered in the replay")
+    void replaysEveryHallCall() {
+        recordHallCalls(20);
+
+        JournalReplay.Result result = replay().startingFloor(1).startingFloor(20).build().replay();
+
+        assertEquals(20, result.getHallCalls());
+        assertEquals(20, result.getReplayed().getConfirmationLatency().getCount());
+        assertEquals(20, result.getReplayedWaitTime().getCount());
+        assertTrue(result.getSimulatedTime().compareTo(Duration.ofSeconds(19 * 10)) >= 0, "replayed in simulated, not real, time");
+    }
+
+    @Test
+    @DisplayName("an elector batching its calls waits out its batch window in simulated time, too")
+    void replaysBatchedCalls() {
+        recordHallCalls(20);
+
+        JournalReplay sut = replay()
+                .startingFloor(1).startingFloor(20)
+                .elector(() -> {
+                    ElevatorElector elector = new ElevatorElector();
+                    elector.setBatchWindow(Duration.ofSeconds(2));
+                    return elector;
+                })
+                .build();
+        JournalReplay.Result first = sut.replay(), second = sut.replay();
+
+        assertEquals(20, first.getReplayed().getConfirmationLatency().getCount());
+        assertEquals(Duration.ofSeconds(2), first.getReplayed().getConfirmationLatency().snapshot().getMean(), "each call waited for its batch");
+        assertEquals(20, first.getReplayedWaitTime().getCount());
+        assertEquals(first.getFingerprint(), second.getFingerprint());
+    }
+
+    @Test
+    @DisplayName("replaying the same recording the same way gives exactly the same results")
+    void replaysAreReproducible() {
+        recordHallCalls(50);
+
+        JournalReplay sut = replay().startingFloor(1).startingFloor(10).startingFloor(20).build();
+        JournalReplay.Result first = sut.replay(), second = sut.replay();
+
+        assertEquals(first.getFingerprint(), second.getFingerprint());
+        assertEquals(first.getReplayedWaitTime(), second.getReplayedWaitTime());
+        assertEquals(first.getSimulatedTime(), second.getSimulatedTime());
+    }
+
+    @Test
+    @DisplayName("replaying with a different configuration plays out differently")
+    void configurationChangesTheReplay() {
+        recordHallCalls(50);
+
+        JournalReplay.Result fifo = replay().startingFloor(1).elevatorConfiguration(b -> b.scheduling(BasicElevator.Scheduling.FIFO)).build().replay();
+        JournalReplay.Result look = replay().startingFloor(1).elevatorConfiguration(b -> b.scheduling(BasicElevator.Scheduling.LOOK)).build().replay();
+
+        assertNotEquals(fifo.getFingerprint(), look.getFingerprint());
+        assertEquals(fifo.getReplayedWaitTime().getCount(), look.getReplayedWaitTime().getCount());
+    }
+
+    private JournalReplay.JournalReplayBuilder replay() {
+        return JournalReplay.builder()
+                .recording(Flux.fromIterable(recording))
+                .topFloor(20);
+    }
+
+    /**
+     * Hall calls from distinct floors, 10 seconds apart.
+     */
+    private void recordHallCalls(int calls) {
+        Random random = new Random(7);
+        List<Integer> floors = new ArrayList<>();
+        for (int floor = 1; floor <= 20; floor++) floors.add(floor);
+        Collections.shuffle(floors, random);
+        for (int i = 0; i < calls; i++) {
+            int floor = floors.get(i % floors.size());
+            record(i * 10, floor == 20 || (floor > 1 && random.nextBoolean()) ? new ElevatorRequestDownEvent(floor) : new ElevatorRequestUpEvent(floor));
+        }
+    }
+
+    private void record(long seconds, Object event) {
+        recording.add(new EventCodec.Entry(TimeUnit.SECONDS.toNanos(seconds), event));
+    }
+}
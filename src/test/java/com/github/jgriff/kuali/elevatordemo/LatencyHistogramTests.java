@@ -0,0 +1,57 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class LatencyHistogramTests {
+    private LatencyHistogram sut = new LatencyHistogram();
+
+    @Test
+    @DisplayName("percentiles are within a few percent of the recorded latencies")
+    void percentilesAreAccurate() {
+        for (int millis = 1; millis <= 1000; millis++) {
+            sut.record(Duration.ofMillis(millis));
+        }
+
+        LatencyHistogram.Snapshot snapshot = sut.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertWithin(Duration.ofMillis(500), snapshot.getMean());
+        assertWithin(Duration.ofMillis(500), snapshot.getP50());
+        assertWithin(Duration.ofMillis(900), snapshot.getP90());
+        assertWithin(Duration.ofMillis(990), snapshot.getP99());
+        assertEquals(Duration.ofMillis(1000), snapshot.getMax(), "The max is exact.");
+    }
+
+    @Test
+    @DisplayName("small latencies are counted exactly")
+    void smallLatenciesAreExact() {
+        sut.record(3);
+        sut.record(7);
+
+        assertEquals(Duration.ofNanos(3), sut.percentile(0.5));
+        assertEquals(Duration.ofNanos(7), sut.percentile(1));
+    }
+
+    @Test
+    @DisplayName("an empty histogram reports zero")
+    void emptyIsZero() {
+        LatencyHistogram.Snapshot snapshot = sut.snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(Duration.ZERO, snapshot.getP99());
+        assertEquals(Duration.ZERO, snapshot.getMean());
+    }
+
+    private static void assertWithin(Duration expected, Duration actual) {
+        double error = Math.abs(actual.toNanos() - expected.toNanos()) / (double) expected.toNanos();
+        assertTrue(error < 0.04, "Expected about " + expected + ", but was " + actual + ".");
+    }
+}
@@ -0,0 +1,71 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRegisteredEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorUnregisteredEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class RegistryTests implements MockitoTest {
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private Elevator elevator;
+    private ElevatorDescriptor descriptor = ElevatorDescriptor.builder().id(UUID.randomUUID()).name("Elevator One").build();
+
+    private BasicElevatorRegistry sut;
+
+    @BeforeEach
+    void configure() {
+        when(elevator.describe()).thenReturn(descriptor);
+        sut = BasicElevatorRegistry.builder().eventPublisher(eventPublisher).build();
+    }
+
+    @Test
+    @DisplayName("registered elevators can be looked up by their id")
+    void lookupById() {
+        assertTrue(sut.register(elevator));
+
+        assertEquals(Optional.of(elevator), sut.lookup(descriptor.getId()));
+        assertFalse(sut.lookup(UUID.randomUUID()).isPresent());
+    }
+
+    @Test
+    @DisplayName("registering an elevator publishes a 'ElevatorRegisteredEvent', but only the first time")
+    void registeringPublishesEvent() {
+        sut.register(elevator);
+        assertFalse(sut.register(elevator), "Should not register the same elevator twice.");
+
+        verify(eventPublisher).publishEvent((Object)
+            argThat(e -> e instanceof ElevatorRegisteredEvent && ((ElevatorRegisteredEvent) e).getElevator().equals(descriptor))
+        );
+    }
+
+    @Test
+    @DisplayName("unregistering an elevator removes it and publishes a 'ElevatorUnregisteredEvent'")
+    void unregisteringPublishesEvent() {
+        sut.register(elevator);
+
+        assertEquals(Optional.of(elevator), sut.unregister(descriptor.getId()));
+
+        assertFalse(sut.lookup(descriptor.getId()).isPresent());
+        assertTrue(sut.getElevators().isEmpty());
+        verify(eventPublisher).publishEvent((Object)
+            argThat(e -> e instanceof ElevatorUnregisteredEvent && ((ElevatorUnregisteredEvent) e).getElevator().equals(descriptor))
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class RingBufferTests {
+    private RingBuffer<AtomicInteger> sut = new RingBuffer<>(3, AtomicInteger::new);
+    private List<Integer> consumed = new ArrayList<>();
+
+    @Test
+    @DisplayName("capacity is rounded up to a power of 2")
+    void capacityIsPowerOf2() {
+        assertEquals(4, sut.getCapacity());
+        assertEquals(1, new RingBuffer<>(1, Object::new).getCapacity());
+        assertEquals(8, new RingBuffer<>(8, Object::new).getCapacity());
+    }
+
+    @Test
+    @DisplayName("entries are consumed in the order they were claimed, and only once published")
+    void consumesInClaimOrderOncePublished() {
+        long first = sut.claim(), second = sut.claim();
+        sut.get(second).set(2);
+        sut.publish(second);
+
+        // the first isn't published yet, so nothing can be consumed past it
+        assertEquals(0, sut.drain(slot -> consumed.add(slot.get()), 10));
+
+        sut.get(first).set(1);
+        sut.publish(first);
+        assertEquals(2, sut.drain(slot -> consumed.add(slot.get()), 10));
+        assertEquals(Arrays.asList(1, 2), consumed);
+    }
+
+    @Test
+    @DisplayName("claims fail when the ring is full, and succeed again (reusing the slots) once it is drained")
+    void reusesSlotsOnceDrained() {
+        for (int i = 0; i < 4; i++) {
+            long sequence = sut.claim();
+            sut.get(sequence).set(i);
+            sut.publish(sequence);
+        }
+        assertEquals(-1, sut.claim(), "The ring should be full.");
+
+        assertEquals(4, sut.drain(slot -> consumed.add(slot.get()), 10));
+        long sequence = sut.claim();
+        assertEquals(4, sequence);
+        sut.get(sequence).set(4);
+        sut.publish(sequence);
+        sut.drain(slot -> consumed.add(slot.get()), 10);
+
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), consumed);
+        assertEquals(0, sut.size());
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorFloorStopEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares how far (and how long) an elevator travels to serve the same stops, under each {@link BasicElevator.Scheduling}.
+ * Everything runs on a {@link VirtualClock}, so the simulated times are exact.
+ *
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class SchedulingTests {
+    private VirtualClock clock = new VirtualClock();
+    private List<Integer> stops = new ArrayList<>();
+    private List<Long> stopTimes = new ArrayList<>();
+
+    @AfterEach
+    void stopClock() {
+        clock.shutdown();
+    }
+
+    @Test
+    @DisplayName("FIFO serves stops in the order they were requested")
+    void fifoServesInRequestOrder() {
+        BasicElevator sut = elevatorAt(10, BasicElevator.Scheduling.FIFO);
+
+        serve(sut, 40, 11, 39);
+
+        assertEquals(Arrays.asList(40, 11, 39), stops);
+        assertEquals(30 + 29 + 28, sut.getFloorsPassed());
+        assertEquals(181, averageTripSeconds());
+    }
+
+    @Test
+    @DisplayName("LOOK serves stops on the way, and turns around when there are none left ahead")
+    void lookServesStopsOnTheWay() {
+        BasicElevator sut = elevatorAt(10, BasicElevator.Scheduling.LOOK);
+
+        serve(sut, 40, 11, 39);
+
+        assertEquals(Arrays.asList(11, 39, 40), stops);
+        assertEquals(30, sut.getFloorsPassed());
+        assertEquals(65, averageTripSeconds());
+    }
+
+    @Test
+    @DisplayName("LOOK turns around at the last stop, where SCAN carries on to the end of the shaft")
+    void scanSweepsToTheEnd() {
+        BasicElevator look = elevatorAt(5, BasicElevator.Scheduling.LOOK);
+        serve(look, 7, 2);
+        assertEquals(Arrays.asList(7, 2), stops);
+        assertEquals(2 + 5, look.getFloorsPassed());
+
+        stops.clear();
+        BasicElevator scan = elevatorAt(5, BasicElevator.Scheduling.SCAN);
+        serve(scan, 7, 2);
+        assertEquals(Arrays.asList(7, 2), stops);
+        assertEquals(5 + 8, scan.getFloorsPassed());
+    }
+
+    @Test
+    @DisplayName("a stop can be requested again after it has been served")
+    void stopsAreRequestableAgain() {
+        BasicElevator sut = elevatorAt(1, BasicElevator.Scheduling.LOOK);
+
+        serve(sut, 3);
+        serve(sut, 3, 3);
+
+        assertEquals(Arrays.asList(3, 3), stops);
+    }
+
+    private BasicElevator elevatorAt(int floor, BasicElevator.Scheduling scheduling) {
+        return BasicElevator.builder()
+                .topFloor(50)
+                .currentFloor(floor)
+                .scheduling(scheduling)
+                .clock(clock)
+                .eventPublisher(event -> {
+                    if (event instanceof ElevatorFloorStopEvent) {
+                        stops.add(((ElevatorFloorStopEvent) event).getFloor());
+                        stopTimes.add(clock.now(TimeUnit.SECONDS));
+                    }
+                })
+                .build();
+    }
+
+    private void serve(BasicElevator elevator, int... floors) {
+        Arrays.stream(floors).forEach(elevator::moveToFloor);
+        clock.advance();
+    }
+
+    private long averageTripSeconds() {
+        return stopTimes.stream().mapToLong(Long::longValue).sum() / stopTimes.size();
+    }
+}
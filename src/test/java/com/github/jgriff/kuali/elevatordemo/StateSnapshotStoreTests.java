@@ -0,0 +1,160 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorFloorStopEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorMovingEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class StateSnapshotStoreTests {
+    private final UUID elevatorId = UUID.randomUUID();
+    private final VirtualClock clock = new VirtualClock();
+    private final List<Integer> stops = new ArrayList<>();
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("snapshot");
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        clock.shutdown();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(f -> f.toFile().delete());
+        }
+    }
+
+    @Test
+    @DisplayName("a snapshot reads back just as it was written")
+    void roundTrip() throws IOException {
+        ElevatorDescriptor descriptor = ElevatorDescriptor.builder().id(elevatorId).name("Elevator 1").build();
+        StateSnapshot snapshot = StateSnapshot.builder()
+                .takenAt(1234)
+                .elevator(StateSnapshot.ElevatorState.builder()
+                        .id(elevatorId)
+                        .currentFloor(4)
+                        .direction(ElevatorMovingEvent.Direction.UP)
+                        .stops(Arrays.asList(7, 2))
+                        .floorsPassed(30)
+                        .tripsMade(6)
+                        .build())
+                .elector(StateSnapshot.ElectorState.builder()
+                        .status(ElevatorStatus.builder()
+                                .descriptor(descriptor)
+                                .operationalState(ElevatorOperationalState.OPERATIONAL)
+                                .currentFloor(4)
+                                .futureStops(Arrays.asList(7, 2))
+                                .direction(ElevatorMovingEvent.Direction.UP)
+                                .build())
+                        .boarding(StateSnapshot.Boarding.builder()
+                                .elevator(elevatorId)
+                                .origin(7)
+                                .destination(9)
+                                .direction(ElevatorMovingEvent.Direction.UP)
+                                .build())
+                        .build())
+                .build();
+        Path file = directory.resolve("elevators.snapshot");
+
+        StateSnapshotStore.write(snapshot, file);
+
+        assertEquals(snapshot, StateSnapshotStore.read(file).orElse(null));
+    }
+
+    @Test
+    @DisplayName("there is nothing to restore before a snapshot has been saved")
+    void nothingToRestore() throws IOException {
+        StateSnapshotStore sut = store(registryWith(elevator()));
+
+        assertFalse(sut.restore());
+    }
+
+    @Test
+    @DisplayName("a restarted elevator carries on to the stops it had queued")
+    void restoresQueuedStops() throws IOException {
+        BasicElevator before = elevator(new VirtualClock()); // never gets anywhere
+        before.moveToFloor(5);
+        before.moveToFloor(8);
+        store(registryWith(before)).save();
+
+        // restart: a new elevator (with the same id), that hasn't been asked to go anywhere
+        BasicElevator after = elevator();
+        assertTrue(store(registryWith(after)).restore());
+        clock.advance();
+
+        assertEquals(Arrays.asList(5, 8), stops);
+        assertEquals(8, after.getCurrentFloor());
+    }
+
+    @Test
+    @DisplayName("the electors remember the passengers waiting to board")
+    void restoresWaitingPassengers() throws IOException {
+        StateSnapshotStore before = store(registryWith(elevator()));
+        before.getBanks().restore(StateSnapshot.ElectorState.builder()
+                .boarding(StateSnapshot.Boarding.builder().elevator(elevatorId).origin(3).destination(6).direction(ElevatorMovingEvent.Direction.UP).build())
+                .build());
+        before.save();
+
+        StateSnapshotStore after = store(registryWith(elevator()));
+        after.restore();
+
+        assertEquals(before.getBanks().snapshot().getBoardings(), after.getBanks().snapshot().getBoardings());
+        assertEquals(1, after.getBanks().snapshot().getBoardings().size());
+    }
+
+    private StateSnapshotStore store(ElevatorRegistry registry) {
+        BankRouter banks = BankRouter.builder()
+                .bank(ElevatorBank.builder().name("All").lowestFloor(1).highestFloor(10).elevator(elevatorId).build())
+                .eventPublisher(event -> {})
+                .registry(registry)
+                .build();
+        return StateSnapshotStore.builder()
+                .file(directory.resolve("elevators.snapshot"))
+                .clock(clock)
+                .registry(registry)
+                .banks(banks)
+                .build();
+    }
+
+    private ElevatorRegistry registryWith(Elevator elevator) {
+        ElevatorRegistry registry = BasicElevatorRegistry.builder().eventPublisher(event -> {}).build();
+        registry.register(elevator);
+        return registry;
+    }
+
+    private BasicElevator elevator() {
+        return elevator(clock);
+    }
+
+    private BasicElevator elevator(SimulationClock clock) {
+        return BasicElevator.builder()
+                .id(elevatorId)
+                .currentFloor(1)
+                .scheduling(BasicElevator.Scheduling.LOOK)
+                .clock(clock)
+                .eventPublisher(event -> {
+                    if (event instanceof ElevatorFloorStopEvent) {
+                        stops.add(((ElevatorFloorStopEvent) event).getFloor());
+                    }
+                })
+                .build();
+    }
+}
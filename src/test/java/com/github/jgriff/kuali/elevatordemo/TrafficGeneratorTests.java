@@ -0,0 +1,128 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorDestinationRequestEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestEvent;
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorRequestUpEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class TrafficGeneratorTests {
+    private VirtualClock clock = new VirtualClock();
+    private List<ElevatorRequestEvent> requests = new ArrayList<>();
+    private ElevatorConfirmationRouter router = ElevatorConfirmationRouter.builder()
+            .clock(clock)
+            .maxPendingRequests(Integer.MAX_VALUE)
+            .build();
+    private List<Floor> floors = Stream.iterate(1, i -> ++i).limit(10)
+            .map(floor -> BasicFloor.builder()
+                    .number(floor)
+                    .bottom(floor == 1)
+                    .top(floor == 10)
+                    .topFloor(10)
+                    .eventPublisher(e -> requests.add((ElevatorRequestEvent) e))
+                    .confirmationRouter(router)
+                    .build())
+            .collect(Collectors.toList());
+
+    @AfterEach
+    void stopClock() {
+        clock.shutdown();
+    }
+
+    @Test
+    @DisplayName("passengers arrive at the configured rate (on average)")
+    void arrivesAtConfiguredRate() {
+        TrafficGenerator sut = generator(TrafficGenerator.Profile.INTER_FLOOR, 1, false);
+
+        runFor(sut, 60);
+
+        assertEquals(6000, sut.getGeneratedCount(), 300);
+        assertEquals(sut.getGeneratedCount(), requests.size());
+    }
+
+    @Test
+    @DisplayName("the same seed produces the same passengers")
+    void sameSeedSameTraffic() {
+        runFor(generator(TrafficGenerator.Profile.LUNCH, 7, true), 10);
+        List<String> first = trips();
+        requests.clear();
+
+        runFor(generator(TrafficGenerator.Profile.LUNCH, 7, true), 10);
+
+        assertFalse(first.isEmpty());
+        assertEquals(first, trips());
+    }
+
+    @Test
+    @DisplayName("up-peak traffic mostly heads up from the lobby")
+    void upPeakLeavesTheLobby() {
+        runFor(generator(TrafficGenerator.Profile.UP_PEAK, 1, false), 10);
+
+        long upFromLobby = requests.stream()
+                .filter(r -> r instanceof ElevatorRequestUpEvent && r.getRequestFloor() == 1)
+                .count();
+        assertTrue(upFromLobby > requests.size() * 0.8, "Expected most requests to be UP from the lobby, but only " + upFromLobby + " of " + requests.size() + " were.");
+    }
+
+    @Test
+    @DisplayName("requests that fail are counted as unanswered, and the traffic keeps coming")
+    void keepsGeneratingWhenRequestsFail() {
+        List<Floor> failing = Stream.iterate(1, i -> ++i).limit(10)
+                .map(floor -> BasicFloor.builder()
+                        .number(floor)
+                        .bottom(floor == 1)
+                        .top(floor == 10)
+                        .topFloor(10)
+                        .eventPublisher(e -> { throw new EventBusOverflowException("Full"); })
+                        .confirmationRouter(router)
+                        .build())
+                .collect(Collectors.toList());
+        TrafficGenerator sut = TrafficGenerator.builder()
+                .floors(failing)
+                .clock(clock)
+                .arrivalsPerSecond(100)
+                .seed(1)
+                .build();
+
+        runFor(sut, 10);
+
+        assertEquals(1000, sut.getGeneratedCount(), 150);
+        assertEquals(sut.getGeneratedCount(), sut.getUnansweredCount());
+    }
+
+    private TrafficGenerator generator(TrafficGenerator.Profile profile, long seed, boolean destinationDispatch) {
+        return TrafficGenerator.builder()
+                .floors(floors)
+                .clock(clock)
+                .profile(profile)
+                .arrivalsPerSecond(100)
+                .seed(seed)
+                .destinationDispatch(destinationDispatch)
+                .build();
+    }
+
+    private void runFor(TrafficGenerator generator, long seconds) {
+        generator.start();
+        clock.getScheduler().schedule(generator::stop, seconds, TimeUnit.SECONDS);
+        clock.advance();
+    }
+
+    private List<String> trips() {
+        return requests.stream()
+                .map(r -> r.getRequestFloor() + "->" + ((ElevatorDestinationRequestEvent) r).getDestinationFloor())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.jgriff.kuali.elevatordemo;
+
+import com.github.jgriff.kuali.elevatordemo.events.ElevatorDoorCloseEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.verify;
+
+/**
+ * @author mailto:justinrgriffin@gmail.com[Justin Griffin]
+ * @since 0.0.1
+ */
+public class VirtualClockTests implements MockitoTest, TimedTest {
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private VirtualClock sut = new VirtualClock();
+
+    @AfterEach
+    void shutdownClock() {
+        sut.shutdown();
+    }
+
+    @Test
+    @DisplayName("runs scheduled tasks in the order they are due, without waiting for real time to pass")
+    void runsTasksInOrderDue() {
+        List<Integer> ran = new ArrayList<>();
+        sut.getScheduler().schedule(() -> ran.add(2), 2, HOURS);
+        sut.getScheduler().schedule(() -> ran.add(1), 1, HOURS);
+
+        sut.advance();
+
+        assertEquals(Arrays.asList(1, 2), ran, "Tasks should run in the order they are due.");
+        assertEquals(2, sut.now(HOURS), "Time should have advanced to the last task.");
+    }
+
+    @Test
+    @DisplayName("cancelled tasks never run, and do not move time forward")
+    void cancelledTasksDoNotRun() {
+        List<Integer> ran = new ArrayList<>();
+        sut.getScheduler().schedule(() -> ran.add(1), 1, HOURS);
+        sut.getScheduler().schedule(() -> ran.add(2), 2, HOURS).dispose();
+
+        sut.advance();
+
+        assertEquals(Arrays.asList(1), ran);
+        assertEquals(1, sut.now(HOURS));
+    }
+
+    @Test
+    @DisplayName("an elevator running on virtual time completes its trip instantly, with simulated time passing")
+    void elevatorRunsOnVirtualTime() {
+        BasicElevator elevator = BasicElevator.builder()
+                .clock(sut)
+                .eventPublisher(eventPublisher)
+                .build(); // default (real world) movement and door delays
+
+        elevator.moveToFloor(5);
+        sut.advance();
+
+        // then: the elevator finished its trip (closed its doors at floor 5)...
+        verify(eventPublisher).publishEvent((Object) argThat(e -> e instanceof ElevatorDoorCloseEvent));
+
+        // and: at least the movement and door delays passed in simulated time
+        long minimum = elevator.getMovementSpeed().plus(elevator.getDoorOpenDelay()).getSeconds();
+        assertTrue(sut.now(SECONDS) >= minimum, "Simulated time should include the movement and door delays.");
+    }
+}